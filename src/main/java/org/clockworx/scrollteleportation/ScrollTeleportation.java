@@ -1,14 +1,22 @@
 package org.clockworx.scrollteleportation;
 
 import org.clockworx.scrollteleportation.commands.CommandHandler;
+import org.clockworx.scrollteleportation.files.CancelTrigger;
+import org.clockworx.scrollteleportation.files.ConfigReloader;
 import org.clockworx.scrollteleportation.files.MainConfig;
 import org.clockworx.scrollteleportation.listeners.ActivateScrollListener;
+import org.clockworx.scrollteleportation.listeners.PlayerActionListener;
+import org.clockworx.scrollteleportation.listeners.PlayerDamageListener;
+import org.clockworx.scrollteleportation.listeners.PlayerInteractionListener;
 import org.clockworx.scrollteleportation.listeners.PlayerInvOpenListener;
 import org.clockworx.scrollteleportation.listeners.PlayerMoveListener;
+import org.clockworx.scrollteleportation.listeners.PrefetchListener;
 import org.clockworx.scrollteleportation.storage.ScrollStorage;
+import org.clockworx.scrollteleportation.tasks.SchedulerAdapter;
 import org.clockworx.scrollteleportation.teleporthandler.TeleportHandler;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
+import org.bukkit.event.Listener;
 import org.bukkit.plugin.java.JavaPlugin;
 
 public class ScrollTeleportation extends JavaPlugin {
@@ -17,10 +25,13 @@ public class ScrollTeleportation extends JavaPlugin {
     private MainConfig config;
     private TeleportHandler teleHandler;
     private ScrollStorage scrollStorage;
+    private ConfigReloader configReloader;
+    private SchedulerAdapter schedulerAdapter;
 
     @Override
     public void onEnable() {
         instance = this;
+        this.schedulerAdapter = SchedulerAdapter.create(this);
         
         // Initialize components with error handling
         boolean configLoaded = initializeConfig();
@@ -31,6 +42,9 @@ public class ScrollTeleportation extends JavaPlugin {
         // Log startup message with status
         if (configLoaded && scrollStorage != null) {
             getLogger().info("Loaded " + scrollStorage.getLoadedScrolls().size() + " scrolls!");
+            if (config.getLastLoadTimings() != null) {
+                getLogger().info("Configuration loaded in " + config.getLastLoadTimings());
+            }
         } else {
             getLogger().warning("Some scrolls may not have loaded correctly.");
         }
@@ -45,8 +59,27 @@ public class ScrollTeleportation extends JavaPlugin {
 
     @Override
     public void onDisable() {
+        // Stop watching the configuration files
+        if (configReloader != null) {
+            configReloader.stopWatching();
+        }
+
+        // Write any configuration edits that are still pending
+        if (config != null) {
+            config.getConfigSaver().close();
+        }
+
+        // Let go of the chunks kept loaded for busy destinations and held scrolls
+        if (teleHandler != null) {
+            teleHandler.getHotChunks().stop();
+            teleHandler.getPrefetcher().stop();
+            teleHandler.getChunkTickets().releaseAll();
+        }
+
         // Cancel all tasks
-        getServer().getScheduler().cancelTasks(this);
+        if (schedulerAdapter != null) {
+            schedulerAdapter.cancelTasks();
+        }
         
         // Log shutdown message
         getLogger().info("Scroll Teleportation v" + getPluginMeta().getVersion() + " has been disabled.");
@@ -61,6 +94,8 @@ public class ScrollTeleportation extends JavaPlugin {
         try {
             this.config = new MainConfig(this);
             this.scrollStorage = this.config.getScrollStorage();
+            this.configReloader = new ConfigReloader(this, this.config);
+            this.configReloader.updateWatcher();
             return true;
         } catch (Exception e) {
             getLogger().severe("Failed to initialize configuration: " + e.getMessage());
@@ -77,6 +112,9 @@ public class ScrollTeleportation extends JavaPlugin {
     private boolean initializeTeleportHandler() {
         try {
             this.teleHandler = new TeleportHandler(this);
+            this.teleHandler.getScheduler().start();
+            this.teleHandler.getLandingPool().start();
+            this.teleHandler.getHotChunks().start();
             return true;
         } catch (Exception e) {
             getLogger().severe("Failed to initialize teleport handler: " + e.getMessage());
@@ -95,29 +133,42 @@ public class ScrollTeleportation extends JavaPlugin {
         
         try {
             getServer().getPluginManager().registerEvents(new ActivateScrollListener(this), this);
+            getServer().getPluginManager().registerEvents(new PrefetchListener(this), this);
         } catch (Exception e) {
             getLogger().severe("Failed to register ActivateScrollListener: " + e.getMessage());
             e.printStackTrace();
             success = false;
         }
         
-        try {
-            getServer().getPluginManager().registerEvents(new PlayerMoveListener(this), this);
-        } catch (Exception e) {
-            getLogger().severe("Failed to register PlayerMoveListener: " + e.getMessage());
-            e.printStackTrace();
-            success = false;
-        }
+        // Only registered while a teleport that cancels on them is counting down
+        success &= registerWarmupListener(new PlayerMoveListener(this),
+                CancelTrigger.MOVE, CancelTrigger.CLIMB, CancelTrigger.FALL);
+        success &= registerWarmupListener(new PlayerInvOpenListener(this), CancelTrigger.INVENTORY);
+        success &= registerWarmupListener(new PlayerDamageListener(this), CancelTrigger.DAMAGE, CancelTrigger.ATTACK);
+        success &= registerWarmupListener(new PlayerInteractionListener(this),
+                CancelTrigger.INTERACT, CancelTrigger.ITEM_USE);
+        success &= registerWarmupListener(new PlayerActionListener(this), CancelTrigger.JUMP, CancelTrigger.CROUCH,
+                CancelTrigger.SPRINT, CancelTrigger.FLY, CancelTrigger.SWIM);
         
+        return success;
+    }
+
+    /**
+     * Hands a listener to the teleport handler, which registers it while a warmup needs it.
+     * 
+     * @param listener The listener
+     * @param triggers The triggers the listener checks
+     * @return true if the listener was added successfully, false otherwise
+     */
+    private boolean registerWarmupListener(Listener listener, CancelTrigger... triggers) {
         try {
-            getServer().getPluginManager().registerEvents(new PlayerInvOpenListener(this), this);
+            teleHandler.getWarmupListeners().add(listener, triggers);
+            return true;
         } catch (Exception e) {
-            getLogger().severe("Failed to register PlayerInvOpenListener: " + e.getMessage());
+            getLogger().severe("Failed to register " + listener.getClass().getSimpleName() + ": " + e.getMessage());
             e.printStackTrace();
-            success = false;
+            return false;
         }
-        
-        return success;
     }
 
     /**
@@ -157,6 +208,14 @@ public class ScrollTeleportation extends JavaPlugin {
         return scrollStorage;
     }
 
+    public ConfigReloader getConfigReloader() {
+        return configReloader;
+    }
+
+    public SchedulerAdapter getSchedulerAdapter() {
+        return schedulerAdapter;
+    }
+
     /**
      * Removes color codes from a display name for comparison.
      * @param oldDisplayName Display name to fix
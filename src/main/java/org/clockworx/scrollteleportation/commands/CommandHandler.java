@@ -6,12 +6,23 @@ import org.bukkit.command.CommandSender;
 import org.bukkit.command.TabCompleter;
 import org.bukkit.entity.Player;
 import org.clockworx.scrollteleportation.ScrollTeleportation;
+import org.clockworx.scrollteleportation.files.BlockedRegions;
 import org.clockworx.scrollteleportation.files.LanguageString;
-import net.kyori.adventure.text.Component;
-import net.kyori.adventure.text.TextComponent;
+import org.clockworx.scrollteleportation.files.Placeholder;
+import org.clockworx.scrollteleportation.listeners.ActivationGuards;
+import org.clockworx.scrollteleportation.listeners.WarmupListeners;
+import org.clockworx.scrollteleportation.storage.ScrollItemResolver;
+import org.clockworx.scrollteleportation.storage.ScrollStorage;
+import org.clockworx.scrollteleportation.storage.ScrollReloadReport;
+import org.clockworx.scrollteleportation.teleporthandler.HotChunks;
+import org.clockworx.scrollteleportation.teleporthandler.LandingFlights;
+import org.clockworx.scrollteleportation.teleporthandler.LandingPool;
+import org.clockworx.scrollteleportation.teleporthandler.Prefetcher;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.StringJoiner;
 import java.util.logging.Level;
 
 /**
@@ -41,22 +52,33 @@ public class CommandHandler implements CommandExecutor, TabCompleter {
         switch (args[0].toLowerCase()) {
             case "reload":
                 if (!sender.hasPermission("scrollteleportation.reload")) {
-                    sender.sendMessage(LanguageString.NO_PERMISSION.parse());
+                    LanguageString.NO_PERMISSION.send(sender);
                     return true;
                 }
                 reloadPlugin(sender);
                 break;
             case "give":
                 if (!sender.hasPermission("scrollteleportation.give")) {
-                    sender.sendMessage(LanguageString.NO_PERMISSION.parse());
+                    LanguageString.NO_PERMISSION.send(sender);
                     return true;
                 }
                 if (args.length < 2) {
-                    sender.sendMessage(LanguageString.INVALID_COMMAND.parse());
+                    LanguageString.INVALID_COMMAND.send(sender);
                     return true;
                 }
                 giveScroll(sender, args);
                 break;
+            case "stats":
+                if (!sender.hasPermission("scrollteleportation.stats")) {
+                    LanguageString.NO_PERMISSION.send(sender);
+                    return true;
+                }
+                if (args.length > 1 && args[1].equalsIgnoreCase("reset")) {
+                    resetStats(sender);
+                } else {
+                    sendStats(sender);
+                }
+                break;
             default:
                 sendHelp(sender);
                 break;
@@ -76,17 +98,34 @@ public class CommandHandler implements CommandExecutor, TabCompleter {
             if (sender.hasPermission("scrollteleportation.give")) {
                 completions.add("give");
             }
+            if (sender.hasPermission("scrollteleportation.stats")) {
+                completions.add("stats");
+            }
+            return completions;
+        }
+
+        if (args.length == 2 && args[0].equalsIgnoreCase("stats")) {
+            if (sender.hasPermission("scrollteleportation.stats")) {
+                completions.add("reset");
+            }
             return completions;
         }
 
         if (args.length == 2 && args[0].equalsIgnoreCase("give")) {
             if (sender.hasPermission("scrollteleportation.give")) {
-                completions.addAll(plugin.getScrollStorage().getScrollNames());
+                plugin.getServer().getOnlinePlayers().forEach(player -> completions.add(player.getName()));
             }
             return completions;
         }
 
         if (args.length == 3 && args[0].equalsIgnoreCase("give")) {
+            if (sender.hasPermission("scrollteleportation.give")) {
+                completions.addAll(plugin.getScrollStorage().getScrollNames());
+            }
+            return completions;
+        }
+
+        if (args.length == 4 && args[0].equalsIgnoreCase("give")) {
             if (sender.hasPermission("scrollteleportation.give")) {
                 completions.add("<amount>");
             }
@@ -102,12 +141,15 @@ public class CommandHandler implements CommandExecutor, TabCompleter {
      * @param sender The command sender
      */
     private void sendHelp(CommandSender sender) {
-        sender.sendMessage(LanguageString.HELP_HEADER.parse());
+        LanguageString.HELP_HEADER.send(sender);
         if (sender.hasPermission("scrollteleportation.reload")) {
-            sender.sendMessage(LanguageString.HELP_RELOAD.parse());
+            LanguageString.HELP_RELOAD.send(sender);
         }
         if (sender.hasPermission("scrollteleportation.give")) {
-            sender.sendMessage(LanguageString.HELP_GIVE.parse());
+            LanguageString.HELP_GIVE.send(sender);
+        }
+        if (sender.hasPermission("scrollteleportation.stats")) {
+            LanguageString.HELP_STATS.send(sender);
         }
     }
 
@@ -117,14 +159,102 @@ public class CommandHandler implements CommandExecutor, TabCompleter {
      * @param sender The command sender
      */
     private void reloadPlugin(CommandSender sender) {
-        try {
-            plugin.reloadConfig();
-            plugin.getMainConfig().reload();
-            sender.sendMessage(LanguageString.RELOAD_SUCCESS.parse());
-        } catch (Exception e) {
-            plugin.getLogger().log(Level.SEVERE, "Failed to reload plugin configuration", e);
-            sender.sendMessage(LanguageString.RELOAD_FAILED.parse());
+        // Parsed off the main thread; the old configuration stays active if it fails
+        plugin.getConfigReloader().reloadAsync().whenComplete((result, error) -> {
+            if (error == null) {
+                LanguageString.RELOAD_SUCCESS.send(sender);
+            } else {
+                plugin.getLogger().log(Level.SEVERE, "Failed to reload plugin configuration", error);
+                LanguageString.RELOAD_FAILED.send(sender);
+            }
+        });
+    }
+
+    /**
+     * Sends runtime statistics to the command sender.
+     * 
+     * @param sender The command sender
+     */
+    private void sendStats(CommandSender sender) {
+        ScrollItemResolver resolver = plugin.getScrollStorage().getItemResolver();
+        LanguageString.STATS_HEADER.send(sender);
+        LanguageString.STATS_SCROLLS.send(sender, Placeholder.COUNT.with(plugin.getScrollStorage().getRegistry().size()));
+        LanguageString.STATS_ITEM_CHECKS.send(sender,
+                Placeholder.HITS.with(resolver.getHits()),
+                Placeholder.MISSES.with(resolver.getMisses()),
+                Placeholder.REJECTED.with(resolver.getFastRejects()));
+
+        LanguageString.STATS_PENDING.send(sender,
+                Placeholder.COUNT.with(plugin.getTeleportHandler().getScheduler().getPendingCount()));
+        LanguageString.STATS_SESSIONS.send(sender, Placeholder.COUNT.with(plugin.getTeleportHandler().getSessionCount()));
+        WarmupListeners warmupListeners = plugin.getTeleportHandler().getWarmupListeners();
+        LanguageString.STATS_WARMUP.send(sender,
+                Placeholder.COUNT.with(warmupListeners.getWarmupCount()),
+                Placeholder.REGISTERED.with(warmupListeners.getRegisteredCount()),
+                Placeholder.TOTAL.with(warmupListeners.getListenerCount()));
+
+        ActivationGuards guards = plugin.getTeleportHandler().getActivationGuards();
+        StringJoiner rejections = new StringJoiner(", ");
+        for (ActivationGuards.Guard guard : ActivationGuards.Guard.values()) {
+            rejections.add(guard.name().toLowerCase(Locale.ROOT) + " " + guards.getRejections(guard));
         }
+        LanguageString.STATS_REJECTIONS.send(sender, Placeholder.REJECTIONS.with(rejections));
+
+        BlockedRegions regions = plugin.getMainConfig().getSnapshot().getBlockedRegions();
+        LanguageString.STATS_REGIONS.send(sender,
+                Placeholder.COUNT.with(regions.size()),
+                Placeholder.WORLDS.with(regions.getWorldCount()));
+
+        LandingPool pool = plugin.getTeleportHandler().getLandingPool();
+        LanguageString.STATS_LANDING_POOL.send(sender,
+                Placeholder.COUNT.with(pool.getPooledSpots()),
+                Placeholder.RATE.with(String.format(Locale.ROOT, "%.1f", pool.getHitRate() * 100)),
+                Placeholder.HITS.with(pool.getHits()),
+                Placeholder.TOTAL.with(pool.getHits() + pool.getMisses()),
+                Placeholder.REFILLS.with(String.format(Locale.ROOT, "%.1f", pool.getRefillsPerMinute())),
+                Placeholder.FAILED.with(pool.getRefillFailures()));
+
+        HotChunks hotChunks = plugin.getTeleportHandler().getHotChunks();
+        LanguageString.STATS_HOT_CHUNKS.send(sender,
+                Placeholder.COUNT.with(hotChunks.getHeldCount()),
+                Placeholder.TRACKED.with(hotChunks.getTrackedCount()),
+                Placeholder.RATE.with(String.format(Locale.ROOT, "%.1f", hotChunks.getWarmRate() * 100)),
+                Placeholder.ADDED.with(hotChunks.getTicketsAdded()),
+                Placeholder.RELEASED.with(hotChunks.getTicketsReleased()));
+
+        LandingFlights flights = plugin.getTeleportHandler().getLandingFlights();
+        LanguageString.STATS_LANDING_SEARCHES.send(sender,
+                Placeholder.STARTED.with(flights.getStarted()),
+                Placeholder.SHARED.with(flights.getJoined()),
+                Placeholder.COUNT.with(flights.getFlightCount()));
+
+        Prefetcher prefetcher = plugin.getTeleportHandler().getPrefetcher();
+        LanguageString.STATS_PREFETCH.send(sender,
+                Placeholder.COUNT.with(prefetcher.getActiveCount()),
+                Placeholder.STARTED.with(prefetcher.getStarted()),
+                Placeholder.USED.with(prefetcher.getUsed()),
+                Placeholder.THROTTLED.with(prefetcher.getThrottled()));
+
+        ScrollReloadReport report = plugin.getScrollStorage().getLastReloadReport();
+        if (report != null) {
+            LanguageString.STATS_LAST_RELOAD.send(sender, Placeholder.REPORT.with(report));
+        }
+    }
+
+    /**
+     * Resets the counters shown by the stats command.
+     * Counts of what is currently held, like pooled spots and kept chunks, are not counters and stay.
+     *
+     * @param sender The command sender
+     */
+    private void resetStats(CommandSender sender) {
+        plugin.getScrollStorage().getItemResolver().resetCounters();
+        plugin.getTeleportHandler().getActivationGuards().resetCounters();
+        plugin.getTeleportHandler().getLandingPool().resetCounters();
+        plugin.getTeleportHandler().getHotChunks().resetCounters();
+        plugin.getTeleportHandler().getLandingFlights().resetCounters();
+        plugin.getTeleportHandler().getPrefetcher().resetCounters();
+        LanguageString.STATS_RESET.send(sender);
     }
 
     /**
@@ -135,31 +265,47 @@ public class CommandHandler implements CommandExecutor, TabCompleter {
      */
     private void giveScroll(CommandSender sender, String[] args) {
         if (args.length < 3) {
-            sender.sendMessage(LanguageString.INVALID_COMMAND.parse());
+            LanguageString.INVALID_COMMAND.send(sender);
             return;
         }
 
         Player target = plugin.getServer().getPlayer(args[1]);
         if (target == null) {
-            sender.sendMessage(LanguageString.PLAYER_NOT_FOUND.parse());
+            LanguageString.PLAYER_NOT_FOUND.send(sender, Placeholder.PLAYER.with(args[1]));
             return;
         }
 
         try {
-            int amount = Integer.parseInt(args[2]);
-            if (amount <= 0) {
-                sender.sendMessage(LanguageString.INVALID_AMOUNT.parse());
+            int amount = args.length > 3 ? Integer.parseInt(args[3]) : 1;
+            if (amount <= 0 || amount > ScrollStorage.MAX_GIVE_AMOUNT) {
+                LanguageString.INVALID_AMOUNT.send(sender);
                 return;
             }
 
-            String scrollName = args[1];
-            plugin.getScrollStorage().giveScrollToPlayer(target, scrollName);
-            Component message = plugin.getMainConfig().getTranslatableMessage(LanguageString.GIVE_SUCCESS);
-            message = message.replaceText(builder -> builder.match("%player%").replacement(target.getName()));
-            message = message.replaceText(builder -> builder.match("%scroll%").replacement(scrollName));
-            sender.sendMessage(message);
+            String scrollName = args[2];
+            if (plugin.getScrollStorage().getLoadedScroll(scrollName).isEmpty()) {
+                LanguageString.SCROLL_NOT_FOUND.send(sender, Placeholder.SCROLL.with(scrollName));
+                return;
+            }
+            // The inventory and the world around the target may only be touched on the target's thread
+            plugin.getSchedulerAdapter().runFor(target, () -> {
+                int dropped = plugin.getScrollStorage().giveScrollToPlayer(target, scrollName, amount);
+                if (dropped < 0) {
+                    LanguageString.SCROLL_NOT_FOUND.send(sender, Placeholder.SCROLL.with(scrollName));
+                    return;
+                }
+                LanguageString.GIVE_SUCCESS.send(sender,
+                        Placeholder.PLAYER.with(target.getName()),
+                        Placeholder.SCROLL.with(scrollName),
+                        Placeholder.AMOUNT.with(amount));
+                if (dropped > 0) {
+                    LanguageString.GIVE_DROPPED.send(sender,
+                            Placeholder.PLAYER.with(target.getName()),
+                            Placeholder.AMOUNT.with(dropped));
+                }
+            }, () -> LanguageString.PLAYER_NOT_FOUND.send(sender, Placeholder.PLAYER.with(args[1])));
         } catch (NumberFormatException e) {
-            sender.sendMessage(LanguageString.INVALID_AMOUNT.parse());
+            LanguageString.INVALID_AMOUNT.send(sender);
         }
     }
 } 
\ No newline at end of file
@@ -64,20 +64,23 @@ public class GiveCommand implements CommandExecutor, TabCompleter {
             return true;
         }
 
-        ItemStack itemStack = scroll.getItemStack();
-        target.getInventory().addItem(itemStack);
+        // The target's inventory may only be touched on the target's thread
+        plugin.getSchedulerAdapter().runFor(target, () -> {
+            ItemStack itemStack = scroll.getItemStack();
+            target.getInventory().addItem(itemStack);
 
-        // Notify target
-        target.sendMessage(Component.text("You have been given a ", NamedTextColor.GREEN)
-                .append(Component.text(scroll.getDisplayName(), NamedTextColor.GOLD)));
-
-        // Notify sender if giving to someone else
-        if (args.length == 3 && !target.getName().equalsIgnoreCase(sender.getName())) {
-            sender.sendMessage(Component.text("You have given ", NamedTextColor.GREEN)
-                    .append(Component.text(target.getName(), NamedTextColor.GOLD))
-                    .append(Component.text(" a ", NamedTextColor.GREEN))
+            // Notify target
+            target.sendMessage(Component.text("You have been given a ", NamedTextColor.GREEN)
                     .append(Component.text(scroll.getDisplayName(), NamedTextColor.GOLD)));
-        }
+
+            // Notify sender if giving to someone else
+            if (args.length == 3 && !target.getName().equalsIgnoreCase(sender.getName())) {
+                sender.sendMessage(Component.text("You have given ", NamedTextColor.GREEN)
+                        .append(Component.text(target.getName(), NamedTextColor.GOLD))
+                        .append(Component.text(" a ", NamedTextColor.GREEN))
+                        .append(Component.text(scroll.getDisplayName(), NamedTextColor.GOLD)));
+            }
+        }, null);
 
         return true;
     }
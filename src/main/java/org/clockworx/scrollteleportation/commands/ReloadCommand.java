@@ -25,13 +25,14 @@ public class ReloadCommand implements CommandExecutor, TabCompleter {
             return true;
         }
 
-        // Reload the config
-        plugin.getMainConfig().reload();
-
-        // Reload the scrolls
-        plugin.getScrollStorage().loadScrollsFromConfig();
-        
-        sender.sendMessage(Component.text("Configuration file reloaded!", NamedTextColor.GREEN));
+        // Reload the config and scrolls off the main thread
+        plugin.getConfigReloader().reloadAsync().whenComplete((result, error) -> {
+            if (error == null) {
+                sender.sendMessage(Component.text("Configuration file reloaded!", NamedTextColor.GREEN));
+            } else {
+                sender.sendMessage(Component.text("Failed to reload configuration: " + error.getMessage(), NamedTextColor.RED));
+            }
+        });
         return true;
     }
 
@@ -116,11 +116,12 @@ public class SetCommand implements CommandExecutor, TabCompleter {
                 default -> {
                     sender.sendMessage(Component.text("I don't recognise '" + variable + "' as a variable!", NamedTextColor.RED));
                     sender.sendMessage(Component.text("You can only use: " + String.join(", ", VALID_VARIABLES), NamedTextColor.YELLOW));
+                    return true;
                 }
             }
 
-            // Reload the scroll to apply changes
-            plugin.getScrollStorage().loadScrollsFromConfig();
+            // Rebuild only the scroll that changed
+            plugin.getScrollStorage().reloadScrolls();
             return true;
         } catch (ScrollInvalidException e) {
             sender.sendMessage(Component.text("Error updating scroll: " + e.getMessage(), NamedTextColor.RED));
@@ -0,0 +1,493 @@
+package org.clockworx.scrollteleportation.files;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+/**
+ * The regions in which scrolls cannot be used and random destinations do not land,
+ * compiled from the "blocked_regions" section.
+ * Each world's regions are indexed by the chunks they cover, so a lookup only tests the
+ * few regions that touch the chunk of the point, however many regions are configured.
+ * A block lies in a region when its center does, whatever the shape of the region.
+ * Instances are immutable and can be read from any thread.
+ */
+public final class BlockedRegions {
+
+    /**
+     * Regions covering more chunks than this are tested on every lookup in their world
+     * instead of being added to every chunk they cover.
+     */
+    private static final int MAX_INDEXED_CHUNKS = 4096;
+
+    private static final Region[] NO_REGIONS = new Region[0];
+
+    /**
+     * No blocked regions.
+     */
+    public static final BlockedRegions EMPTY = new BlockedRegions(List.of());
+
+    private final List<Region> regions;
+    private final Map<String, WorldIndex> worlds;
+    private final Map<UUID, WorldIndex> boundWorlds;
+
+    private BlockedRegions(List<Region> regions) {
+        this.regions = regions;
+
+        Map<String, List<Region>> byWorld = new HashMap<>();
+        for (Region region : regions) {
+            byWorld.computeIfAbsent(region.world, world -> new ArrayList<>()).add(region);
+        }
+        Map<String, WorldIndex> indexed = new HashMap<>();
+        for (Map.Entry<String, List<Region>> entry : byWorld.entrySet()) {
+            indexed.put(entry.getKey(), new WorldIndex(entry.getValue()));
+        }
+        this.worlds = Collections.unmodifiableMap(indexed);
+        this.boundWorlds = Map.of();
+    }
+
+    private BlockedRegions(BlockedRegions base, Map<UUID, WorldIndex> boundWorlds) {
+        this.regions = base.regions;
+        this.worlds = base.worlds;
+        this.boundWorlds = boundWorlds;
+    }
+
+    /**
+     * Compiles the blocked regions from the main configuration.
+     * Regions that cannot be read are reported and left out.
+     *
+     * @param config The main configuration
+     * @param logger The logger to report invalid values to
+     * @return The compiled regions
+     */
+    static BlockedRegions compile(FileConfiguration config, Logger logger) {
+        ConfigurationSection section = config.getConfigurationSection("blocked_regions");
+        if (section == null) {
+            return EMPTY;
+        }
+
+        List<Region> regions = new ArrayList<>();
+        for (String name : section.getKeys(false)) {
+            ConfigurationSection regionSection = section.getConfigurationSection(name);
+            if (regionSection == null) {
+                logger.warning("Blocked region " + name + " is not a section");
+                continue;
+            }
+            try {
+                regions.add(Region.compile(name, regionSection));
+            } catch (IllegalArgumentException e) {
+                logger.warning("Invalid blocked region " + name + ": " + e.getMessage());
+            }
+        }
+        return regions.isEmpty() ? EMPTY : new BlockedRegions(Collections.unmodifiableList(regions));
+    }
+
+    /**
+     * Resolves the world names of the regions against the loaded worlds.
+     * Names stay matched as well, for worlds that are not loaded yet or are recreated with a new UUID.
+     *
+     * @param loaded The loaded worlds
+     * @return Regions with their worlds keyed by UUID
+     */
+    BlockedRegions bind(Iterable<? extends World> loaded) {
+        if (worlds.isEmpty()) {
+            return this;
+        }
+        Map<UUID, WorldIndex> bound = new HashMap<>();
+        for (World world : loaded) {
+            WorldIndex index = worlds.get(world.getName());
+            if (index != null) {
+                bound.put(world.getUID(), index);
+            }
+        }
+        return new BlockedRegions(this, Collections.unmodifiableMap(bound));
+    }
+
+    /**
+     * Writes these regions to the compiled config cache.
+     *
+     * @param out The output to write to
+     * @throws IOException if writing fails
+     */
+    void write(DataOutputStream out) throws IOException {
+        out.writeInt(regions.size());
+        for (Region region : regions) {
+            region.write(out);
+        }
+    }
+
+    /**
+     * Reads regions written by {@link #write(DataOutputStream)}.
+     *
+     * @param in The buffer to read from
+     * @return The restored regions
+     */
+    static BlockedRegions read(ByteBuffer in) {
+        int count = in.getInt();
+        if (count == 0) {
+            return EMPTY;
+        }
+        List<Region> regions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            regions.add(Region.read(in));
+        }
+        return new BlockedRegions(Collections.unmodifiableList(regions));
+    }
+
+    /**
+     * Checks if no regions are blocked.
+     *
+     * @return True if there are no blocked regions
+     */
+    public boolean isEmpty() {
+        return regions.isEmpty();
+    }
+
+    /**
+     * Gets how many regions are blocked.
+     *
+     * @return The number of regions
+     */
+    public int size() {
+        return regions.size();
+    }
+
+    /**
+     * Gets how many worlds have blocked regions.
+     *
+     * @return The number of worlds
+     */
+    public int getWorldCount() {
+        return worlds.size();
+    }
+
+    /**
+     * Checks if a location lies in a blocked region.
+     *
+     * @param location The location to check
+     * @return True if the location is blocked
+     */
+    public boolean contains(Location location) {
+        World world = location.getWorld();
+        if (world == null || worlds.isEmpty()) {
+            return false;
+        }
+        WorldIndex index = index(world);
+        return index != null && index.find(location.getX(), location.getY(), location.getZ(), false) != null;
+    }
+
+    /**
+     * Checks if a column lies in a blocked region at any height.
+     * Used for random points, whose height is only known once a safe spot is picked.
+     *
+     * @param world The world of the column
+     * @param x The X coordinate
+     * @param z The Z coordinate
+     * @return True if part of the column is blocked
+     */
+    public boolean containsColumn(World world, double x, double z) {
+        if (worlds.isEmpty()) {
+            return false;
+        }
+        WorldIndex index = index(world);
+        return index != null && index.find(x, 0, z, true) != null;
+    }
+
+    /**
+     * Gets the name of the blocked region a location lies in.
+     *
+     * @param location The location to check
+     * @return The region's name, or null if the location is not blocked
+     */
+    public String getRegionAt(Location location) {
+        World world = location.getWorld();
+        WorldIndex index = world != null ? index(world) : null;
+        if (index == null) {
+            return null;
+        }
+        Region region = index.find(location.getX(), location.getY(), location.getZ(), false);
+        return region != null ? region.name : null;
+    }
+
+    private WorldIndex index(World world) {
+        WorldIndex index = boundWorlds.get(world.getUID());
+        // A world recreated under the same name has a new UUID
+        return index != null ? index : worlds.get(world.getName());
+    }
+
+    /**
+     * One world's regions, keyed by the chunks they cover.
+     */
+    private static final class WorldIndex {
+        private final Map<Long, Region[]> chunks = new HashMap<>();
+        private final Region[] large;
+
+        private WorldIndex(List<Region> regions) {
+            Map<Long, List<Region>> cells = new HashMap<>();
+            List<Region> oversized = new ArrayList<>();
+            for (Region region : regions) {
+                int minChunkX = (int) Math.floor(region.minX) >> 4;
+                int maxChunkX = (int) Math.floor(region.maxX) >> 4;
+                int minChunkZ = (int) Math.floor(region.minZ) >> 4;
+                int maxChunkZ = (int) Math.floor(region.maxZ) >> 4;
+                long covered = (long) (maxChunkX - minChunkX + 1) * (maxChunkZ - minChunkZ + 1);
+                if (covered > MAX_INDEXED_CHUNKS) {
+                    oversized.add(region);
+                    continue;
+                }
+                for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+                    for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                        cells.computeIfAbsent(key(chunkX, chunkZ), key -> new ArrayList<>(1)).add(region);
+                    }
+                }
+            }
+            for (Map.Entry<Long, List<Region>> entry : cells.entrySet()) {
+                chunks.put(entry.getKey(), entry.getValue().toArray(NO_REGIONS));
+            }
+            this.large = oversized.toArray(NO_REGIONS);
+        }
+
+        private static long key(int chunkX, int chunkZ) {
+            return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+        }
+
+        private Region find(double x, double y, double z, boolean anyHeight) {
+            // Regions contain whole blocks, so the center of the point's block is tested
+            int blockX = (int) Math.floor(x);
+            int blockZ = (int) Math.floor(z);
+            double centerX = blockX + 0.5;
+            double centerY = Math.floor(y) + 0.5;
+            double centerZ = blockZ + 0.5;
+            Region[] candidates = chunks.get(key(blockX >> 4, blockZ >> 4));
+            if (candidates != null) {
+                for (Region region : candidates) {
+                    if (region.contains(centerX, centerY, centerZ, anyHeight)) {
+                        return region;
+                    }
+                }
+            }
+            for (Region region : large) {
+                if (region.contains(centerX, centerY, centerZ, anyHeight)) {
+                    return region;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * The shapes a blocked region can have.
+     */
+    private enum Shape {
+        CUBOID,
+        CYLINDER,
+        POLYGON
+    }
+
+    /**
+     * A blocked region, which contains a block if the center of the block lies inside its shape.
+     * Cuboid corners and the cylinder center name blocks: the cuboid's bounds are the box around
+     * its corner blocks, and the cylinder is centered on the middle of its center block.
+     * Polygon points are the corners between blocks, like the bounds of a cuboid.
+     */
+    private static final class Region {
+        private final String name;
+        private final String world;
+        private final Shape shape;
+        private final double minX;
+        private final double minY;
+        private final double minZ;
+        private final double maxX;
+        private final double maxY;
+        private final double maxZ;
+        private final double centerX;
+        private final double centerZ;
+        private final double radiusSquared;
+        private final double[] pointsX;
+        private final double[] pointsZ;
+
+        private Region(String name, String world, Shape shape, double minX, double minY, double minZ,
+                       double maxX, double maxY, double maxZ, double centerX, double centerZ, double radius,
+                       double[] pointsX, double[] pointsZ) {
+            this.name = name;
+            this.world = world;
+            this.shape = shape;
+            this.minX = minX;
+            this.minY = minY;
+            this.minZ = minZ;
+            this.maxX = maxX;
+            this.maxY = maxY;
+            this.maxZ = maxZ;
+            this.centerX = centerX;
+            this.centerZ = centerZ;
+            this.radiusSquared = radius * radius;
+            this.pointsX = pointsX;
+            this.pointsZ = pointsZ;
+        }
+
+        private static Region compile(String name, ConfigurationSection section) {
+            String world = section.getString("world");
+            if (world == null || world.isBlank()) {
+                throw new IllegalArgumentException("no world set");
+            }
+            String type = section.getString("type", Shape.CUBOID.name());
+            Shape shape;
+            try {
+                shape = Shape.valueOf(type.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("unknown type " + type);
+            }
+
+            double minY = section.isSet("min-y") ? section.getInt("min-y") : Double.NEGATIVE_INFINITY;
+            double maxY = section.isSet("max-y") ? section.getInt("max-y") + 1 : Double.POSITIVE_INFINITY;
+            return switch (shape) {
+                case CUBOID -> {
+                    double[] first = parse(section.getString("min"), 3, "min");
+                    double[] second = parse(section.getString("max"), 3, "max");
+                    yield new Region(name, world, shape,
+                            Math.min(first[0], second[0]), Math.min(first[1], second[1]), Math.min(first[2], second[2]),
+                            Math.max(first[0], second[0]) + 1, Math.max(first[1], second[1]) + 1,
+                            Math.max(first[2], second[2]) + 1,
+                            0, 0, 0, null, null);
+                }
+                case CYLINDER -> {
+                    double[] center = parse(section.getString("center"), 2, "center");
+                    double radius = section.getDouble("radius");
+                    if (radius <= 0) {
+                        throw new IllegalArgumentException("radius must be positive");
+                    }
+                    double x = center[0] + 0.5;
+                    double z = center[1] + 0.5;
+                    yield new Region(name, world, shape, x - radius, minY, z - radius, x + radius, maxY, z + radius,
+                            x, z, radius, null, null);
+                }
+                case POLYGON -> {
+                    List<String> points = section.getStringList("points");
+                    if (points.size() < 3) {
+                        throw new IllegalArgumentException("a polygon needs at least 3 points");
+                    }
+                    double[] xs = new double[points.size()];
+                    double[] zs = new double[points.size()];
+                    double minX = Double.POSITIVE_INFINITY;
+                    double minZ = Double.POSITIVE_INFINITY;
+                    double maxX = Double.NEGATIVE_INFINITY;
+                    double maxZ = Double.NEGATIVE_INFINITY;
+                    for (int i = 0; i < xs.length; i++) {
+                        double[] point = parse(points.get(i), 2, "point " + (i + 1));
+                        xs[i] = point[0];
+                        zs[i] = point[1];
+                        minX = Math.min(minX, xs[i]);
+                        minZ = Math.min(minZ, zs[i]);
+                        maxX = Math.max(maxX, xs[i]);
+                        maxZ = Math.max(maxZ, zs[i]);
+                    }
+                    yield new Region(name, world, shape, minX, minY, minZ, maxX, maxY, maxZ, 0, 0, 0, xs, zs);
+                }
+            };
+        }
+
+        private static double[] parse(String value, int count, String key) {
+            if (value == null) {
+                throw new IllegalArgumentException(key + " is not set");
+            }
+            String[] parts = value.split(",");
+            if (parts.length != count) {
+                throw new IllegalArgumentException(key + " must have " + count + " coordinates");
+            }
+            double[] coordinates = new double[count];
+            try {
+                for (int i = 0; i < count; i++) {
+                    coordinates[i] = Integer.parseInt(parts[i].trim());
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(key + " has an invalid coordinate: " + value);
+            }
+            return coordinates;
+        }
+
+        private boolean contains(double x, double y, double z, boolean anyHeight) {
+            if (x < minX || x >= maxX || z < minZ || z >= maxZ) {
+                return false;
+            }
+            if (!anyHeight && (y < minY || y >= maxY)) {
+                return false;
+            }
+            return switch (shape) {
+                case CUBOID -> true;
+                case CYLINDER -> {
+                    double dx = x - centerX;
+                    double dz = z - centerZ;
+                    yield dx * dx + dz * dz <= radiusSquared;
+                }
+                case POLYGON -> {
+                    // Even-odd rule: count the edges crossed by a ray running along +X
+                    boolean inside = false;
+                    for (int i = 0, j = pointsX.length - 1; i < pointsX.length; j = i++) {
+                        if ((pointsZ[i] > z) != (pointsZ[j] > z)
+                                && x < (pointsX[j] - pointsX[i]) * (z - pointsZ[i]) / (pointsZ[j] - pointsZ[i]) + pointsX[i]) {
+                            inside = !inside;
+                        }
+                    }
+                    yield inside;
+                }
+            };
+        }
+
+        private void write(DataOutputStream out) throws IOException {
+            ConfigCache.writeString(out, name);
+            ConfigCache.writeString(out, world);
+            out.writeByte(shape.ordinal());
+            out.writeDouble(minX);
+            out.writeDouble(minY);
+            out.writeDouble(minZ);
+            out.writeDouble(maxX);
+            out.writeDouble(maxY);
+            out.writeDouble(maxZ);
+            out.writeDouble(centerX);
+            out.writeDouble(centerZ);
+            out.writeDouble(Math.sqrt(radiusSquared));
+            int points = pointsX != null ? pointsX.length : 0;
+            out.writeInt(points);
+            for (int i = 0; i < points; i++) {
+                out.writeDouble(pointsX[i]);
+                out.writeDouble(pointsZ[i]);
+            }
+        }
+
+        private static Region read(ByteBuffer in) {
+            String name = ConfigCache.readString(in);
+            String world = ConfigCache.readString(in);
+            Shape shape = Shape.values()[in.get()];
+            double minX = in.getDouble();
+            double minY = in.getDouble();
+            double minZ = in.getDouble();
+            double maxX = in.getDouble();
+            double maxY = in.getDouble();
+            double maxZ = in.getDouble();
+            double centerX = in.getDouble();
+            double centerZ = in.getDouble();
+            double radius = in.getDouble();
+            int points = in.getInt();
+            double[] xs = points > 0 ? new double[points] : null;
+            double[] zs = points > 0 ? new double[points] : null;
+            for (int i = 0; i < points; i++) {
+                xs[i] = in.getDouble();
+                zs[i] = in.getDouble();
+            }
+            return new Region(name, world, shape, minX, minY, minZ, maxX, maxY, maxZ, centerX, centerZ, radius, xs, zs);
+        }
+    }
+}
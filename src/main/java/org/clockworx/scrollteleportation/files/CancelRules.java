@@ -0,0 +1,172 @@
+package org.clockworx.scrollteleportation.files;
+
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.event.entity.EntityDamageEvent.DamageCause;
+import org.clockworx.scrollteleportation.storage.Scroll;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * What cancels a teleport while it counts down, compiled from the "general.cancel-on-*" settings.
+ * The triggers are kept as a bitmask and the damage causes as an {@link EnumSet},
+ * so listeners check a cancellation with a bit test and a set lookup.
+ * Instances are immutable.
+ */
+public final class CancelRules {
+
+    /**
+     * The damage settings below "general" and the causes each of them covers.
+     * "cancel-on-damage" sets the default for every cause, these settings override it.
+     */
+    private static final Map<String, Set<DamageCause>> DAMAGE_SETTINGS = new LinkedHashMap<>();
+
+    static {
+        DAMAGE_SETTINGS.put("cancel-on-fall-damage", EnumSet.of(DamageCause.FALL));
+        DAMAGE_SETTINGS.put("cancel-on-fire-damage", EnumSet.of(DamageCause.FIRE, DamageCause.FIRE_TICK));
+        DAMAGE_SETTINGS.put("cancel-on-lava-damage", EnumSet.of(DamageCause.LAVA));
+        DAMAGE_SETTINGS.put("cancel-on-drowning-damage", EnumSet.of(DamageCause.DROWNING));
+        DAMAGE_SETTINGS.put("cancel-on-explosion-damage",
+                EnumSet.of(DamageCause.BLOCK_EXPLOSION, DamageCause.ENTITY_EXPLOSION));
+        DAMAGE_SETTINGS.put("cancel-on-void-damage", EnumSet.of(DamageCause.VOID));
+        DAMAGE_SETTINGS.put("cancel-on-starvation-damage", EnumSet.of(DamageCause.STARVATION));
+        DAMAGE_SETTINGS.put("cancel-on-poison-damage", EnumSet.of(DamageCause.POISON));
+        DAMAGE_SETTINGS.put("cancel-on-wither-damage", EnumSet.of(DamageCause.WITHER));
+        DAMAGE_SETTINGS.put("cancel-on-lightning-damage", EnumSet.of(DamageCause.LIGHTNING));
+        DAMAGE_SETTINGS.put("cancel-on-thorns-damage", EnumSet.of(DamageCause.THORNS));
+        DAMAGE_SETTINGS.put("cancel-on-magic-damage", EnumSet.of(DamageCause.MAGIC));
+        DAMAGE_SETTINGS.put("cancel-on-custom-damage", EnumSet.of(DamageCause.CUSTOM));
+    }
+
+    private final int mask;
+    private final Set<DamageCause> damageCauses;
+
+    private CancelRules(int mask, Set<DamageCause> damageCauses) {
+        this.mask = mask;
+        this.damageCauses = damageCauses;
+    }
+
+    /**
+     * Compiles the cancellation rules from the main configuration.
+     *
+     * @param config The main configuration
+     * @return The compiled rules
+     */
+    static CancelRules compile(FileConfiguration config) {
+        // Configurations written before the other triggers existed only cancelled on move and inventory
+        int mask = 0;
+        for (CancelTrigger trigger : CancelTrigger.values()) {
+            boolean fallback = trigger == CancelTrigger.MOVE || trigger == CancelTrigger.INVENTORY;
+            if (config.getBoolean("general." + trigger.getConfigKey(), fallback)) {
+                mask |= trigger.bit();
+            }
+        }
+
+        Set<DamageCause> causes = (mask & CancelTrigger.DAMAGE.bit()) != 0
+                ? EnumSet.allOf(DamageCause.class)
+                : EnumSet.noneOf(DamageCause.class);
+        for (Map.Entry<String, Set<DamageCause>> setting : DAMAGE_SETTINGS.entrySet()) {
+            String path = "general." + setting.getKey();
+            if (!config.isSet(path)) {
+                continue;
+            }
+            if (config.getBoolean(path)) {
+                causes.addAll(setting.getValue());
+            } else {
+                causes.removeAll(setting.getValue());
+            }
+        }
+        return of(mask, causes);
+    }
+
+    private static CancelRules of(int mask, Set<DamageCause> causes) {
+        // Damage only needs listening to when some cause cancels
+        if (causes.isEmpty()) {
+            mask &= ~CancelTrigger.DAMAGE.bit();
+        } else {
+            mask |= CancelTrigger.DAMAGE.bit();
+        }
+        return new CancelRules(mask, Collections.unmodifiableSet(causes));
+    }
+
+    /**
+     * Writes these rules to the compiled config cache.
+     *
+     * @param out The output to write to
+     * @throws IOException if writing fails
+     */
+    void write(DataOutputStream out) throws IOException {
+        out.writeInt(mask);
+        List<String> names = new ArrayList<>(damageCauses.size());
+        for (DamageCause cause : damageCauses) {
+            names.add(cause.name());
+        }
+        ConfigCache.writeStringList(out, names);
+    }
+
+    /**
+     * Reads rules written by {@link #write(DataOutputStream)}.
+     *
+     * @param in The buffer to read from
+     * @return The restored rules
+     */
+    static CancelRules read(ByteBuffer in) {
+        int mask = in.getInt();
+        Set<DamageCause> causes = EnumSet.noneOf(DamageCause.class);
+        for (String name : ConfigCache.readStringList(in)) {
+            try {
+                causes.add(DamageCause.valueOf(name));
+            } catch (IllegalArgumentException e) {
+                // The cause was removed by a server update
+            }
+        }
+        return of(mask, causes);
+    }
+
+    /**
+     * Gets the triggers that cancel a scroll's teleport.
+     * Scrolls that do not cancel on move drop the movement trigger.
+     *
+     * @param scroll The scroll
+     * @return The mask of {@link CancelTrigger} bits
+     */
+    public int maskFor(Scroll scroll) {
+        return scroll.isCancelledOnMove() ? mask : mask & ~CancelTrigger.MOVE.bit();
+    }
+
+    /**
+     * Checks if damage of a cause cancels teleports.
+     *
+     * @param cause The cause of the damage
+     * @return True if the damage cancels
+     */
+    public boolean cancelsOn(DamageCause cause) {
+        return damageCauses.contains(cause);
+    }
+
+    /**
+     * Gets the triggers that cancel teleports of scrolls that cancel on move.
+     *
+     * @return The mask of {@link CancelTrigger} bits
+     */
+    public int getMask() {
+        return mask;
+    }
+
+    /**
+     * Gets the damage causes that cancel teleports.
+     *
+     * @return An unmodifiable set of causes
+     */
+    public Set<DamageCause> getDamageCauses() {
+        return damageCauses;
+    }
+}
@@ -0,0 +1,85 @@
+package org.clockworx.scrollteleportation.files;
+
+/**
+ * The things a player can do that cancel a teleport while it counts down,
+ * each switched on by a "general.cancel-on-*" setting.
+ * Every trigger owns one bit, so the triggers a scroll cancels on fit in a single int.
+ */
+public enum CancelTrigger {
+
+    MOVE("cancel-on-move", LanguageString.TELEPORT_CANCELLED_MOVEMENT, CancelTrigger.WALK_BYPASS),
+    DAMAGE("cancel-on-damage", LanguageString.TELEPORT_CANCELLED_DAMAGE, null),
+    INVENTORY("cancel-on-inventory", LanguageString.CANCELLED_DUE_TO_INVENTORY, "scrollteleportation.invbypass"),
+    INTERACT("cancel-on-interact", LanguageString.CANCELLED_DUE_TO_INTERACTION, null),
+    ITEM_USE("cancel-on-item-use", LanguageString.CANCELLED_DUE_TO_INTERACTION, null),
+    ATTACK("cancel-on-attack", LanguageString.TELEPORT_CANCELLED, null),
+    JUMP("cancel-on-jump", LanguageString.TELEPORT_CANCELLED_MOVEMENT, CancelTrigger.WALK_BYPASS),
+    CROUCH("cancel-on-crouch", LanguageString.TELEPORT_CANCELLED, null),
+    SPRINT("cancel-on-sprint", LanguageString.TELEPORT_CANCELLED_MOVEMENT, CancelTrigger.WALK_BYPASS),
+    FLY("cancel-on-fly", LanguageString.TELEPORT_CANCELLED_MOVEMENT, CancelTrigger.WALK_BYPASS),
+    SWIM("cancel-on-swim", LanguageString.TELEPORT_CANCELLED_MOVEMENT, CancelTrigger.WALK_BYPASS),
+    CLIMB("cancel-on-climb", LanguageString.TELEPORT_CANCELLED_MOVEMENT, CancelTrigger.WALK_BYPASS),
+    FALL("cancel-on-fall", LanguageString.TELEPORT_CANCELLED_MOVEMENT, CancelTrigger.WALK_BYPASS);
+
+    private static final String WALK_BYPASS = "scrollteleportation.walkbypass";
+
+    private final String configKey;
+    private final LanguageString message;
+    private final String bypassPermission;
+
+    CancelTrigger(String configKey, LanguageString message, String bypassPermission) {
+        this.configKey = configKey;
+        this.message = message;
+        this.bypassPermission = bypassPermission;
+    }
+
+    /**
+     * Gets the setting that switches this trigger on, below the "general" section.
+     *
+     * @return The setting's key
+     */
+    public String getConfigKey() {
+        return configKey;
+    }
+
+    /**
+     * Gets the message sent to a player whose teleport this trigger cancelled.
+     *
+     * @return The message
+     */
+    public LanguageString getMessage() {
+        return message;
+    }
+
+    /**
+     * Gets the permission that lets a player do this without cancelling their teleport.
+     *
+     * @return The permission, or null if nothing bypasses this trigger
+     */
+    public String getBypassPermission() {
+        return bypassPermission;
+    }
+
+    /**
+     * Gets the bit this trigger owns in a cancellation mask.
+     *
+     * @return The bit
+     */
+    public int bit() {
+        return 1 << ordinal();
+    }
+
+    /**
+     * Builds a mask with the bits of some triggers.
+     *
+     * @param triggers The triggers
+     * @return The mask
+     */
+    public static int mask(CancelTrigger... triggers) {
+        int mask = 0;
+        for (CancelTrigger trigger : triggers) {
+            mask |= trigger.bit();
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,285 @@
+package org.clockworx.scrollteleportation.files;
+
+import org.clockworx.scrollteleportation.ScrollTeleportation;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * A binary copy of the compiled configuration, used to skip YAML parsing on warm starts.
+ * The file is keyed by a SHA-256 hash of config.yml and messages.yml and is only used
+ * when both files are unchanged; otherwise the plugin parses the YAML and writes a new cache.
+ * <p>
+ * Layout: magic, format version, plugin version, source hash, payload length,
+ * payload, CRC32 of the payload.
+ */
+public class ConfigCache {
+
+    private static final int MAGIC = 0x53545043;
+    private static final int FORMAT_VERSION = 12;
+    private static final int HASH_LENGTH = 32;
+
+    private final ScrollTeleportation plugin;
+    private final File cacheFile;
+
+    /**
+     * Creates a new ConfigCache instance.
+     *
+     * @param plugin The plugin instance
+     */
+    public ConfigCache(ScrollTeleportation plugin) {
+        this.plugin = plugin;
+        this.cacheFile = new File(plugin.getDataFolder(), "compiled.cache");
+    }
+
+    /**
+     * Hashes the contents of the given files.
+     * A missing file hashes differently from an empty one.
+     *
+     * @param files The files to hash
+     * @return The SHA-256 hash
+     * @throws IOException if a file cannot be read
+     */
+    public static byte[] hash(File... files) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException("SHA-256 is not available", e);
+        }
+
+        for (File file : files) {
+            if (!file.exists()) {
+                digest.update((byte) 0);
+                continue;
+            }
+            byte[] content = Files.readAllBytes(file.toPath());
+            digest.update((byte) 1);
+            digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(content.length).array());
+            digest.update(content);
+        }
+        return digest.digest();
+    }
+
+    /**
+     * Loads the cached configuration if it was compiled from files with the given hash.
+     *
+     * @param hash The hash of the current configuration files
+     * @return The cached configuration, or null if there is no usable cache
+     */
+    public Entry load(byte[] hash) {
+        if (!cacheFile.isFile()) {
+            return null;
+        }
+
+        try {
+            // Read onto the heap, a mapped file could not be replaced by the next write on Windows
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(cacheFile.toPath()));
+
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION
+                    || !pluginVersion().equals(readString(buffer))) {
+                return null;
+            }
+
+            byte[] cachedHash = new byte[HASH_LENGTH];
+            buffer.get(cachedHash);
+            if (!Arrays.equals(hash, cachedHash)) {
+                return null;
+            }
+
+            int length = buffer.getInt();
+            ByteBuffer payload = buffer.slice();
+            payload.limit(length);
+            buffer.position(buffer.position() + length);
+
+            CRC32 crc = new CRC32();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != buffer.getInt()) {
+                plugin.getLogger().warning("Compiled config cache is corrupt, parsing the configuration instead.");
+                return null;
+            }
+
+            ConfigSnapshot snapshot = ConfigSnapshot.read(payload, plugin.getLogger());
+            Map<String, String> configMessages = readStringMap(payload);
+            int languageCount = payload.getInt();
+            Map<String, Map<String, String>> languages = new HashMap<>();
+            for (int i = 0; i < languageCount; i++) {
+                languages.put(readString(payload), readStringMap(payload));
+            }
+            return new Entry(snapshot, configMessages, languages);
+        } catch (IOException | RuntimeException e) {
+            // Truncated or otherwise unreadable files end up here as well
+            plugin.getLogger().warning("Could not read compiled config cache, parsing the configuration instead: " + e);
+            return null;
+        }
+    }
+
+    /**
+     * Writes the compiled configuration to the cache file.
+     *
+     * @param hash The hash of the configuration files it was compiled from
+     * @param snapshot The compiled configuration
+     * @param configMessages The messages set in config.yml, keyed by path
+     * @param languages The messages of every language in messages.yml
+     * @throws IOException if the cache file cannot be written
+     */
+    public void store(byte[] hash, ConfigSnapshot snapshot, Map<String, String> configMessages,
+                      Map<String, Map<String, String>> languages) throws IOException {
+        ByteArrayOutputStream payloadBytes = new ByteArrayOutputStream();
+        DataOutputStream payload = new DataOutputStream(payloadBytes);
+        snapshot.write(payload);
+        writeStringMap(payload, configMessages);
+        payload.writeInt(languages.size());
+        for (Map.Entry<String, Map<String, String>> language : languages.entrySet()) {
+            writeString(payload, language.getKey());
+            writeStringMap(payload, language.getValue());
+        }
+        payload.flush();
+        byte[] body = payloadBytes.toByteArray();
+
+        CRC32 crc = new CRC32();
+        crc.update(body);
+
+        ByteArrayOutputStream fileBytes = new ByteArrayOutputStream(body.length + 128);
+        DataOutputStream out = new DataOutputStream(fileBytes);
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        writeString(out, pluginVersion());
+        out.write(hash);
+        out.writeInt(body.length);
+        out.write(body);
+        out.writeInt((int) crc.getValue());
+        out.flush();
+
+        Path target = cacheFile.toPath();
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        Files.write(temp, fileBytes.toByteArray());
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private String pluginVersion() {
+        return plugin.getPluginMeta().getVersion();
+    }
+
+    static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        if (length > in.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static void writeStringList(DataOutputStream out, List<String> values) throws IOException {
+        out.writeInt(values.size());
+        for (String value : values) {
+            writeString(out, value);
+        }
+    }
+
+    static List<String> readStringList(ByteBuffer in) {
+        int size = in.getInt();
+        List<String> values = new ArrayList<>(Math.min(size, in.remaining()));
+        for (int i = 0; i < size; i++) {
+            values.add(readString(in));
+        }
+        return Collections.unmodifiableList(values);
+    }
+
+    private static void writeStringMap(DataOutputStream out, Map<String, String> values) throws IOException {
+        out.writeInt(values.size());
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            writeString(out, entry.getKey());
+            writeString(out, entry.getValue());
+        }
+    }
+
+    private static Map<String, String> readStringMap(ByteBuffer in) {
+        int size = in.getInt();
+        Map<String, String> values = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            values.put(readString(in), readString(in));
+        }
+        return values;
+    }
+
+    /**
+     * A configuration restored from the cache.
+     */
+    public static final class Entry {
+
+        private final ConfigSnapshot snapshot;
+        private final Map<String, String> configMessages;
+        private final Map<String, Map<String, String>> languages;
+
+        private Entry(ConfigSnapshot snapshot, Map<String, String> configMessages,
+                      Map<String, Map<String, String>> languages) {
+            this.snapshot = snapshot;
+            this.configMessages = configMessages;
+            this.languages = languages;
+        }
+
+        /**
+         * Gets the compiled configuration.
+         *
+         * @return The snapshot, not yet bound to worlds
+         */
+        public ConfigSnapshot getSnapshot() {
+            return snapshot;
+        }
+
+        /**
+         * Gets the messages set in config.yml.
+         *
+         * @return The messages keyed by config path
+         */
+        public Map<String, String> getConfigMessages() {
+            return configMessages;
+        }
+
+        /**
+         * Gets the messages of every language in messages.yml.
+         *
+         * @return A map of language codes to their messages
+         */
+        public Map<String, Map<String, String>> getLanguages() {
+            return languages;
+        }
+    }
+}
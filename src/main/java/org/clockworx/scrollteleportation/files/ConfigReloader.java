@@ -0,0 +1,198 @@
+package org.clockworx.scrollteleportation.files;
+
+import org.clockworx.scrollteleportation.ScrollTeleportation;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Reloads the configuration without blocking the main thread.
+ * The files are parsed and compiled on an async task, then the result is published
+ * on the main thread (the global region on Folia) in one step. If parsing fails the loaded state is kept.
+ * Optionally watches the data folder and reloads once the files stop changing.
+ */
+public class ConfigReloader {
+
+    private static final Set<String> WATCHED_FILES = Set.of("config.yml", "messages.yml");
+
+    private final ScrollTeleportation plugin;
+    private final MainConfig mainConfig;
+
+    private CompletableFuture<Void> running;
+    private CompletableFuture<Void> queued;
+
+    private volatile WatchService watchService;
+    private Thread watchThread;
+    private long watchDelay;
+
+    /**
+     * Creates a new ConfigReloader instance.
+     *
+     * @param plugin The plugin instance
+     * @param mainConfig The configuration to reload
+     */
+    public ConfigReloader(ScrollTeleportation plugin, MainConfig mainConfig) {
+        this.plugin = plugin;
+        this.mainConfig = mainConfig;
+    }
+
+    /**
+     * Reloads the configuration asynchronously.
+     * If a reload is already running, another one is queued to run after it so
+     * changes made in the meantime are not missed; further requests share the queued one.
+     *
+     * @return A future completed on the main thread once the new configuration is published,
+     *         or completed exceptionally if it could not be loaded
+     */
+    public synchronized CompletableFuture<Void> reloadAsync() {
+        if (running == null) {
+            running = new CompletableFuture<>();
+            start(running);
+            return running;
+        }
+        if (queued == null) {
+            queued = new CompletableFuture<>();
+        }
+        return queued;
+    }
+
+    private void start(CompletableFuture<Void> future) {
+        plugin.getSchedulerAdapter().runAsync(() -> {
+            MainConfig.LoadedConfig loaded;
+            try {
+                loaded = mainConfig.parse();
+            } catch (Exception e) {
+                plugin.getSchedulerAdapter().runGlobal(() -> finish(future, e));
+                return;
+            }
+
+            plugin.getSchedulerAdapter().runGlobal(() -> {
+                try {
+                    mainConfig.apply(loaded);
+                    updateWatcher();
+                    finish(future, null);
+                } catch (Exception e) {
+                    finish(future, e);
+                }
+            });
+        });
+    }
+
+    private void finish(CompletableFuture<Void> future, Throwable error) {
+        if (error == null) {
+            future.complete(null);
+        } else {
+            future.completeExceptionally(error);
+        }
+
+        CompletableFuture<Void> next;
+        synchronized (this) {
+            running = queued;
+            queued = null;
+            next = running;
+        }
+        if (next != null) {
+            start(next);
+        }
+    }
+
+    /**
+     * Starts or stops watching the configuration files to match the loaded configuration.
+     */
+    public synchronized void updateWatcher() {
+        ConfigSnapshot snapshot = mainConfig.getSnapshot();
+        if (!snapshot.isAutoReload()) {
+            stopWatching();
+            return;
+        }
+        if (watchService != null && watchDelay == snapshot.getAutoReloadDelay()) {
+            return;
+        }
+
+        stopWatching();
+        try {
+            Path folder = plugin.getDataFolder().toPath();
+            WatchService service = FileSystems.getDefault().newWatchService();
+            folder.register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+
+            watchService = service;
+            watchDelay = snapshot.getAutoReloadDelay();
+            watchThread = new Thread(() -> watch(service, folder, watchDelay), "ScrollTeleportation-ConfigWatcher");
+            watchThread.setDaemon(true);
+            watchThread.start();
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to watch the configuration files", e);
+        }
+    }
+
+    /**
+     * Stops watching the configuration files.
+     */
+    public synchronized void stopWatching() {
+        WatchService service = watchService;
+        watchService = null;
+        watchThread = null;
+        if (service != null) {
+            try {
+                service.close();
+            } catch (IOException e) {
+                plugin.getLogger().log(Level.FINE, "Failed to close the configuration watcher", e);
+            }
+        }
+    }
+
+    private void watch(WatchService service, Path folder, long delay) {
+        try {
+            while (watchService == service) {
+                WatchKey key = service.take();
+                boolean changed = drain(folder, key);
+
+                // Wait until the files have been left alone for the whole delay
+                while (changed) {
+                    WatchKey next = service.poll(delay, TimeUnit.MILLISECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    changed |= drain(folder, next);
+                }
+
+                if (changed && watchService == service) {
+                    reloadAsync().whenComplete((result, error) -> {
+                        if (error == null) {
+                            plugin.getLogger().info("Reloaded configuration after a file change.");
+                        } else {
+                            plugin.getLogger().warning("Failed to reload changed configuration, keeping the loaded one: "
+                                    + error.getMessage());
+                        }
+                    });
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // Watching was stopped
+        }
+    }
+
+    private boolean drain(Path folder, WatchKey key) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.context() instanceof Path path && WATCHED_FILES.contains(path.getFileName().toString())
+                    && !mainConfig.getConfigSaver().isOwnWrite(folder.resolve(path))) {
+                changed = true;
+            }
+        }
+        key.reset();
+        return changed;
+    }
+}
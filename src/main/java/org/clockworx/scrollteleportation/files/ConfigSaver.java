@@ -0,0 +1,160 @@
+package org.clockworx.scrollteleportation.files;
+
+import org.clockworx.scrollteleportation.ScrollTeleportation;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Writes config.yml in the background.
+ * Save requests only mark the configuration dirty; the file is written once no further
+ * edits have arrived for the configured delay, so bursts of edits cost a single write.
+ * Files are written to a temporary file first and moved into place, so a crash never
+ * leaves a half-written config.yml behind.
+ */
+public class ConfigSaver {
+
+    /**
+     * Longest time an edit may wait for its write while further edits keep arriving.
+     */
+    private static final long MAX_DELAY_MILLIS = 5000L;
+
+    private final ScrollTeleportation plugin;
+    private final MainConfig mainConfig;
+    private final ScheduledExecutorService executor;
+    private final Object writeLock = new Object();
+
+    private ScheduledFuture<?> pending;
+    private long firstDirtyAt;
+    private boolean dirty;
+    private boolean closed;
+    private volatile FileTime lastWritten;
+
+    /**
+     * Creates a new ConfigSaver instance.
+     *
+     * @param plugin The plugin instance
+     * @param mainConfig The configuration to save
+     */
+    public ConfigSaver(ScrollTeleportation plugin, MainConfig mainConfig) {
+        this.plugin = plugin;
+        this.mainConfig = mainConfig;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ScrollTeleportation-ConfigSaver");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Requests the configuration to be written.
+     * The write is delayed until the configuration has been left alone for the save delay.
+     */
+    public void requestSave() {
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            if (!dirty) {
+                dirty = true;
+                firstDirtyAt = now;
+            }
+
+            if (!closed) {
+                long delay = Math.min(mainConfig.getSnapshot().getSaveDelay(),
+                        Math.max(0L, firstDirtyAt + MAX_DELAY_MILLIS - now));
+                if (pending != null) {
+                    pending.cancel(false);
+                }
+                pending = executor.schedule(this::flush, delay, TimeUnit.MILLISECONDS);
+                return;
+            }
+        }
+
+        // Nothing is left to run the delayed write once closed
+        flush();
+    }
+
+    /**
+     * Writes the configuration now if there are unsaved edits.
+     * Safe to call from any thread.
+     */
+    public void flush() {
+        synchronized (writeLock) {
+            synchronized (this) {
+                if (!dirty) {
+                    return;
+                }
+                dirty = false;
+                if (pending != null) {
+                    pending.cancel(false);
+                    pending = null;
+                }
+            }
+
+            Path target = mainConfig.getConfigFile().toPath();
+            try {
+                write(target, mainConfig.serialize());
+                lastWritten = Files.getLastModifiedTime(target);
+            } catch (IOException e) {
+                plugin.getLogger().log(Level.SEVERE, "Could not save config to " + target, e);
+                synchronized (this) {
+                    // Keep the edits so the next request retries them
+                    if (!dirty) {
+                        dirty = true;
+                        firstDirtyAt = System.currentTimeMillis();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes any unsaved edits and stops the background thread.
+     * Later save requests are written immediately.
+     */
+    public void close() {
+        synchronized (this) {
+            closed = true;
+        }
+        flush();
+        executor.shutdown();
+    }
+
+    /**
+     * Checks if a file is exactly as this saver last wrote it.
+     * Used to ignore file change events caused by our own writes.
+     *
+     * @param file The file to check
+     * @return True if the file has not been modified since it was last written here
+     */
+    public boolean isOwnWrite(Path file) {
+        FileTime written = lastWritten;
+        if (written == null || !file.equals(mainConfig.getConfigFile().toPath())) {
+            return false;
+        }
+        try {
+            return written.equals(Files.getLastModifiedTime(file));
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static void write(Path target, String data) throws IOException {
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        Files.writeString(temp, data, StandardCharsets.UTF_8);
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
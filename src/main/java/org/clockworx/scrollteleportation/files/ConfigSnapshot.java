@@ -0,0 +1,620 @@
+package org.clockworx.scrollteleportation.files;
+
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.logging.Logger;
+import java.util.stream.IntStream;
+
+/**
+ * An immutable, typed copy of config.yml.
+ * A snapshot is compiled once per load so hot paths read plain fields instead of
+ * walking the configuration tree, and it can be read safely from any thread.
+ */
+public final class ConfigSnapshot {
+
+    /**
+     * Number of scrolls from which compiling is split across cores.
+     */
+    private static final int PARALLEL_THRESHOLD = 64;
+
+    /**
+     * A snapshot with default settings and no scrolls.
+     */
+    public static final ConfigSnapshot EMPTY = new ConfigSnapshot(new YamlConfiguration(),
+            Logger.getLogger(ConfigSnapshot.class.getName()));
+
+    private final Material scrollMaterial;
+    private final boolean loadChunkOnTeleport;
+    private final long chunkLoadTimeout;
+    private final long teleportTimeout;
+    private final boolean countdown;
+    private final int moveTolerance;
+    private final LandingRules landingRules;
+    private final CancelRules cancelRules;
+    private final int landingPoolSize;
+    private final long landingPoolInterval;
+    private final double landingPoolTickBudget;
+    private final int landingPoolRefills;
+    private final int hotChunkTickets;
+    private final int hotChunkMinArrivals;
+    private final long hotChunkHalfLife;
+    private final long hotChunkInterval;
+    private final boolean prefetch;
+    private final long prefetchCooldown;
+    private final int prefetchRate;
+    private final boolean combatBlocked;
+    private final String language;
+    private final boolean perPlayerLanguage;
+    private final boolean autoReload;
+    private final long autoReloadDelay;
+    private final long saveDelay;
+    private final Set<String> blockedWorldNames;
+    private final Set<UUID> blockedWorldIds;
+    private final BlockedRegions blockedRegions;
+    private final Map<String, ScrollSettings> scrolls;
+
+    private ConfigSnapshot(FileConfiguration config, Logger logger) {
+        String materialName = config.getString("Scroll.material", Material.PAPER.name());
+        Material material = Material.getMaterial(materialName);
+        if (material == null) {
+            logger.warning("Invalid scroll material " + materialName + ", using " + Material.PAPER.name());
+            material = Material.PAPER;
+        }
+
+        Map<String, ScrollSettings> compiledScrolls = new LinkedHashMap<>();
+        ConfigurationSection scrollsSection = getScrollsSection(config);
+        if (scrollsSection != null) {
+            for (ScrollSettings settings : compileScrolls(scrollsSection, logger)) {
+                compiledScrolls.put(settings.getInternalName(), settings);
+            }
+        }
+
+        this.scrollMaterial = material;
+        this.loadChunkOnTeleport = config.getBoolean("Scroll.load-chunk-on-teleport", true);
+        this.chunkLoadTimeout = Math.max(1L, config.getLong("Scroll.chunk-load-timeout", 10000L));
+        this.teleportTimeout = Math.max(1L, config.getLong("Scroll.teleport-timeout", 10000L));
+        this.countdown = config.getBoolean("Scroll.countdown", true);
+        this.moveTolerance = Math.max(0, config.getInt("general.move-tolerance", 0));
+        this.landingRules = LandingRules.compile(config, logger);
+        this.cancelRules = CancelRules.compile(config);
+        this.landingPoolSize = Math.max(0, config.getInt("landing-pool.size", 8));
+        this.landingPoolInterval = Math.max(1L, config.getLong("landing-pool.refill-interval", 20L));
+        this.landingPoolTickBudget = config.getDouble("landing-pool.tick-budget", 40.0);
+        this.landingPoolRefills = Math.max(1, config.getInt("landing-pool.refills-per-run", 2));
+        this.hotChunkTickets = Math.max(0, config.getInt("hot-chunks.max-tickets", 16));
+        this.hotChunkMinArrivals = Math.max(1, config.getInt("hot-chunks.min-arrivals", 3));
+        this.hotChunkHalfLife = Math.max(1L, config.getLong("hot-chunks.half-life", 600L));
+        this.hotChunkInterval = Math.max(1L, config.getLong("hot-chunks.check-interval", 200L));
+        this.prefetch = config.getBoolean("prefetch.enabled", false);
+        this.prefetchCooldown = Math.max(0L, config.getLong("prefetch.player-cooldown", 2000L));
+        this.prefetchRate = Math.max(1, config.getInt("prefetch.max-per-second", 20));
+        this.combatBlocked = config.getBoolean("block_combat_teleport", true);
+        this.language = config.getString("language", "en");
+        this.perPlayerLanguage = config.getBoolean("per-player-language", true);
+        this.autoReload = config.getBoolean("auto-reload", false);
+        this.autoReloadDelay = Math.max(0L, config.getLong("auto-reload-delay", 500L));
+        this.saveDelay = Math.max(0L, config.getLong("save-delay", 1000L));
+        this.blockedWorldNames = Collections.unmodifiableSet(
+                new LinkedHashSet<>(config.getStringList("blocked_worlds")));
+        this.blockedWorldIds = Set.of();
+        this.blockedRegions = BlockedRegions.compile(config, logger);
+        this.scrolls = Collections.unmodifiableMap(compiledScrolls);
+    }
+
+    private ConfigSnapshot(ByteBuffer in, Logger logger) {
+        String materialName = ConfigCache.readString(in);
+        Material material = materialName != null ? Material.getMaterial(materialName) : null;
+
+        this.scrollMaterial = material != null ? material : Material.PAPER;
+        this.loadChunkOnTeleport = in.get() != 0;
+        this.chunkLoadTimeout = in.getLong();
+        this.teleportTimeout = in.getLong();
+        this.countdown = in.get() != 0;
+        this.moveTolerance = in.getInt();
+        this.landingRules = LandingRules.read(in);
+        this.cancelRules = CancelRules.read(in);
+        this.landingPoolSize = in.getInt();
+        this.landingPoolInterval = in.getLong();
+        this.landingPoolTickBudget = in.getDouble();
+        this.landingPoolRefills = in.getInt();
+        this.hotChunkTickets = in.getInt();
+        this.hotChunkMinArrivals = in.getInt();
+        this.hotChunkHalfLife = in.getLong();
+        this.hotChunkInterval = in.getLong();
+        this.prefetch = in.get() != 0;
+        this.prefetchCooldown = in.getLong();
+        this.prefetchRate = in.getInt();
+        this.combatBlocked = in.get() != 0;
+        this.language = ConfigCache.readString(in);
+        this.perPlayerLanguage = in.get() != 0;
+        this.autoReload = in.get() != 0;
+        this.autoReloadDelay = in.getLong();
+        this.saveDelay = in.getLong();
+        this.blockedWorldNames = Collections.unmodifiableSet(new LinkedHashSet<>(ConfigCache.readStringList(in)));
+        this.blockedWorldIds = Set.of();
+        this.blockedRegions = BlockedRegions.read(in);
+
+        int scrollCount = in.getInt();
+        Map<String, ScrollSettings> restoredScrolls = new LinkedHashMap<>();
+        for (int i = 0; i < scrollCount; i++) {
+            ScrollSettings settings = ScrollSettings.read(in, logger);
+            restoredScrolls.put(settings.getInternalName(), settings);
+        }
+        this.scrolls = Collections.unmodifiableMap(restoredScrolls);
+    }
+
+    private ConfigSnapshot(ConfigSnapshot base, Set<UUID> blockedWorldIds, BlockedRegions blockedRegions,
+                           Map<String, ScrollSettings> scrolls) {
+        this.scrollMaterial = base.scrollMaterial;
+        this.loadChunkOnTeleport = base.loadChunkOnTeleport;
+        this.chunkLoadTimeout = base.chunkLoadTimeout;
+        this.teleportTimeout = base.teleportTimeout;
+        this.countdown = base.countdown;
+        this.moveTolerance = base.moveTolerance;
+        this.landingRules = base.landingRules;
+        this.cancelRules = base.cancelRules;
+        this.landingPoolSize = base.landingPoolSize;
+        this.landingPoolInterval = base.landingPoolInterval;
+        this.landingPoolTickBudget = base.landingPoolTickBudget;
+        this.landingPoolRefills = base.landingPoolRefills;
+        this.hotChunkTickets = base.hotChunkTickets;
+        this.hotChunkMinArrivals = base.hotChunkMinArrivals;
+        this.hotChunkHalfLife = base.hotChunkHalfLife;
+        this.hotChunkInterval = base.hotChunkInterval;
+        this.prefetch = base.prefetch;
+        this.prefetchCooldown = base.prefetchCooldown;
+        this.prefetchRate = base.prefetchRate;
+        this.combatBlocked = base.combatBlocked;
+        this.language = base.language;
+        this.perPlayerLanguage = base.perPlayerLanguage;
+        this.autoReload = base.autoReload;
+        this.autoReloadDelay = base.autoReloadDelay;
+        this.saveDelay = base.saveDelay;
+        this.blockedWorldNames = base.blockedWorldNames;
+        this.blockedWorldIds = blockedWorldIds;
+        this.blockedRegions = blockedRegions;
+        this.scrolls = scrolls;
+    }
+
+    /**
+     * Compiles a snapshot from the main configuration.
+     * This only reads the given configuration, so it may run off the main thread.
+     * Blocked worlds are only known by name until {@link #bindWorlds(Iterable)} is called.
+     *
+     * @param config The main configuration
+     * @param logger The logger to report invalid values to
+     * @return The compiled snapshot
+     */
+    public static ConfigSnapshot compile(FileConfiguration config, Logger logger) {
+        return new ConfigSnapshot(config, logger);
+    }
+
+    /**
+     * Writes this snapshot to the compiled config cache.
+     * Worlds are written by name and bound again after reading.
+     *
+     * @param out The output to write to
+     * @throws IOException if writing fails
+     */
+    void write(DataOutputStream out) throws IOException {
+        ConfigCache.writeString(out, scrollMaterial.name());
+        out.writeBoolean(loadChunkOnTeleport);
+        out.writeLong(chunkLoadTimeout);
+        out.writeLong(teleportTimeout);
+        out.writeBoolean(countdown);
+        out.writeInt(moveTolerance);
+        landingRules.write(out);
+        cancelRules.write(out);
+        out.writeInt(landingPoolSize);
+        out.writeLong(landingPoolInterval);
+        out.writeDouble(landingPoolTickBudget);
+        out.writeInt(landingPoolRefills);
+        out.writeInt(hotChunkTickets);
+        out.writeInt(hotChunkMinArrivals);
+        out.writeLong(hotChunkHalfLife);
+        out.writeLong(hotChunkInterval);
+        out.writeBoolean(prefetch);
+        out.writeLong(prefetchCooldown);
+        out.writeInt(prefetchRate);
+        out.writeBoolean(combatBlocked);
+        ConfigCache.writeString(out, language);
+        out.writeBoolean(perPlayerLanguage);
+        out.writeBoolean(autoReload);
+        out.writeLong(autoReloadDelay);
+        out.writeLong(saveDelay);
+        ConfigCache.writeStringList(out, List.copyOf(blockedWorldNames));
+        blockedRegions.write(out);
+
+        out.writeInt(scrolls.size());
+        for (ScrollSettings settings : scrolls.values()) {
+            settings.write(out);
+        }
+    }
+
+    /**
+     * Reads a snapshot written by {@link #write(DataOutputStream)}.
+     *
+     * @param in The buffer to read from
+     * @param logger The logger to report invalid values to
+     * @return The restored snapshot, not yet bound to worlds
+     */
+    static ConfigSnapshot read(ByteBuffer in, Logger logger) {
+        return new ConfigSnapshot(in, logger);
+    }
+
+    /**
+     * Compiles every scroll section, spreading large catalogs across cores.
+     * The sections are only read, never modified, so they can be shared between threads.
+     *
+     * @param scrollsSection The section holding the scroll definitions
+     * @param logger The logger to report invalid values to
+     * @return The compiled settings in config order
+     */
+    private static List<ScrollSettings> compileScrolls(ConfigurationSection scrollsSection, Logger logger) {
+        List<String> names = new ArrayList<>(scrollsSection.getKeys(false));
+        List<ConfigurationSection> sections = new ArrayList<>(names.size());
+        for (String name : names) {
+            sections.add(scrollsSection.getConfigurationSection(name));
+        }
+
+        IntStream indices = IntStream.range(0, names.size());
+        if (names.size() >= PARALLEL_THRESHOLD) {
+            indices = indices.parallel();
+        }
+        return indices
+                .mapToObj(i -> ScrollSettings.compile(names.get(i), sections.get(i), logger))
+                .toList();
+    }
+
+    /**
+     * Gets the section holding the scroll definitions.
+     *
+     * @param config The main configuration
+     * @return The "Scrolls" section, else the "scrolls" section, else null
+     */
+    static ConfigurationSection getScrollsSection(FileConfiguration config) {
+        ConfigurationSection section = config.getConfigurationSection("Scrolls");
+        return section != null ? section : config.getConfigurationSection("scrolls");
+    }
+
+    /**
+     * Resolves the names of the blocked worlds and of the worlds of blocked regions against the loaded worlds.
+     * Names stay matched as well, for worlds that are not loaded yet or are recreated with a new UUID.
+     *
+     * @param worlds The loaded worlds
+     * @return A snapshot with the blocked worlds and regions keyed by UUID
+     */
+    public ConfigSnapshot bindWorlds(Iterable<? extends World> worlds) {
+        Set<UUID> ids = new HashSet<>();
+        for (World world : worlds) {
+            if (blockedWorldNames.contains(world.getName())) {
+                ids.add(world.getUID());
+            }
+        }
+        return new ConfigSnapshot(this, Collections.unmodifiableSet(ids), blockedRegions.bind(worlds), scrolls);
+    }
+
+    /**
+     * Creates a copy of this snapshot with one scroll's settings replaced or added.
+     *
+     * @param settings The new settings of the scroll
+     * @return The new snapshot
+     */
+    public ConfigSnapshot withScroll(ScrollSettings settings) {
+        Map<String, ScrollSettings> newScrolls = new LinkedHashMap<>(scrolls);
+        newScrolls.put(settings.getInternalName(), settings);
+        return new ConfigSnapshot(this, blockedWorldIds, blockedRegions, Collections.unmodifiableMap(newScrolls));
+    }
+
+    /**
+     * Gets the material used for scrolls.
+     *
+     * @return The scroll material
+     */
+    public Material getScrollMaterial() {
+        return scrollMaterial;
+    }
+
+    /**
+     * Checks if the destination chunk is loaded while the teleport delay counts down.
+     *
+     * @return True if chunks should be loaded during the delay
+     */
+    public boolean isLoadChunkOnTeleport() {
+        return loadChunkOnTeleport;
+    }
+
+    /**
+     * Gets how long a teleport waits for its destination chunk to load.
+     *
+     * @return The timeout in milliseconds
+     */
+    public long getChunkLoadTimeout() {
+        return chunkLoadTimeout;
+    }
+
+    /**
+     * Gets how long a teleport waits for the server to move the player.
+     *
+     * @return The timeout in milliseconds
+     */
+    public long getTeleportTimeout() {
+        return teleportTimeout;
+    }
+
+    /**
+     * Checks if the seconds left before a teleport are shown above the hotbar.
+     *
+     * @return True if the countdown is shown
+     */
+    public boolean isCountdown() {
+        return countdown;
+    }
+
+    /**
+     * Gets how many blocks a player may move away from where they started a teleport
+     * before it is cancelled.
+     *
+     * @return The tolerance in blocks, 0 to cancel as soon as the player enters another block
+     */
+    public int getMoveTolerance() {
+        return moveTolerance;
+    }
+
+    /**
+     * Gets the rules a spot must meet for a player to land on it.
+     *
+     * @return The landing rules
+     */
+    public LandingRules getLandingRules() {
+        return landingRules;
+    }
+
+    /**
+     * Gets what cancels a teleport while it counts down.
+     *
+     * @return The cancellation rules
+     */
+    public CancelRules getCancelRules() {
+        return cancelRules;
+    }
+
+    /**
+     * Gets how many safe spots are kept ready for each random destination.
+     *
+     * @return The pool size, 0 if pools are disabled
+     */
+    public int getLandingPoolSize() {
+        return landingPoolSize;
+    }
+
+    /**
+     * Gets how often the landing pools are refilled.
+     *
+     * @return The interval in ticks
+     */
+    public long getLandingPoolInterval() {
+        return landingPoolInterval;
+    }
+
+    /**
+     * Gets the average tick time under which the landing pools are refilled.
+     *
+     * @return The budget in milliseconds
+     */
+    public double getLandingPoolTickBudget() {
+        return landingPoolTickBudget;
+    }
+
+    /**
+     * Gets how many spots are searched for at most per refill.
+     *
+     * @return The number of searches started per refill
+     */
+    public int getLandingPoolRefills() {
+        return landingPoolRefills;
+    }
+
+    /**
+     * Gets how many of the busiest destination chunks are kept loaded at most.
+     *
+     * @return The number of chunk tickets, 0 if hot chunks are disabled
+     */
+    public int getHotChunkTickets() {
+        return hotChunkTickets;
+    }
+
+    /**
+     * Gets how many recent arrivals a chunk needs before it is kept loaded.
+     *
+     * @return The number of arrivals, counted with decay
+     */
+    public int getHotChunkMinArrivals() {
+        return hotChunkMinArrivals;
+    }
+
+    /**
+     * Gets how long it takes for an arrival to count half as much.
+     *
+     * @return The half-life in seconds
+     */
+    public long getHotChunkHalfLife() {
+        return hotChunkHalfLife;
+    }
+
+    /**
+     * Gets how often the kept chunks are chosen again.
+     *
+     * @return The interval in ticks
+     */
+    public long getHotChunkInterval() {
+        return hotChunkInterval;
+    }
+
+    /**
+     * Checks if destinations are prepared as soon as a player holds a scroll.
+     *
+     * @return True if prefetching is enabled
+     */
+    public boolean isPrefetch() {
+        return prefetch;
+    }
+
+    /**
+     * Gets how long a player must wait between two prefetches.
+     *
+     * @return The cooldown in milliseconds
+     */
+    public long getPrefetchCooldown() {
+        return prefetchCooldown;
+    }
+
+    /**
+     * Gets how many prefetches are started per second across all players.
+     *
+     * @return The number of prefetches per second
+     */
+    public int getPrefetchRate() {
+        return prefetchRate;
+    }
+
+    /**
+     * Checks if teleportation is blocked during combat.
+     *
+     * @return True if teleportation is blocked during combat
+     */
+    public boolean isCombatBlocked() {
+        return combatBlocked;
+    }
+
+    /**
+     * Gets the configured default language.
+     *
+     * @return The language code
+     */
+    public String getLanguage() {
+        return language;
+    }
+
+    /**
+     * Checks if players get messages in their client language.
+     *
+     * @return True if per-player language is enabled
+     */
+    public boolean isPerPlayerLanguage() {
+        return perPlayerLanguage;
+    }
+
+    /**
+     * Checks if the configuration files are watched and reloaded when they change.
+     *
+     * @return True if automatic reloading is enabled
+     */
+    public boolean isAutoReload() {
+        return autoReload;
+    }
+
+    /**
+     * Gets how long the configuration files must be left unchanged before an automatic reload.
+     *
+     * @return The delay in milliseconds
+     */
+    public long getAutoReloadDelay() {
+        return autoReloadDelay;
+    }
+
+    /**
+     * Gets how long edits are collected before config.yml is written.
+     *
+     * @return The delay in milliseconds
+     */
+    public long getSaveDelay() {
+        return saveDelay;
+    }
+
+    /**
+     * Checks if a world is blocked from teleportation.
+     *
+     * @param world The world to check
+     * @return True if the world is blocked
+     */
+    public boolean isWorldBlocked(World world) {
+        if (blockedWorldIds.contains(world.getUID())) {
+            return true;
+        }
+        // A world recreated under a blocked name has a new UUID
+        return !blockedWorldNames.isEmpty() && blockedWorldNames.contains(world.getName());
+    }
+
+    /**
+     * Checks if a world is blocked from teleportation.
+     *
+     * @param worldName The name of the world to check
+     * @return True if the world is blocked
+     */
+    public boolean isWorldBlocked(String worldName) {
+        return blockedWorldNames.contains(worldName);
+    }
+
+    /**
+     * Gets the names of the blocked worlds.
+     *
+     * @return An unmodifiable set of world names
+     */
+    public Set<String> getBlockedWorldNames() {
+        return blockedWorldNames;
+    }
+
+    /**
+     * Gets the regions in which scrolls cannot be used.
+     *
+     * @return The blocked regions
+     */
+    public BlockedRegions getBlockedRegions() {
+        return blockedRegions;
+    }
+
+    /**
+     * Gets the settings of a scroll.
+     *
+     * @param internalName The internal name of the scroll
+     * @return The scroll's settings, or null if it is not configured
+     */
+    public ScrollSettings getScroll(String internalName) {
+        return scrolls.get(internalName);
+    }
+
+    /**
+     * Gets the settings of every configured scroll, in config order.
+     *
+     * @return An unmodifiable map of internal names to settings
+     */
+    public Map<String, ScrollSettings> getScrolls() {
+        return scrolls;
+    }
+
+    /**
+     * Gets the internal names of every configured scroll, in config order.
+     *
+     * @return An unmodifiable set of internal names
+     */
+    public Set<String> getScrollNames() {
+        return scrolls.keySet();
+    }
+}
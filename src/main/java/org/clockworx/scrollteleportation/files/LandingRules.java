@@ -0,0 +1,256 @@
+package org.clockworx.scrollteleportation.files;
+
+import org.bukkit.Material;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.block.data.Waterlogged;
+import org.bukkit.configuration.file.FileConfiguration;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Logger;
+
+/**
+ * The rules a spot must meet for a player to land on it and how random points are sampled,
+ * compiled from the "landing" section. Instances are immutable and only look at the blocks
+ * they are given, so they can be used off the main thread.
+ */
+public final class LandingRules {
+
+    /**
+     * Blocks that are never stood on or in unless config.yml lists its own hazards.
+     */
+    public static final Set<Material> DEFAULT_HAZARDS = Collections.unmodifiableSet(EnumSet.of(
+            Material.LAVA,
+            Material.FIRE,
+            Material.SOUL_FIRE,
+            Material.MAGMA_BLOCK,
+            Material.CACTUS,
+            Material.CAMPFIRE,
+            Material.SOUL_CAMPFIRE,
+            Material.SWEET_BERRY_BUSH,
+            Material.WITHER_ROSE,
+            Material.POWDER_SNOW,
+            Material.POINTED_DRIPSTONE,
+            Material.COBWEB,
+            Material.NETHER_PORTAL,
+            Material.END_PORTAL,
+            Material.END_GATEWAY
+    ));
+
+    /**
+     * Blocks that are always filled with a liquid. Other blocks hold water when they are waterlogged.
+     */
+    private static final Set<Material> LIQUIDS = Collections.unmodifiableSet(EnumSet.of(
+            Material.WATER,
+            Material.LAVA,
+            Material.BUBBLE_COLUMN,
+            Material.KELP,
+            Material.KELP_PLANT,
+            Material.SEAGRASS,
+            Material.TALL_SEAGRASS
+    ));
+
+    private final Set<Material> hazards;
+    private final boolean allowLiquids;
+    private final int headroom;
+    private final boolean avoidRoof;
+    private final int searchRadius;
+    private final long searchTimeout;
+    private final int randomRadius;
+    private final int sampleAttempts;
+
+    private LandingRules(Set<Material> hazards, boolean allowLiquids, int headroom, boolean avoidRoof,
+                         int searchRadius, long searchTimeout, int randomRadius, int sampleAttempts) {
+        this.hazards = hazards;
+        this.allowLiquids = allowLiquids;
+        this.headroom = headroom;
+        this.avoidRoof = avoidRoof;
+        this.searchRadius = searchRadius;
+        this.searchTimeout = searchTimeout;
+        this.randomRadius = randomRadius;
+        this.sampleAttempts = sampleAttempts;
+    }
+
+    /**
+     * Compiles the landing rules from the main configuration.
+     *
+     * @param config The main configuration
+     * @param logger The logger to report invalid values to
+     * @return The compiled rules
+     */
+    static LandingRules compile(FileConfiguration config, Logger logger) {
+        Set<Material> hazards = DEFAULT_HAZARDS;
+        if (config.isList("landing.hazards")) {
+            hazards = EnumSet.noneOf(Material.class);
+            for (String name : config.getStringList("landing.hazards")) {
+                Material material = Material.getMaterial(name.trim().toUpperCase());
+                if (material == null) {
+                    logger.warning("Unknown landing hazard material: " + name);
+                } else {
+                    hazards.add(material);
+                }
+            }
+            hazards = Collections.unmodifiableSet(hazards);
+        }
+
+        return new LandingRules(
+                hazards,
+                config.getBoolean("landing.allow-liquids", false),
+                Math.max(1, config.getInt("landing.headroom", 2)),
+                config.getBoolean("landing.avoid-roof", true),
+                Math.max(0, Math.min(15, config.getInt("landing.search-radius", 4))),
+                Math.max(1L, config.getLong("landing.search-timeout", 2000L)),
+                Math.max(1, config.getInt("landing.random-radius", 10000)),
+                Math.max(1, config.getInt("landing.sample-attempts", 16)));
+    }
+
+    /**
+     * Writes these rules to the compiled config cache.
+     *
+     * @param out The output to write to
+     * @throws IOException if writing fails
+     */
+    void write(DataOutputStream out) throws IOException {
+        List<String> names = new ArrayList<>(hazards.size());
+        for (Material material : hazards) {
+            names.add(material.name());
+        }
+        ConfigCache.writeStringList(out, names);
+        out.writeBoolean(allowLiquids);
+        out.writeInt(headroom);
+        out.writeBoolean(avoidRoof);
+        out.writeInt(searchRadius);
+        out.writeLong(searchTimeout);
+        out.writeInt(randomRadius);
+        out.writeInt(sampleAttempts);
+    }
+
+    /**
+     * Reads rules written by {@link #write(DataOutputStream)}.
+     *
+     * @param in The buffer to read from
+     * @return The restored rules
+     */
+    static LandingRules read(ByteBuffer in) {
+        Set<Material> hazards = EnumSet.noneOf(Material.class);
+        for (String name : ConfigCache.readStringList(in)) {
+            Material material = Material.getMaterial(name);
+            if (material != null) {
+                hazards.add(material);
+            }
+        }
+        return new LandingRules(Collections.unmodifiableSet(hazards), in.get() != 0, in.getInt(), in.get() != 0,
+                in.getInt(), in.getLong(), in.getInt(), in.getInt());
+    }
+
+    /**
+     * Checks if a player can stand on top of a block.
+     *
+     * @param ground The block below the player's feet
+     * @return True if the block is solid and not a hazard
+     */
+    public boolean canStandOn(Material ground) {
+        return ground.isSolid() && !hazards.contains(ground);
+    }
+
+    /**
+     * Checks if a block leaves room for a player's body.
+     *
+     * @param block A block at the player's feet or above
+     * @return True if the block is passable, not a hazard and, unless allowed, not a liquid
+     */
+    public boolean canStandIn(Material block) {
+        return !block.isSolid() && !hazards.contains(block) && (allowLiquids || !LIQUIDS.contains(block));
+    }
+
+    /**
+     * Checks if a block leaves room for a player's body, counting waterlogged blocks as liquids.
+     *
+     * @param block The data of a block at the player's feet or above
+     * @return True if the block is passable, not a hazard and, unless allowed, not a liquid or waterlogged
+     */
+    public boolean canStandIn(BlockData block) {
+        if (!canStandIn(block.getMaterial())) {
+            return false;
+        }
+        return allowLiquids || !(block instanceof Waterlogged waterlogged && waterlogged.isWaterlogged());
+    }
+
+    /**
+     * Gets the materials that are never landed on or in.
+     *
+     * @return An unmodifiable set of materials
+     */
+    public Set<Material> getHazards() {
+        return hazards;
+    }
+
+    /**
+     * Checks if players may land in water.
+     *
+     * @return True if liquids other than hazards are allowed around the player
+     */
+    public boolean isAllowLiquids() {
+        return allowLiquids;
+    }
+
+    /**
+     * Gets how many free blocks a player needs above the ground.
+     *
+     * @return The headroom in blocks
+     */
+    public int getHeadroom() {
+        return headroom;
+    }
+
+    /**
+     * Checks if searches stay below the ceiling of worlds that have one, like the Nether roof.
+     *
+     * @return True if the roof is avoided
+     */
+    public boolean isAvoidRoof() {
+        return avoidRoof;
+    }
+
+    /**
+     * Gets how many columns around the target are searched, within the target's chunk.
+     *
+     * @return The radius in blocks
+     */
+    public int getSearchRadius() {
+        return searchRadius;
+    }
+
+    /**
+     * Gets how long a teleport waits for a safe spot to be found.
+     *
+     * @return The timeout in milliseconds
+     */
+    public long getSearchTimeout() {
+        return searchTimeout;
+    }
+
+    /**
+     * Gets how far from the world border's center random destinations without a radius may lead.
+     *
+     * @return The radius in blocks
+     */
+    public int getRandomRadius() {
+        return randomRadius;
+    }
+
+    /**
+     * Gets how many random points are tried before settling for one whose chunk is not loaded.
+     *
+     * @return The number of attempts
+     */
+    public int getSampleAttempts() {
+        return sampleAttempts;
+    }
+}
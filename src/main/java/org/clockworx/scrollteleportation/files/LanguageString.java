@@ -4,6 +4,8 @@ import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
 import net.kyori.adventure.text.format.TextColor;
 import net.kyori.adventure.text.minimessage.MiniMessage;
+import org.bukkit.command.CommandSender;
+import org.clockworx.scrollteleportation.ScrollTeleportation;
 
 /**
  * Enum representing all language strings used in the plugin.
@@ -11,38 +13,73 @@ import net.kyori.adventure.text.minimessage.MiniMessage;
  */
 public enum LanguageString {
 
-    TELEPORTING_IN_TIME("teleporting message", "<gold>Teleporting in %time% seconds..</gold>"),
-    MOVEMENT_WARNING("movement warning", "<red>Don't move or teleportation is cancelled.</red>"),
-    COMMENCING_TELEPORT("teleport message", "<gold>Commencing teleport!</gold>"),
-    NOT_ALLOWED_TO_USE_SCROLL("not allowed to use scroll", "<red>You are not allowed to use scrolls.</red>"),
-    CANCELLED_DUE_TO_MOVEMENT("cancelled due to movement", "<red>Teleportation is cancelled because you moved.</red>"),
-    CANCELLED_DUE_TO_INTERACTION("cancelled due to interaction", "<red>Teleportation is cancelled because you interacted.</red>"),
-    POTION_EFFECTS_APPLIED("potions effects applied", "<gold>You feel strange effects as you've been teleported..</gold>"),
-    TELEPORT_CANCELLED_MOVEMENT("teleport cancelled movement", "<red>Teleportation cancelled due to movement!</red>"),
-    NO_PERMISSION("no permission", "<red>You don't have permission to use this command.</red>"),
-    INVALID_COMMAND("invalid command", "<red>Invalid command. Use /scrolltp help for help.</red>"),
-    HELP_HEADER("help header", "<gold>=== Scroll Teleportation Help ==="),
-    HELP_RELOAD("help reload", "<gold>/scrolltp reload <gray>- Reload the plugin configuration</gray>"),
-    HELP_GIVE("help give", "<gold>/scrolltp give <player> <scroll> [amount] <gray>- Give a scroll to a player</gray>"),
-    RELOAD_SUCCESS("reload success", "<green>Configuration reloaded successfully!</green>"),
-    RELOAD_FAILED("reload failed", "<red>Failed to reload configuration!</red>"),
-    PLAYER_NOT_FOUND("player not found", "<red>Player not found!</red>"),
-    INVALID_AMOUNT("invalid amount", "<red>Invalid amount!</red>"),
-    GIVE_SUCCESS("give success", "<green>Successfully gave %amount% %scroll% to %player%!</green>"),
-    SCROLL_NOT_FOUND("scroll not found", "<red>Scroll not found!</red>");
+    TELEPORTING_IN_TIME("teleporting message", "scroll-teleporting", "<gold>Teleporting in %time% seconds..</gold>"),
+    MOVEMENT_WARNING("movement warning", null, "<red>Don't move or teleportation is cancelled.</red>"),
+    COMMENCING_TELEPORT("teleport message", null, "<gold>Commencing teleport!</gold>"),
+    NOT_ALLOWED_TO_USE_SCROLL("not allowed to use scroll", null, "<red>You are not allowed to use scrolls.</red>"),
+    CANCELLED_DUE_TO_INTERACTION("cancelled due to interaction", "scroll-cancelled-interact", "<red>Teleportation is cancelled because you interacted.</red>"),
+    CANCELLED_DUE_TO_INVENTORY("cancelled due to inventory", "scroll-cancelled-inventory", "<red>Teleportation is cancelled because you opened an inventory.</red>"),
+    POTION_EFFECTS_APPLIED("potions effects applied", null, "<gold>You feel strange effects as you've been teleported..</gold>"),
+    TELEPORT_CANCELLED_MOVEMENT("teleport cancelled movement", "scroll-cancelled-move", "<red>Teleportation cancelled due to movement!</red>"),
+    TELEPORT_CANCELLED("teleport cancelled", "scroll-cancelled", "<red>Teleportation cancelled!</red>"),
+    TELEPORT_CANCELLED_DAMAGE("teleport cancelled damage", "scroll-cancelled-damage", "<red>Teleportation cancelled because you took damage!</red>"),
+    TELEPORT_ABORTED("teleport aborted", null, "<yellow>Teleportation cancelled.</yellow>"),
+    TELEPORT_SUCCESS("teleport success", "scroll-teleported", "<green>You have been teleported!</green>"),
+    TELEPORT_ERROR("teleport error", "error-teleport", "<red>An error occurred during teleportation!</red>"),
+    LOAD_CHUNK_ERROR("load chunk error", "error-load-chunk", "<red>Failed to load the destination chunk!</red>"),
+    ACTIVATION_ERROR("activation error", "error-activation", "<red>An error occurred while activating the scroll!</red>"),
+    INVALID_DESTINATION("invalid destination", "error-invalid-destination", "<red>Invalid destination: %destination%</red>"),
+    NO_SAFE_DESTINATION("no safe destination", "error-no-safe-destination", "<red>No safe place to land was found at the destination!</red>"),
+    NO_SCROLL_PERMISSION("no scroll permission", "error-no-scroll-permission", "<red>You don't have permission to use this scroll!</red>"),
+    WORLD_BLOCKED("world blocked", "error-world-blocked", "<red>You cannot use scrolls in this world!</red>"),
+    REGION_BLOCKED("region blocked", "error-region-blocked", "<red>You cannot use scrolls in this region!</red>"),
+    COMBAT_BLOCKED("combat blocked", "error-combat-blocked", "<red>You cannot use scrolls while in combat!</red>"),
+    VEHICLE_BLOCKED("vehicle blocked", "error-vehicle-blocked", "<red>You cannot use scrolls while in a vehicle!</red>"),
+    STANDING_BLOCK_BLOCKED("standing block blocked", "error-standing-block-blocked", "<red>You cannot use scrolls while standing on this block!</red>"),
+    NO_PERMISSION("no permission", "no-permission", "<red>You don't have permission to use this command.</red>"),
+    INVALID_COMMAND("invalid command", "error-invalid-command", "<red>Invalid command. Use /scrolltp help for help.</red>"),
+    HELP_HEADER("help header", null, "<gold>=== Scroll Teleportation Help ==="),
+    HELP_RELOAD("help reload", null, "<gold>/scrolltp reload <gray>- Reload the plugin configuration</gray>"),
+    HELP_GIVE("help give", null, "<gold>/scrolltp give <player> <scroll> [amount] <gray>- Give a scroll to a player</gray>"),
+    HELP_STATS("help stats", null, "<gold>/scrolltp stats [reset] <gray>- Show or reset runtime statistics</gray>"),
+    RELOAD_SUCCESS("reload success", "reload", "<green>Configuration reloaded successfully!</green>"),
+    RELOAD_FAILED("reload failed", null, "<red>Failed to reload configuration!</red>"),
+    PLAYER_NOT_FOUND("player not found", "error-player-not-found", "<red>Player not found: %player%</red>"),
+    INVALID_AMOUNT("invalid amount", null, "<red>Invalid amount!</red>"),
+    GIVE_SUCCESS("give success", null, "<green>Successfully gave %amount% %scroll% to %player%!</green>"),
+    GIVE_DROPPED("give dropped", null, "<yellow>%amount% did not fit in the inventory of %player% and were dropped at their feet.</yellow>"),
+    STATS_HEADER("stats header", null, "<gold>=== Scroll Teleportation Stats ==="),
+    STATS_SCROLLS("stats scrolls", null, "<gray>Loaded scrolls: <yellow>%count%</yellow></gray>"),
+    STATS_ITEM_CHECKS("stats item checks", null, "<gray>Item checks: <green>%hits%</green> hits, <red>%misses%</red> misses (<yellow>%rejected%</yellow> rejected without reading meta)</gray>"),
+    STATS_PENDING("stats pending", null, "<gray>Pending teleports: <yellow>%count%</yellow></gray>"),
+    STATS_SESSIONS("stats sessions", null, "<gray>Active sessions: <yellow>%count%</yellow></gray>"),
+    STATS_WARMUP("stats warmup", null, "<gray>Warming up: <yellow>%count%</yellow> (<yellow>%registered%</yellow>/%total% listeners registered)</gray>"),
+    STATS_REJECTIONS("stats rejections", null, "<gray>Activations rejected: <red>%rejections%</red></gray>"),
+    STATS_REGIONS("stats regions", null, "<gray>Blocked regions: <yellow>%count%</yellow> in <yellow>%worlds%</yellow> worlds</gray>"),
+    STATS_LANDING_POOL("stats landing pool", null, "<gray>Landing pool: <yellow>%count%</yellow> spots ready, <green>%rate%%</green> hit rate (<green>%hits%</green>/<yellow>%total%</yellow>), <yellow>%refills%</yellow> refills/min, <red>%failed%</red> failed</gray>"),
+    STATS_HOT_CHUNKS("stats hot chunks", null, "<gray>Hot chunks: <yellow>%count%</yellow> kept loaded, <yellow>%tracked%</yellow> tracked, <green>%rate%%</green> of arrivals warm (<green>%added%</green> tickets added, <yellow>%released%</yellow> released)</gray>"),
+    STATS_LANDING_SEARCHES("stats landing searches", null, "<gray>Landing searches: <yellow>%started%</yellow> started, <green>%shared%</green> shared, <yellow>%count%</yellow> in progress</gray>"),
+    STATS_PREFETCH("stats prefetch", null, "<gray>Prefetch: <yellow>%count%</yellow> held, <yellow>%started%</yellow> started, <green>%used%</green> used, <red>%throttled%</red> throttled</gray>"),
+    STATS_LAST_RELOAD("stats last reload", null, "<gray>Last scroll reload: <yellow>%report%</yellow></gray>"),
+    STATS_RESET("stats reset", null, "<green>Statistics reset.</green>"),
+    SCROLL_NOT_FOUND("scroll not found", "error-scroll-not-found", "<red>Scroll not found: %scroll%</red>");
 
     private final String configPath;
+    private final String messageKey;
     private final String defaultString;
+    private MessageTemplate defaultTemplate;
     private static final MiniMessage miniMessage = MiniMessage.miniMessage();
 
     /**
      * Creates a new language string.
      * 
      * @param configPath The path in the config file
+     * @param messageKey The key in messages.yml, or null if the string has none
      * @param defaultString The default string value
      */
-    LanguageString(String configPath, String defaultString) {
+    LanguageString(String configPath, String messageKey, String defaultString) {
         this.configPath = configPath;
+        this.messageKey = messageKey;
         this.defaultString = defaultString;
     }
 
@@ -55,6 +92,15 @@ public enum LanguageString {
         return configPath;
     }
 
+    /**
+     * Gets the key of this language string in messages.yml.
+     * 
+     * @return The messages.yml key, or null if the string has none
+     */
+    public String getMessageKey() {
+        return messageKey;
+    }
+
     /**
      * Gets the default string value.
      * 
@@ -75,11 +121,95 @@ public enum LanguageString {
     }
 
     /**
-     * Parses this language string's default value as a Component.
+     * Gets this language string as a Component.
+     * Uses the plugin's compiled message catalog, falling back to the default value.
      * 
-     * @return The parsed Component
+     * @return The Component
      */
     public Component parse() {
-        return parseComponent(defaultString);
+        return template().render();
+    }
+
+    /**
+     * Gets this language string as a Component with its placeholders filled in.
+     * 
+     * @param values The placeholder values
+     * @return The Component
+     */
+    public Component parse(Placeholder.Value... values) {
+        return template().render(values);
+    }
+
+    /**
+     * Gets this language string as a Component for a command sender.
+     * Players get the message in their client language when it is available.
+     * 
+     * @param sender The command sender the message is for
+     * @param values The placeholder values
+     * @return The Component
+     */
+    public Component parse(CommandSender sender, Placeholder.Value... values) {
+        MessageCatalog catalog = catalog();
+        if (catalog == null) {
+            return getDefaultTemplate().render(values);
+        }
+        return catalog.render(sender, this, values);
+    }
+
+    /**
+     * Sends this language string to a command sender in their language.
+     * 
+     * @param sender The command sender
+     * @param values The placeholder values
+     */
+    public void send(CommandSender sender, Placeholder.Value... values) {
+        sender.sendMessage(parse(sender, values));
+    }
+
+    /**
+     * Shows this language string above a command sender's hotbar in their language.
+     * 
+     * @param sender The command sender
+     * @param values The placeholder values
+     */
+    public void sendActionBar(CommandSender sender, Placeholder.Value... values) {
+        sender.sendActionBar(parse(sender, values));
+    }
+
+    /**
+     * Gets the compiled template for this language string.
+     * 
+     * @return The template from the active catalog, or the compiled default value
+     */
+    private MessageTemplate template() {
+        MessageCatalog catalog = catalog();
+        return catalog != null ? catalog.get(this) : getDefaultTemplate();
+    }
+
+    /**
+     * Gets the plugin's active message catalog.
+     * 
+     * @return The catalog, or null if the configuration isn't loaded yet
+     */
+    private static MessageCatalog catalog() {
+        ScrollTeleportation plugin = ScrollTeleportation.getInstance();
+        if (plugin == null || plugin.getMainConfig() == null) {
+            return null;
+        }
+        return plugin.getMainConfig().getMessageCatalog();
+    }
+
+    /**
+     * Gets the default value compiled as a template.
+     * 
+     * @return The default template
+     */
+    MessageTemplate getDefaultTemplate() {
+        MessageTemplate template = defaultTemplate;
+        if (template == null) {
+            template = MessageTemplate.compile(defaultString);
+            defaultTemplate = template;
+        }
+        return template;
     }
-} 
\ No newline at end of file
+}
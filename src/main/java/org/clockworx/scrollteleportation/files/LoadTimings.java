@@ -0,0 +1,60 @@
+package org.clockworx.scrollteleportation.files;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Records how long each phase of loading the configuration took.
+ */
+public final class LoadTimings {
+
+    private final Map<String, Long> phases = new LinkedHashMap<>();
+    private final long start = System.nanoTime();
+    private long last = start;
+
+    /**
+     * Ends the current phase and starts the next one.
+     *
+     * @param phase The name of the phase that just ended
+     */
+    public void mark(String phase) {
+        long now = System.nanoTime();
+        phases.merge(phase, now - last, Long::sum);
+        last = now;
+    }
+
+    /**
+     * Gets the time spent in each phase, in the order they ran.
+     *
+     * @return A map of phase names to nanoseconds
+     */
+    public Map<String, Long> getPhases() {
+        return phases;
+    }
+
+    /**
+     * Gets the time from creation to the last marked phase.
+     *
+     * @return The total time in nanoseconds
+     */
+    public long getTotalNanos() {
+        return last - start;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (Map.Entry<String, Long> phase : phases.entrySet()) {
+            if (builder.length() > 0) {
+                builder.append(", ");
+            }
+            builder.append(phase.getKey()).append(' ').append(format(phase.getValue()));
+        }
+        return format(getTotalNanos()) + " (" + builder + ")";
+    }
+
+    private static String format(long nanos) {
+        return String.format(Locale.ROOT, "%.2f ms", nanos / 1_000_000.0);
+    }
+}
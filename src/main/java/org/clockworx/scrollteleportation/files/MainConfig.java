@@ -4,15 +4,18 @@ import org.clockworx.scrollteleportation.ScrollTeleportation;
 import org.clockworx.scrollteleportation.exceptions.DestinationInvalidException;
 import org.clockworx.scrollteleportation.storage.Scroll;
 import org.clockworx.scrollteleportation.storage.ScrollDestination;
+import org.clockworx.scrollteleportation.storage.ScrollReloadReport;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
 import org.bukkit.Location;
+import org.bukkit.Bukkit;
 import org.bukkit.Material;
+import org.bukkit.World;
 import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.InvalidConfigurationException;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.potion.PotionEffect;
-import org.bukkit.potion.PotionEffectType;
 import org.bukkit.plugin.Plugin;
 import org.clockworx.scrollteleportation.storage.ScrollStorage;
 import org.clockworx.scrollteleportation.exceptions.ScrollException;
@@ -21,8 +24,6 @@ import org.clockworx.scrollteleportation.exceptions.ScrollInvalidException;
 import java.io.File;
 import java.io.IOException;
 import java.util.*;
-import java.util.logging.Level;
-import java.util.stream.Collectors;
 
 /**
  * Handles the main configuration for the ScrollTeleportation plugin.
@@ -37,6 +38,21 @@ public class MainConfig {
     private final Map<String, String> messages;
     private ScrollStorage scrollStorage;
     private MessagesConfig messagesConfig;
+    private volatile MessageCatalog messageCatalog;
+    private volatile ConfigSnapshot snapshot = ConfigSnapshot.EMPTY;
+    private final Object configLock = new Object();
+
+    /**
+     * Edits made by commands while a reload reads the files, made again on the reloaded configuration.
+     * Guarded by configLock, like the counters below.
+     */
+    private final List<Edit> editsDuringReload = new ArrayList<>();
+    private long editCount;
+    private int reloadsInFlight;
+    private final ConfigSaver configSaver;
+    private LoadTimings lastLoadTimings;
+    private final ConfigCache configCache;
+    private Map<String, String> configMessages = Map.of();
 
     /**
      * Creates a new MainConfig instance.
@@ -46,6 +62,8 @@ public class MainConfig {
     public MainConfig(Plugin plugin) {
         this.plugin = (ScrollTeleportation) plugin;
         this.messages = new HashMap<>();
+        this.configSaver = new ConfigSaver(this.plugin, this);
+        this.configCache = new ConfigCache(this.plugin);
         loadConfig();
     }
 
@@ -55,6 +73,7 @@ public class MainConfig {
      * @return true if loading was successful, false otherwise
      */
     public boolean loadConfig() {
+        LoadTimings timings = new LoadTimings();
         try {
             if (!plugin.getDataFolder().exists()) {
                 plugin.getDataFolder().mkdir();
@@ -65,20 +84,53 @@ public class MainConfig {
             if (!configFile.exists()) {
                 plugin.saveResource("config.yml", false);
             }
-            config = YamlConfiguration.loadConfiguration(configFile);
+            File messagesFile = new File(plugin.getDataFolder(), "messages.yml");
+            if (!messagesFile.exists()) {
+                plugin.saveResource("messages.yml", false);
+            }
 
-            // Initialize messages config
-            try {
-                if (messagesConfig == null) {
-                    messagesConfig = new MessagesConfig(plugin);
-                } else {
-                    messagesConfig.reloadConfig();
+            // Skip YAML parsing entirely when neither file changed since the cache was written
+            byte[] hash = hashConfigFiles(messagesFile);
+            ConfigCache.Entry cached = hash != null ? configCache.load(hash) : null;
+            timings.mark("read cache");
+
+            if (cached != null) {
+                synchronized (configLock) {
+                    // Parsed on first use, see config()
+                    config = null;
+                }
+                snapshot = cached.getSnapshot().bindWorlds(Bukkit.getWorlds());
+                configMessages = cached.getConfigMessages();
+                messagesConfig = new MessagesConfig(plugin, cached.getLanguages());
+                timings.mark("restore cache");
+            } else {
+                config = YamlConfiguration.loadConfiguration(configFile);
+                timings.mark("parse config");
+                compileSnapshot();
+                timings.mark("compile scrolls");
+
+                // Initialize messages config
+                try {
+                    if (messagesConfig == null) {
+                        messagesConfig = new MessagesConfig(plugin);
+                    } else {
+                        messagesConfig.reloadConfig();
+                    }
+                } catch (Exception e) {
+                    plugin.getLogger().warning("Failed to load messages config: " + e.getMessage());
+                    // Continue loading even if messages fail
+                }
+                timings.mark("parse messages");
+
+                if (hash != null) {
+                    storeCache(hash, snapshot, configMessages);
                 }
-            } catch (Exception e) {
-                plugin.getLogger().warning("Failed to load messages config: " + e.getMessage());
-                // Continue loading even if messages fail
             }
 
+            // Compile all messages once so sending them doesn't parse text
+            compileMessages();
+            timings.mark("compile messages");
+
             // Initialize scroll storage after config is loaded
             try {
                 if (scrollStorage == null) {
@@ -94,7 +146,9 @@ public class MainConfig {
                 plugin.getLogger().warning("Failed to load scrolls: " + e.getMessage());
                 // Continue loading even if scrolls fail
             }
+            timings.mark("bind scrolls");
             
+            lastLoadTimings = timings;
             return true;
         } catch (Exception e) {
             plugin.getLogger().severe("Failed to load configuration: " + e.getMessage());
@@ -104,16 +158,101 @@ public class MainConfig {
     }
 
     /**
-     * Saves the current configuration to file.
+     * Gets the configuration, parsing config.yml first if it was restored from the cache.
+     *
+     * @return The configuration
      */
-    public void saveConfig() {
+    private FileConfiguration config() {
+        synchronized (configLock) {
+            if (config == null) {
+                config = YamlConfiguration.loadConfiguration(configFile);
+            }
+            return config;
+        }
+    }
+
+    /**
+     * Hashes config.yml and messages.yml to key the compiled config cache.
+     *
+     * @param messagesFile The messages.yml file
+     * @return The hash, or null if the files cannot be read
+     */
+    private byte[] hashConfigFiles(File messagesFile) {
         try {
-            config.save(configFile);
+            return ConfigCache.hash(configFile, messagesFile);
         } catch (IOException e) {
-            plugin.getLogger().log(Level.SEVERE, "Could not save config to " + configFile, e);
+            plugin.getLogger().warning("Could not hash the configuration files: " + e.getMessage());
+            return null;
         }
     }
 
+    /**
+     * Writes the compiled configuration to the cache in the background.
+     *
+     * @param hash The hash of the files it was compiled from
+     * @param compiled The compiled configuration
+     * @param compiledMessages The messages set in config.yml
+     */
+    private void storeCache(byte[] hash, ConfigSnapshot compiled, Map<String, String> compiledMessages) {
+        Map<String, Map<String, String>> languages = messagesConfig != null
+                ? messagesConfig.getAllMessages()
+                : Map.of();
+        plugin.getSchedulerAdapter().runAsync(() -> {
+            try {
+                configCache.store(hash, compiled, compiledMessages, languages);
+            } catch (IOException e) {
+                plugin.getLogger().warning("Could not write the compiled config cache: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Saves the current configuration to file.
+     * The file is written in the background once edits stop arriving,
+     * see {@link ConfigSaver}.
+     */
+    public void saveConfig() {
+        configSaver.requestSave();
+    }
+
+    /**
+     * Serializes the current configuration.
+     *
+     * @return The configuration as YAML
+     */
+    String serialize() {
+        synchronized (configLock) {
+            return config().saveToString();
+        }
+    }
+
+    /**
+     * Gets the config.yml file.
+     *
+     * @return The config file
+     */
+    File getConfigFile() {
+        return configFile;
+    }
+
+    /**
+     * Gets the phase timings of the last full configuration load.
+     *
+     * @return The timings, or null if the configuration has not loaded successfully
+     */
+    public LoadTimings getLastLoadTimings() {
+        return lastLoadTimings;
+    }
+
+    /**
+     * Gets the saver that writes config.yml.
+     *
+     * @return The ConfigSaver instance
+     */
+    public ConfigSaver getConfigSaver() {
+        return configSaver;
+    }
+
     /**
      * Reloads the configuration from file.
      */
@@ -127,7 +266,7 @@ public class MainConfig {
      * @return The FileConfiguration instance
      */
     public FileConfiguration getConfig() {
-        return config;
+        return config();
     }
 
     /**
@@ -135,6 +274,7 @@ public class MainConfig {
      */
     private void loadMessages() {
         // Check if we should use the messages.yml file
+        FileConfiguration config = config();
         String messagesFile = config.getString("messages-file");
         if (messagesFile != null && !messagesFile.isEmpty()) {
             // Use the messages from the MessagesConfig
@@ -154,6 +294,76 @@ public class MainConfig {
         }
     }
 
+    /**
+     * Compiles the configuration into a new snapshot and publishes it.
+     */
+    private void compileSnapshot() {
+        if (ensureScrollsSection(config)) {
+            saveConfig();
+        }
+        snapshot = ConfigSnapshot.compile(config, plugin.getLogger()).bindWorlds(Bukkit.getWorlds());
+        configMessages = MessageCatalog.readConfigMessages(config);
+    }
+
+    /**
+     * Recompiles the settings of a single scroll after it was changed in the configuration.
+     *
+     * @param scroll The internal name of the scroll
+     */
+    private void refreshScroll(String scroll) {
+        ConfigurationSection section = config().getConfigurationSection("Scrolls." + scroll);
+        snapshot = snapshot.withScroll(ScrollSettings.compile(scroll, section, plugin.getLogger()));
+    }
+
+    /**
+     * Gets the current configuration snapshot.
+     *
+     * @return The ConfigSnapshot instance
+     */
+    public ConfigSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Compiles the message catalog from the loaded configuration files.
+     */
+    private void compileMessages() {
+        Map<String, Map<String, String>> languages = messagesConfig != null
+                ? messagesConfig.getAllMessages()
+                : Map.of(snapshot.getLanguage(), messages);
+        String language = resolveLanguage(snapshot, languages);
+        if (messagesConfig != null) {
+            messagesConfig.setDefaultLanguage(language);
+        }
+
+        messageCatalog = MessageCatalog.compile(configMessages, languages, language, snapshot.isPerPlayerLanguage());
+    }
+
+    /**
+     * Picks the default language, falling back to English when messages.yml has no section for it.
+     *
+     * @param snapshot The configuration snapshot
+     * @param languages The messages of every language
+     * @return The language code to use as default
+     */
+    private String resolveLanguage(ConfigSnapshot snapshot, Map<String, Map<String, String>> languages) {
+        String language = snapshot.getLanguage();
+        if (languages.containsKey(language)) {
+            return language;
+        }
+        plugin.getLogger().warning("Language '" + language + "' not found in messages.yml. Keeping default language: en");
+        return "en";
+    }
+
+    /**
+     * Gets the compiled message catalog.
+     *
+     * @return The MessageCatalog instance
+     */
+    public MessageCatalog getMessageCatalog() {
+        return messageCatalog;
+    }
+
     /**
      * Gets a message by its key.
      *
@@ -212,23 +422,12 @@ public class MainConfig {
         return scrollStorage;
     }
 
-    /**
-     * Loads the configuration from the config file.
-     */
-    public void loadConfiguration() {
-        config = plugin.getConfig();
-        
-        // Set default values
-        setDefaults();
-        
-        // Save config
-        plugin.saveConfig();
-    }
-
     /**
      * Sets the default configuration values.
+     *
+     * @param config The configuration to add the defaults to
      */
-    private void setDefaults() {
+    private static void setDefaults(FileConfiguration config) {
         // Set header using the recommended approach
         config.options().setHeader(Arrays.asList(
             "Scroll Teleportation Configuration",
@@ -277,8 +476,7 @@ public class MainConfig {
      * @return The translated message
      */
     public Component getTranslatableMessage(LanguageString message) {
-        String text = config.getString(message.getConfigPath(), message.getDefaultString());
-        return Component.text(text.replace('&', '§'));
+        return messageCatalog.get(message).render();
     }
 
     /**
@@ -288,10 +486,8 @@ public class MainConfig {
      * @return The internal name of the scroll, or null if not found
      */
     public String getScroll(String scrollName) {
-        return config.getConfigurationSection("Scrolls").getKeys(false).stream()
-            .filter(key -> getScrollDisplayName(key).equalsIgnoreCase(scrollName))
-            .findFirst()
-            .orElse(null);
+        Scroll scroll = scrollStorage.getRegistry().getByDisplayName(scrollName);
+        return scroll != null ? scroll.getInternalName() : null;
     }
 
     /**
@@ -301,8 +497,8 @@ public class MainConfig {
      * @return The display name
      */
     public String getScrollDisplayName(String scroll) {
-        return config.getString("Scrolls." + scroll + ".name", scroll)
-            .replace('&', '§');
+        ScrollSettings settings = snapshot.getScroll(scroll);
+        return settings != null ? settings.getDisplayName() : scroll;
     }
 
     /**
@@ -312,7 +508,8 @@ public class MainConfig {
      * @return The delay in seconds
      */
     public int getDelay(String scroll) {
-        return config.getInt("Scrolls." + scroll + ".delay", 5);
+        ScrollSettings settings = snapshot.getScroll(scroll);
+        return settings != null ? settings.getDelay() : 5;
     }
 
     /**
@@ -322,9 +519,8 @@ public class MainConfig {
      * @return The list of lore strings
      */
     public List<String> getLoreStrings(String scroll) {
-        return config.getStringList("Scrolls." + scroll + ".lores").stream()
-            .map(text -> text.replace('&', '§'))
-            .collect(Collectors.toList());
+        ScrollSettings settings = snapshot.getScroll(scroll);
+        return settings != null ? settings.getLore() : List.of();
     }
 
     /**
@@ -334,7 +530,8 @@ public class MainConfig {
      * @return True if the destination is hidden
      */
     public boolean isDestinationHidden(String scroll) {
-        return config.getBoolean("Scrolls." + scroll + ".destination_hidden", false);
+        ScrollSettings settings = snapshot.getScroll(scroll);
+        return settings != null && settings.isDestinationHidden();
     }
 
     /**
@@ -344,7 +541,8 @@ public class MainConfig {
      * @return True if teleportation is cancelled on move
      */
     public boolean doCancelOnMove(String scroll) {
-        return config.getBoolean("Scrolls." + scroll + ".cancel_on_move", true);
+        ScrollSettings settings = snapshot.getScroll(scroll);
+        return settings == null || settings.isCancelOnMove();
     }
 
     /**
@@ -355,9 +553,11 @@ public class MainConfig {
      * @throws ScrollInvalidException if the destination is invalid
      */
     public ScrollDestination getScrollDestination(String scroll) throws ScrollInvalidException {
-        String destination = config.getString("Scrolls." + scroll + ".destination", "random");
+        ScrollSettings settings = snapshot.getScroll(scroll);
         try {
-            return ScrollDestination.createFromLocationString(destination);
+            return settings != null
+                    ? ScrollDestination.fromSpec(settings.getDestinationSpec())
+                    : ScrollDestination.createFromLocationString("random");
         } catch (ScrollException e) {
             throw new ScrollInvalidException("Invalid destination for scroll " + scroll + ": " + e.getMessage(), e);
         }
@@ -370,8 +570,8 @@ public class MainConfig {
      * @return The number of uses
      */
     public int getTotalUses(String scroll) {
-        int uses = config.getInt("Scrolls." + scroll + ".uses", 1);
-        return uses < 0 ? Scroll.SCROLL_USES_INFINITE : uses;
+        ScrollSettings settings = snapshot.getScroll(scroll);
+        return settings != null ? settings.getUses() : 1;
     }
 
     /**
@@ -380,8 +580,7 @@ public class MainConfig {
      * @return The material
      */
     public Material getScrollMaterial() {
-        String materialName = config.getString("Scroll.material", Material.PAPER.name());
-        return Material.getMaterial(materialName);
+        return snapshot.getScrollMaterial();
     }
 
     /**
@@ -391,38 +590,8 @@ public class MainConfig {
      * @return The list of potion effects
      */
     public List<PotionEffect> getEffects(String scroll) {
-        List<PotionEffect> effects = new ArrayList<>();
-
-        for (String effectString : config.getStringList("Scrolls." + scroll + ".effects")) {
-            String[] args = effectString.split(" ");
-
-            if (args.length != 2) {
-                plugin.getLogger().warning("Invalid effect format for scroll " + scroll + ": " + effectString);
-                continue;
-            }
-
-            String effectName = args[0].trim();
-            int duration;
-
-            try {
-                duration = Integer.parseInt(args[1].trim());
-            } catch (NumberFormatException e) {
-                plugin.getLogger().warning("Invalid duration for effect " + effectName + " in scroll " + scroll);
-                continue;
-            }
-
-            PotionEffectType effectType = null;
-            try {
-                effectType = org.bukkit.Registry.POTION_EFFECT_TYPE.get(org.bukkit.NamespacedKey.minecraft(effectName.toLowerCase()));
-            } catch (Exception e) {
-                plugin.getLogger().warning("Invalid effect type " + effectName + " in scroll " + scroll);
-                continue;
-            }
-
-            effects.add(new PotionEffect(effectType, duration * 20, 1));
-        }
-
-        return effects;
+        ScrollSettings settings = snapshot.getScroll(scroll);
+        return settings != null ? settings.getEffects() : List.of();
     }
 
     /**
@@ -436,27 +605,32 @@ public class MainConfig {
      * @return True if the scroll was created successfully
      */
     public boolean createNewScroll(String scroll, String scrollName, Location destination, int delay, int uses) {
-        if (config.getString("Scrolls." + scroll + ".name") != null) {
-            return false;
-        }
+        synchronized (configLock) {
+            FileConfiguration config = config();
+            if (config.getString("Scrolls." + scroll + ".name") != null) {
+                return false;
+            }
 
-        config.set("Scrolls." + scroll + ".name", scrollName);
-        config.set("Scrolls." + scroll + ".destination", 
-            destination.getWorld().getName() + ", " + destination.getBlockX() + ", " + 
-            destination.getBlockY() + ", " + destination.getBlockZ());
-        config.set("Scrolls." + scroll + ".delay", delay);
-        config.set("Scrolls." + scroll + ".destination_hidden", false);
-        config.set("Scrolls." + scroll + ".cancel_on_move", true);
-        config.set("Scrolls." + scroll + ".uses", uses);
-        config.set("Scrolls." + scroll + ".effects", new ArrayList<>());
-        config.set("Scrolls." + scroll + ".lores", Arrays.asList(
-            "<blue>This mighty and rare scroll</blue>",
-            "<blue>will teleport you</blue>",
-            "",
-            ""
-        ));
+            edit(scroll, "name", scrollName);
+            edit(scroll, "destination", 
+                destination.getWorld().getName() + ", " + destination.getBlockX() + ", " + 
+                destination.getBlockY() + ", " + destination.getBlockZ());
+            edit(scroll, "delay", delay);
+            edit(scroll, "destination_hidden", false);
+            edit(scroll, "cancel_on_move", true);
+            edit(scroll, "uses", uses);
+            edit(scroll, "effects", new ArrayList<>());
+            edit(scroll, "lores", Arrays.asList(
+                "<blue>This mighty and rare scroll</blue>",
+                "<blue>will teleport you</blue>",
+                "",
+                ""
+            ));
+
+            refreshScroll(scroll);
+        }
 
-        plugin.saveConfig();
+        saveConfig();
         return true;
     }
 
@@ -467,8 +641,7 @@ public class MainConfig {
      * @param name The new display name
      */
     public void setName(String scroll, String name) {
-        config.set("Scrolls." + scroll + ".name", name);
-        plugin.saveConfig();
+        setScrollValue(scroll, "name", name);
     }
 
     /**
@@ -482,8 +655,7 @@ public class MainConfig {
         if (delay < 0) {
             throw new ScrollInvalidException("Delay cannot be negative");
         }
-        config.set("Scrolls." + scroll + ".delay", delay);
-        plugin.saveConfig();
+        setScrollValue(scroll, "delay", delay);
     }
 
     /**
@@ -497,8 +669,7 @@ public class MainConfig {
         if (uses < Scroll.SCROLL_USES_INFINITE) {
             throw new ScrollInvalidException("Uses cannot be less than " + Scroll.SCROLL_USES_INFINITE);
         }
-        config.set("Scrolls." + scroll + ".uses", uses);
-        plugin.saveConfig();
+        setScrollValue(scroll, "uses", uses);
     }
 
     /**
@@ -508,8 +679,7 @@ public class MainConfig {
      * @param hidden Whether to hide the destination
      */
     public void setDestinationHidden(String scroll, boolean hidden) {
-        config.set("Scrolls." + scroll + ".destination_hidden", hidden);
-        plugin.saveConfig();
+        setScrollValue(scroll, "destination_hidden", hidden);
     }
 
     /**
@@ -519,8 +689,7 @@ public class MainConfig {
      * @param cancel Whether to cancel on movement
      */
     public void setCancelOnMove(String scroll, boolean cancel) {
-        config.set("Scrolls." + scroll + ".cancel_on_move", cancel);
-        plugin.saveConfig();
+        setScrollValue(scroll, "cancel_on_move", cancel);
     }
 
     /**
@@ -530,10 +699,41 @@ public class MainConfig {
      * @param location The new destination location
      */
     public void setDestination(String scroll, Location location) {
-        config.set("Scrolls." + scroll + ".destination",
+        setScrollValue(scroll, "destination",
                 location.getWorld().getName() + ", " + location.getBlockX() + ", " + 
                 location.getBlockY() + ", " + location.getBlockZ());
-        plugin.saveConfig();
+    }
+
+    /**
+     * Sets a value of a scroll, recompiles its settings and schedules a save.
+     * 
+     * @param scroll The internal name of the scroll
+     * @param key The key within the scroll's section
+     * @param value The new value
+     */
+    private void setScrollValue(String scroll, String key, Object value) {
+        synchronized (configLock) {
+            edit(scroll, key, value);
+            refreshScroll(scroll);
+        }
+        saveConfig();
+    }
+
+    /**
+     * Sets a value of a scroll in the configuration, remembering it if a reload is reading the files.
+     * Must be called while holding configLock.
+     *
+     * @param scroll The internal name of the scroll
+     * @param key The key within the scroll's section
+     * @param value The new value
+     */
+    private void edit(String scroll, String key, Object value) {
+        String path = "Scrolls." + scroll + "." + key;
+        config().set(path, value);
+        editCount++;
+        if (reloadsInFlight > 0) {
+            editsDuringReload.add(new Edit(editCount, scroll, path, value));
+        }
     }
 
     /**
@@ -542,36 +742,36 @@ public class MainConfig {
      * @return The set of scroll internal names
      */
     public Set<String> getScrollsInConfig() {
-        // First try the uppercase "Scrolls" section
-        ConfigurationSection scrollsSection = config.getConfigurationSection("Scrolls");
-        
-        // If not found, try the lowercase "scrolls" section
-        if (scrollsSection == null) {
-            scrollsSection = config.getConfigurationSection("scrolls");
-            
-            // If still not found, create a default section
-            if (scrollsSection == null) {
-                plugin.getLogger().warning("No 'Scrolls' or 'scrolls' section found in config.yml. Creating default scrolls section.");
-                config.createSection("Scrolls");
-                // Add a default scroll if none exist
-                config.set("Scrolls.spawn_scroll.name", "&6Scroll of Spawn");
-                config.set("Scrolls.spawn_scroll.lores", Arrays.asList(
-                    "&7Teleports you to spawn",
-                    "",
-                    "&7Common scroll"
-                ));
-                config.set("Scrolls.spawn_scroll.destination", "spawn world");
-                config.set("Scrolls.spawn_scroll.destination_hidden", false);
-                config.set("Scrolls.spawn_scroll.delay", 3);
-                config.set("Scrolls.spawn_scroll.cancel_on_move", true);
-                config.set("Scrolls.spawn_scroll.uses", 1);
-                config.set("Scrolls.spawn_scroll.effects", Arrays.asList("BLINDNESS 3"));
-                saveConfig();
-                return new HashSet<>(Arrays.asList("spawn_scroll"));
-            }
+        return snapshot.getScrollNames();
+    }
+
+    /**
+     * Creates a default scrolls section if the configuration has none.
+     *
+     * @param config The configuration to check
+     * @return true if the section was created
+     */
+    private boolean ensureScrollsSection(FileConfiguration config) {
+        if (ConfigSnapshot.getScrollsSection(config) != null) {
+            return false;
         }
-        
-        return scrollsSection.getKeys(false);
+
+        plugin.getLogger().warning("No 'Scrolls' or 'scrolls' section found in config.yml. Creating default scrolls section.");
+        config.createSection("Scrolls");
+        // Add a default scroll if none exist
+        config.set("Scrolls.spawn_scroll.name", "&6Scroll of Spawn");
+        config.set("Scrolls.spawn_scroll.lores", Arrays.asList(
+            "&7Teleports you to spawn",
+            "",
+            "&7Common scroll"
+        ));
+        config.set("Scrolls.spawn_scroll.destination", "spawn world");
+        config.set("Scrolls.spawn_scroll.destination_hidden", false);
+        config.set("Scrolls.spawn_scroll.delay", 3);
+        config.set("Scrolls.spawn_scroll.cancel_on_move", true);
+        config.set("Scrolls.spawn_scroll.uses", 1);
+        config.set("Scrolls.spawn_scroll.effects", Arrays.asList("BLINDNESS 3"));
+        return true;
     }
 
     /**
@@ -580,7 +780,25 @@ public class MainConfig {
      * @return True if chunks should be loaded
      */
     public boolean doLoadChunk() {
-        return config.getBoolean("Scroll.load-chunk-on-teleport");
+        return snapshot.isLoadChunkOnTeleport();
+    }
+
+    /**
+     * Gets how long a teleport waits for its destination chunk to load.
+     * 
+     * @return The timeout in milliseconds
+     */
+    public long getChunkLoadTimeout() {
+        return snapshot.getChunkLoadTimeout();
+    }
+
+    /**
+     * Gets how long a teleport waits for the server to move the player.
+     * 
+     * @return The timeout in milliseconds
+     */
+    public long getTeleportTimeout() {
+        return snapshot.getTeleportTimeout();
     }
 
     /**
@@ -590,7 +808,17 @@ public class MainConfig {
      * @return true if the world is blocked
      */
     public boolean isWorldBlocked(String worldName) {
-        return config.getStringList("blocked_worlds").contains(worldName);
+        return snapshot.isWorldBlocked(worldName);
+    }
+
+    /**
+     * Checks if a world is blocked from teleportation.
+     * 
+     * @param world The world to check
+     * @return true if the world is blocked
+     */
+    public boolean isWorldBlocked(World world) {
+        return snapshot.isWorldBlocked(world);
     }
 
     /**
@@ -600,8 +828,7 @@ public class MainConfig {
      * @return true if the location is in a blocked region
      */
     public boolean isRegionBlocked(Location location) {
-        // TODO: Implement region blocking logic
-        return false;
+        return snapshot.getBlockedRegions().contains(location);
     }
 
     /**
@@ -610,15 +837,175 @@ public class MainConfig {
      * @return true if teleportation is blocked during combat
      */
     public boolean isCombatBlocked() {
-        return config.getBoolean("block_combat_teleport", true);
+        return snapshot.isCombatBlocked();
+    }
+
+    /**
+     * Reloads the configuration on the calling thread.
+     *
+     * @throws IOException if a configuration file cannot be read
+     * @throws InvalidConfigurationException if a configuration file is not valid YAML
+     */
+    public void reload() throws IOException, InvalidConfigurationException {
+        apply(parse());
+    }
+
+    /**
+     * Reads, parses and compiles the configuration files without changing the loaded state.
+     * This only touches the files and the objects it creates, so it may run off the main thread.
+     *
+     * @return The parsed configuration, ready to be applied
+     * @throws IOException if a configuration file cannot be read
+     * @throws InvalidConfigurationException if a configuration file is not valid YAML
+     */
+    LoadedConfig parse() throws IOException, InvalidConfigurationException {
+        long editMark;
+        synchronized (configLock) {
+            reloadsInFlight++;
+            editMark = editCount;
+        }
+        boolean parsed = false;
+        try {
+            LoadedConfig loaded = read(editMark);
+            parsed = true;
+            return loaded;
+        } finally {
+            if (!parsed) {
+                synchronized (configLock) {
+                    endReload();
+                }
+            }
+        }
     }
 
     /**
-     * Reloads the configuration.
+     * Reads the files for {@link #parse()}.
+     *
+     * @param editMark The number of edits made before the files were read
+     * @return The parsed configuration
+     * @throws IOException if a configuration file cannot be read
+     * @throws InvalidConfigurationException if a configuration file is not valid YAML
      */
-    public void reload() {
-        loadConfiguration();
+    private LoadedConfig read(long editMark) throws IOException, InvalidConfigurationException {
+        // Write pending edits first so they are part of what we read back
+        configSaver.flush();
+
+        YamlConfiguration newConfig = new YamlConfiguration();
+        newConfig.load(configFile);
+        setDefaults(newConfig);
+        ensureScrollsSection(newConfig);
+
+        YamlConfiguration messagesYaml = messagesConfig != null ? messagesConfig.read() : null;
+        Map<String, Map<String, String>> languages = messagesYaml != null
+                ? MessagesConfig.readMessages(messagesYaml)
+                : Map.of(newConfig.getString("language", "en"), Map.copyOf(messages));
+
+        ConfigSnapshot newSnapshot = ConfigSnapshot.compile(newConfig, plugin.getLogger());
+        Map<String, String> newConfigMessages = MessageCatalog.readConfigMessages(newConfig);
+        String language = resolveLanguage(newSnapshot, languages);
+        MessageCatalog catalog = MessageCatalog.compile(newConfigMessages, languages, language,
+                newSnapshot.isPerPlayerLanguage());
+
+        return new LoadedConfig(newConfig, messagesYaml, language, newSnapshot, newConfigMessages, catalog,
+                editMark);
+    }
+
+    /**
+     * Forgets the edits made during reloads once none is reading the files anymore.
+     * Must be called while holding configLock.
+     */
+    private void endReload() {
+        if (--reloadsInFlight == 0) {
+            editsDuringReload.clear();
+        }
+    }
+
+    /**
+     * Publishes a parsed configuration in place of the loaded one.
+     * Edits made by commands since the files were read are made again on it.
+     * Must be called on the main thread, as it binds worlds and rebuilds the scrolls.
+     *
+     * @param loaded The parsed configuration
+     */
+    void apply(LoadedConfig loaded) {
+        ConfigSnapshot boundSnapshot = loaded.snapshot.bindWorlds(Bukkit.getWorlds());
+
+        Set<String> edited = new LinkedHashSet<>();
+        synchronized (configLock) {
+            // Edits made after the files were read are missing from them
+            for (Edit edit : editsDuringReload) {
+                if (edit.sequence > loaded.editMark) {
+                    loaded.config.set(edit.path, edit.value);
+                    edited.add(edit.scroll);
+                }
+            }
+            endReload();
+            config = loaded.config;
+        }
+        if (messagesConfig != null && loaded.messages != null) {
+            messagesConfig.apply(loaded.messages);
+            messagesConfig.setDefaultLanguage(loaded.language);
+        }
         loadMessages();
-        scrollStorage.loadScrollsFromConfig();
+        snapshot = boundSnapshot;
+        configMessages = loaded.configMessages;
+        messageCatalog = loaded.catalog;
+        if (!edited.isEmpty()) {
+            synchronized (configLock) {
+                edited.forEach(this::refreshScroll);
+            }
+            saveConfig();
+        }
+
+        if (scrollStorage != null) {
+            ScrollReloadReport report = scrollStorage.reloadScrolls();
+            if (report != null) {
+                plugin.getLogger().info("Reloaded scrolls: " + report);
+            }
+        }
+    }
+
+    /**
+     * A parsed and compiled configuration that has not been published yet.
+     */
+    static final class LoadedConfig {
+
+        private final FileConfiguration config;
+        private final YamlConfiguration messages;
+        private final String language;
+        private final ConfigSnapshot snapshot;
+        private final Map<String, String> configMessages;
+        private final MessageCatalog catalog;
+        private final long editMark;
+
+        private LoadedConfig(FileConfiguration config, YamlConfiguration messages, String language,
+                             ConfigSnapshot snapshot, Map<String, String> configMessages, MessageCatalog catalog,
+                             long editMark) {
+            this.config = config;
+            this.messages = messages;
+            this.language = language;
+            this.snapshot = snapshot;
+            this.configMessages = configMessages;
+            this.catalog = catalog;
+            this.editMark = editMark;
+        }
+    }
+
+    /**
+     * A value set by a command.
+     */
+    private static final class Edit {
+
+        private final long sequence;
+        private final String scroll;
+        private final String path;
+        private final Object value;
+
+        private Edit(long sequence, String scroll, String path, Object value) {
+            this.sequence = sequence;
+            this.scroll = scroll;
+            this.path = path;
+            this.value = value;
+        }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,231 @@
+package org.clockworx.scrollteleportation.files;
+
+import net.kyori.adventure.text.Component;
+import org.bukkit.command.CommandSender;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.entity.Player;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds every plugin message compiled into a {@link MessageTemplate}.
+ * A catalog is built once per (re)load and is immutable afterwards, so sending a
+ * message only fills in placeholder slots instead of parsing text.
+ * Each language in messages.yml gets its own template array indexed by
+ * {@link LanguageString} ordinal, and players are served the array for their client locale.
+ */
+public final class MessageCatalog {
+
+    private static final LanguageString[] LANGUAGE_STRINGS = LanguageString.values();
+
+    private final MessageTemplate[] defaultTemplates;
+    private final Map<String, MessageTemplate[]> languageTemplates;
+    private final Map<String, Map<String, MessageTemplate>> keyedTemplates;
+    private final String defaultLanguage;
+    private final boolean perPlayerLanguage;
+    private final Map<Locale, MessageTemplate[]> localeCache = new ConcurrentHashMap<>();
+
+    private MessageCatalog(MessageTemplate[] defaultTemplates, Map<String, MessageTemplate[]> languageTemplates,
+                           Map<String, Map<String, MessageTemplate>> keyedTemplates, String defaultLanguage,
+                           boolean perPlayerLanguage) {
+        this.defaultTemplates = defaultTemplates;
+        this.languageTemplates = languageTemplates;
+        this.keyedTemplates = keyedTemplates;
+        this.defaultLanguage = defaultLanguage;
+        this.perPlayerLanguage = perPlayerLanguage;
+    }
+
+    /**
+     * Compiles a catalog from the loaded configuration files.
+     * In the default language a string is taken from messages.yml if it has a key there,
+     * then from its path in config.yml, and finally from its default value.
+     * Other languages use their messages.yml entry and share the default template otherwise.
+     *
+     * @param config The main configuration, may be null
+     * @param languages The messages of every language keyed by language code, then messages.yml key
+     * @param defaultLanguage The default language code
+     * @param perPlayerLanguage Whether players get messages in their client language
+     * @return The compiled catalog
+     */
+    public static MessageCatalog compile(FileConfiguration config, Map<String, Map<String, String>> languages,
+                                         String defaultLanguage, boolean perPlayerLanguage) {
+        return compile(readConfigMessages(config), languages, defaultLanguage, perPlayerLanguage);
+    }
+
+    /**
+     * Compiles a catalog from messages that were already read from the configuration files.
+     *
+     * @param configMessages The messages set in config.yml, keyed by config path
+     * @param languages The messages of every language keyed by language code, then messages.yml key
+     * @param defaultLanguage The default language code
+     * @param perPlayerLanguage Whether players get messages in their client language
+     * @return The compiled catalog
+     */
+    public static MessageCatalog compile(Map<String, String> configMessages, Map<String, Map<String, String>> languages,
+                                         String defaultLanguage, boolean perPlayerLanguage) {
+        Map<String, Map<String, MessageTemplate>> keyed = new HashMap<>();
+        for (Map.Entry<String, Map<String, String>> language : languages.entrySet()) {
+            Map<String, MessageTemplate> templates = new HashMap<>();
+            for (Map.Entry<String, String> entry : language.getValue().entrySet()) {
+                if (entry.getValue() != null) {
+                    templates.put(entry.getKey(), MessageTemplate.compile(entry.getValue()));
+                }
+            }
+            keyed.put(normalize(language.getKey()), Collections.unmodifiableMap(templates));
+        }
+
+        String defaultCode = normalize(defaultLanguage);
+        Map<String, MessageTemplate> defaultKeyed = keyed.getOrDefault(defaultCode, Map.of());
+
+        MessageTemplate[] defaults = new MessageTemplate[LANGUAGE_STRINGS.length];
+        for (LanguageString languageString : LANGUAGE_STRINGS) {
+            MessageTemplate template = languageString.getMessageKey() != null
+                    ? defaultKeyed.get(languageString.getMessageKey())
+                    : null;
+
+            if (template == null) {
+                String configured = configMessages.get(languageString.getConfigPath());
+                template = configured != null
+                        ? MessageTemplate.compile(configured)
+                        : languageString.getDefaultTemplate();
+            }
+            defaults[languageString.ordinal()] = template;
+        }
+
+        Map<String, MessageTemplate[]> byLanguage = new HashMap<>();
+        for (Map.Entry<String, Map<String, MessageTemplate>> language : keyed.entrySet()) {
+            if (language.getKey().equals(defaultCode)) {
+                byLanguage.put(defaultCode, defaults);
+                continue;
+            }
+
+            MessageTemplate[] templates = defaults.clone();
+            for (LanguageString languageString : LANGUAGE_STRINGS) {
+                if (languageString.getMessageKey() != null) {
+                    MessageTemplate translated = language.getValue().get(languageString.getMessageKey());
+                    if (translated != null) {
+                        templates[languageString.ordinal()] = translated;
+                    }
+                }
+            }
+            byLanguage.put(language.getKey(), templates);
+        }
+
+        return new MessageCatalog(defaults, byLanguage, keyed, defaultCode, perPlayerLanguage);
+    }
+
+    /**
+     * Reads the messages set in config.yml for every language string.
+     *
+     * @param config The main configuration, may be null
+     * @return The messages keyed by config path
+     */
+    public static Map<String, String> readConfigMessages(FileConfiguration config) {
+        Map<String, String> configMessages = new HashMap<>();
+        if (config != null) {
+            for (LanguageString languageString : LANGUAGE_STRINGS) {
+                String configured = config.getString(languageString.getConfigPath());
+                if (configured != null) {
+                    configMessages.put(languageString.getConfigPath(), configured);
+                }
+            }
+        }
+        return configMessages;
+    }
+
+    /**
+     * Gets the template for a language string in the default language.
+     *
+     * @param languageString The language string
+     * @return The compiled template
+     */
+    public MessageTemplate get(LanguageString languageString) {
+        return defaultTemplates[languageString.ordinal()];
+    }
+
+    /**
+     * Gets the template for a language string in the given locale.
+     *
+     * @param languageString The language string
+     * @param locale The locale, or null for the default language
+     * @return The compiled template
+     */
+    public MessageTemplate get(LanguageString languageString, Locale locale) {
+        return templatesFor(locale)[languageString.ordinal()];
+    }
+
+    /**
+     * Gets the template for a messages.yml key in the default language.
+     *
+     * @param key The messages.yml key
+     * @return The compiled template, or null if the key does not exist
+     */
+    public MessageTemplate get(String key) {
+        Map<String, MessageTemplate> templates = keyedTemplates.get(defaultLanguage);
+        return templates != null ? templates.get(key) : null;
+    }
+
+    /**
+     * Renders a language string in the default language.
+     *
+     * @param languageString The language string
+     * @param values The placeholder values
+     * @return The rendered Component
+     */
+    public Component render(LanguageString languageString, Placeholder.Value... values) {
+        return get(languageString).render(values);
+    }
+
+    /**
+     * Renders a language string for a command sender.
+     * Players get the message in their client language when it is available.
+     *
+     * @param sender The command sender the message is for
+     * @param languageString The language string
+     * @param values The placeholder values
+     * @return The rendered Component
+     */
+    public Component render(CommandSender sender, LanguageString languageString, Placeholder.Value... values) {
+        Locale locale = sender instanceof Player player ? player.locale() : null;
+        return get(languageString, locale).render(values);
+    }
+
+    /**
+     * Gets the default language code.
+     *
+     * @return The default language code
+     */
+    public String getDefaultLanguage() {
+        return defaultLanguage;
+    }
+
+    private MessageTemplate[] templatesFor(Locale locale) {
+        if (!perPlayerLanguage || locale == null) {
+            return defaultTemplates;
+        }
+
+        MessageTemplate[] templates = localeCache.get(locale);
+        if (templates == null) {
+            templates = resolve(locale);
+            localeCache.putIfAbsent(locale, templates);
+        }
+        return templates;
+    }
+
+    private MessageTemplate[] resolve(Locale locale) {
+        // Try the full locale first (es_mx), then the language alone (es)
+        MessageTemplate[] templates = languageTemplates.get(normalize(locale.toString()));
+        if (templates == null) {
+            templates = languageTemplates.get(normalize(locale.getLanguage()));
+        }
+        return templates != null ? templates : defaultTemplates;
+    }
+
+    private static String normalize(String language) {
+        return language.toLowerCase(Locale.ROOT).replace('-', '_');
+    }
+}
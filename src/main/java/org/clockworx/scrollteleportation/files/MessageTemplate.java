@@ -0,0 +1,157 @@
+package org.clockworx.scrollteleportation.files;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.TextReplacementConfig;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * A message parsed once into a Component, with its placeholders turned into slots.
+ * Each {@code %placeholder%} becomes its own text component marked as a slot,
+ * so rendering only swaps those components for the supplied values.
+ */
+public final class MessageTemplate {
+
+    private static final MiniMessage miniMessage = MiniMessage.miniMessage();
+    private static final LegacyComponentSerializer legacySerializer = LegacyComponentSerializer.legacyAmpersand();
+    private static final Pattern LEGACY_CODE = Pattern.compile("(?<![\\p{L}\\p{N}])[&§][0-9a-fk-orA-FK-OR]");
+    private static final Pattern MINI_MESSAGE_TAG = Pattern.compile("<[a-zA-Z#/!][^<>]*>");
+    private static final Pattern PLACEHOLDER = Pattern.compile("%([a-z_]+)%");
+    private static final Placeholder[] PLACEHOLDERS = Placeholder.values();
+
+    /**
+     * Prefix of the insertion that marks a slot, followed by the placeholder key.
+     * Slots are found by this marker rather than by their text, so no message text can be taken for one.
+     */
+    private static final String SLOT_MARKER = "scrollteleportation:slot:";
+
+    private final String source;
+    private final Component component;
+    private final boolean hasSlots;
+
+    private MessageTemplate(String source, Component component, boolean hasSlots) {
+        this.source = source;
+        this.component = component;
+        this.hasSlots = hasSlots;
+    }
+
+    /**
+     * Compiles a message into a template.
+     * Messages with no MiniMessage tags are read as legacy text when they have a legacy colour code
+     * ({@code &a}) that does not follow a letter or digit, everything else as MiniMessage.
+     * An ampersand inside a word like {@code R&D} therefore does not turn a message into legacy text,
+     * though in a message that is legacy text anyway it is read as a colour code.
+     *
+     * @param source The raw message
+     * @return The compiled template
+     */
+    public static MessageTemplate compile(String source) {
+        String text = source == null ? "" : source;
+        Component parsed = LEGACY_CODE.matcher(text).find() && !MINI_MESSAGE_TAG.matcher(text).find()
+                ? legacySerializer.deserialize(text.replace('§', '&'))
+                : miniMessage.deserialize(text);
+
+        if (text.indexOf('%') < 0) {
+            return new MessageTemplate(text, parsed, false);
+        }
+
+        boolean[] found = new boolean[1];
+        TextReplacementConfig slots = TextReplacementConfig.builder()
+                .match(PLACEHOLDER)
+                .replacement((match, builder) -> {
+                    Placeholder placeholder = Placeholder.fromKey(match.group(1));
+                    if (placeholder == null) {
+                        // Unknown placeholders are left as they were written
+                        return builder;
+                    }
+                    found[0] = true;
+                    return Component.text(match.group()).insertion(SLOT_MARKER + placeholder.getKey());
+                })
+                .build();
+        Component slotted = parsed.replaceText(slots);
+
+        return new MessageTemplate(text, found[0] ? slotted : parsed, found[0]);
+    }
+
+    /**
+     * Renders the template without filling any slots.
+     * Slots are rendered as the placeholder text they were written as.
+     *
+     * @return The rendered Component
+     */
+    public Component render() {
+        return hasSlots ? render(new Placeholder.Value[0]) : component;
+    }
+
+    /**
+     * Renders the template, filling the slots with the given values.
+     *
+     * @param values The placeholder values
+     * @return The rendered Component
+     */
+    public Component render(Placeholder.Value... values) {
+        if (!hasSlots) {
+            return component;
+        }
+
+        String[] filled = new String[PLACEHOLDERS.length];
+        for (Placeholder.Value value : values) {
+            filled[value.getPlaceholder().ordinal()] = value.getText();
+        }
+        return fill(component, filled);
+    }
+
+    /**
+     * Gets the raw message this template was compiled from.
+     *
+     * @return The raw message
+     */
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * Checks if the template has any placeholder slots.
+     *
+     * @return True if the template has slots
+     */
+    public boolean hasSlots() {
+        return hasSlots;
+    }
+
+    private static Component fill(Component component, String[] values) {
+        Component result = component;
+
+        String insertion = component.insertion();
+        if (component instanceof TextComponent text && insertion != null && insertion.startsWith(SLOT_MARKER)) {
+            Placeholder placeholder = Placeholder.fromKey(insertion.substring(SLOT_MARKER.length()));
+            String value = placeholder != null ? values[placeholder.ordinal()] : null;
+            // The slot keeps the placeholder text it was written as when no value is given
+            result = (value != null ? text.content(value) : text).insertion(null);
+        }
+
+        List<Component> children = component.children();
+        if (children.isEmpty()) {
+            return result;
+        }
+
+        List<Component> filledChildren = null;
+        for (int i = 0; i < children.size(); i++) {
+            Component child = children.get(i);
+            Component filledChild = fill(child, values);
+            if (filledChild != child && filledChildren == null) {
+                filledChildren = new ArrayList<>(children.subList(0, i));
+            }
+            if (filledChildren != null) {
+                filledChildren.add(filledChild);
+            }
+        }
+
+        return filledChildren != null ? result.children(filledChildren) : result;
+    }
+}
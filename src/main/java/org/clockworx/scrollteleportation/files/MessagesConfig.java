@@ -1,6 +1,7 @@
 package org.clockworx.scrollteleportation.files;
 
 import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.InvalidConfigurationException;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
 import org.clockworx.scrollteleportation.ScrollTeleportation;
@@ -35,6 +36,20 @@ public class MessagesConfig {
         loadConfig();
     }
 
+    /**
+     * Creates a new MessagesConfig instance from messages that were already read,
+     * without parsing messages.yml. The file is parsed if it needs to be saved.
+     *
+     * @param plugin The plugin instance
+     * @param languages The messages of every language keyed by language code
+     */
+    public MessagesConfig(ScrollTeleportation plugin, Map<String, Map<String, String>> languages) {
+        this.plugin = plugin;
+        this.messages = new HashMap<>(languages);
+        this.messagesFile = new File(plugin.getDataFolder(), "messages.yml");
+        this.defaultLanguage = "en";
+    }
+
     /**
      * Loads the messages configuration from the messages.yml file.
      */
@@ -43,45 +58,65 @@ public class MessagesConfig {
             plugin.saveResource("messages.yml", false);
         }
 
-        messagesConfig = YamlConfiguration.loadConfiguration(messagesFile);
-        loadMessages();
+        apply(YamlConfiguration.loadConfiguration(messagesFile));
     }
 
     /**
-     * Loads messages from the configuration.
+     * Reads and parses the messages.yml file without changing the loaded messages.
+     * This only touches the file, so it may run off the main thread.
+     *
+     * @return The parsed messages configuration, empty if the file does not exist
+     * @throws IOException if the file cannot be read
+     * @throws InvalidConfigurationException if the file is not valid YAML
      */
-    private void loadMessages() {
-        messages.clear();
-        
-        // Load default language
-        ConfigurationSection defaultSection = messagesConfig.getConfigurationSection(defaultLanguage);
-        if (defaultSection != null) {
-            Map<String, String> defaultMessages = new HashMap<>();
-            for (String key : defaultSection.getKeys(false)) {
-                defaultMessages.put(key, defaultSection.getString(key));
-            }
-            messages.put(defaultLanguage, defaultMessages);
+    public YamlConfiguration read() throws IOException, InvalidConfigurationException {
+        YamlConfiguration yaml = new YamlConfiguration();
+        if (messagesFile.exists()) {
+            yaml.load(messagesFile);
         }
+        return yaml;
+    }
+
+    /**
+     * Replaces the loaded messages with those of a parsed messages configuration.
+     *
+     * @param yaml The parsed messages configuration
+     */
+    public void apply(YamlConfiguration yaml) {
+        messagesConfig = yaml;
+        messages.clear();
+        messages.putAll(readMessages(yaml));
+    }
 
-        // Load other languages
-        for (String lang : messagesConfig.getKeys(false)) {
-            if (!lang.equals(defaultLanguage)) {
-                ConfigurationSection langSection = messagesConfig.getConfigurationSection(lang);
-                if (langSection != null) {
-                    Map<String, String> langMessages = new HashMap<>();
-                    for (String key : langSection.getKeys(false)) {
-                        langMessages.put(key, langSection.getString(key));
-                    }
-                    messages.put(lang, langMessages);
+    /**
+     * Reads the messages of every language section.
+     *
+     * @param root The root of a messages configuration
+     * @return A map of language codes to their messages
+     */
+    public static Map<String, Map<String, String>> readMessages(ConfigurationSection root) {
+        Map<String, Map<String, String>> languages = new HashMap<>();
+        for (String lang : root.getKeys(false)) {
+            ConfigurationSection langSection = root.getConfigurationSection(lang);
+            if (langSection != null) {
+                Map<String, String> langMessages = new HashMap<>();
+                for (String key : langSection.getKeys(false)) {
+                    langMessages.put(key, langSection.getString(key));
                 }
+                languages.put(lang, langMessages);
             }
         }
+        return languages;
     }
 
     /**
      * Saves the messages configuration to the messages.yml file.
      */
     public void saveConfig() {
+        if (messagesConfig == null) {
+            // Restored from the cache and never parsed, so nothing can have changed
+            return;
+        }
         try {
             messagesConfig.save(messagesFile);
         } catch (IOException e) {
@@ -89,6 +124,15 @@ public class MessagesConfig {
         }
     }
 
+    /**
+     * Gets the messages.yml file.
+     *
+     * @return The messages file
+     */
+    public File getMessagesFile() {
+        return messagesFile;
+    }
+
     /**
      * Reloads the messages configuration.
      */
@@ -193,6 +237,19 @@ public class MessagesConfig {
         return getMessages(defaultLanguage);
     }
 
+    /**
+     * Gets all messages of every language.
+     *
+     * @return A map of language codes to their messages
+     */
+    public Map<String, Map<String, String>> getAllMessages() {
+        Map<String, Map<String, String>> copy = new HashMap<>();
+        for (Map.Entry<String, Map<String, String>> entry : messages.entrySet()) {
+            copy.put(entry.getKey(), new HashMap<>(entry.getValue()));
+        }
+        return copy;
+    }
+
     /**
      * Gets the default language code.
      *
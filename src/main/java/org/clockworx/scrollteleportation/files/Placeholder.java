@@ -0,0 +1,119 @@
+package org.clockworx.scrollteleportation.files;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Enum representing the placeholders that can appear in messages, such as {@code %player%}.
+ * Each placeholder owns a fixed slot so templates can be filled without searching the text.
+ */
+public enum Placeholder {
+
+    PLAYER("player"),
+    SCROLL("scroll"),
+    AMOUNT("amount"),
+    TIME("time"),
+    DELAY("delay"),
+    DESTINATION("destination"),
+    USES("uses"),
+    WORLD("world"),
+    COUNT("count"),
+    TOTAL("total"),
+    RATE("rate"),
+    HITS("hits"),
+    MISSES("misses"),
+    REJECTED("rejected"),
+    REJECTIONS("rejections"),
+    REGISTERED("registered"),
+    WORLDS("worlds"),
+    REFILLS("refills"),
+    FAILED("failed"),
+    TRACKED("tracked"),
+    ADDED("added"),
+    RELEASED("released"),
+    STARTED("started"),
+    SHARED("shared"),
+    USED("used"),
+    THROTTLED("throttled"),
+    REPORT("report");
+
+    private static final Map<String, Placeholder> BY_KEY = new HashMap<>();
+
+    static {
+        for (Placeholder placeholder : values()) {
+            BY_KEY.put(placeholder.key, placeholder);
+        }
+    }
+
+    private final String key;
+
+    /**
+     * Creates a new placeholder.
+     *
+     * @param key The name used between percent signs in messages
+     */
+    Placeholder(String key) {
+        this.key = key;
+    }
+
+    /**
+     * Gets the name used between percent signs in messages.
+     *
+     * @return The placeholder key
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Creates a value for this placeholder.
+     *
+     * @param value The value to fill in
+     * @return The placeholder value
+     */
+    public Value with(Object value) {
+        return new Value(this, String.valueOf(value));
+    }
+
+    /**
+     * Gets a placeholder by its key.
+     *
+     * @param key The placeholder key without percent signs
+     * @return The placeholder, or null if there is none with that key
+     */
+    public static Placeholder fromKey(String key) {
+        return BY_KEY.get(key);
+    }
+
+    /**
+     * A value to fill into a placeholder slot.
+     */
+    public static final class Value {
+
+        private final Placeholder placeholder;
+        private final String text;
+
+        private Value(Placeholder placeholder, String text) {
+            this.placeholder = placeholder;
+            this.text = text;
+        }
+
+        /**
+         * Gets the placeholder this value fills.
+         *
+         * @return The placeholder
+         */
+        public Placeholder getPlaceholder() {
+            return placeholder;
+        }
+
+        /**
+         * Gets the text to fill in.
+         *
+         * @return The text
+         */
+        public String getText() {
+            return text;
+        }
+    }
+}
@@ -0,0 +1,314 @@
+package org.clockworx.scrollteleportation.files;
+
+import org.bukkit.NamespacedKey;
+import org.bukkit.Registry;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.potion.PotionEffect;
+import org.bukkit.potion.PotionEffectType;
+import org.clockworx.scrollteleportation.exceptions.DestinationInvalidException;
+import org.clockworx.scrollteleportation.storage.DestinationSpec;
+import org.clockworx.scrollteleportation.storage.Scroll;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.logging.Logger;
+
+/**
+ * The compiled settings of a single scroll in config.yml.
+ * Instances are immutable and compare equal when the configured values are equal,
+ * so they can be read from any thread and used to detect changed definitions.
+ * Compiling only parses text, so scrolls can be compiled in parallel.
+ */
+public final class ScrollSettings {
+
+    private final String internalName;
+    private final String displayName;
+    private final List<String> lore;
+    private final String destination;
+    private final boolean destinationHidden;
+    private final int delay;
+    private final boolean cancelOnMove;
+    private final int uses;
+    private final List<String> effectSpecs;
+    private final List<PotionEffect> effects;
+    private final DestinationSpec destinationSpec;
+    private final String destinationError;
+
+    private ScrollSettings(String internalName, String displayName, List<String> lore, String destination,
+                           boolean destinationHidden, int delay, boolean cancelOnMove, int uses,
+                           List<String> effectSpecs, List<PotionEffect> effects) {
+        this.internalName = internalName;
+        this.displayName = displayName;
+        this.lore = lore;
+        this.destination = destination;
+        this.destinationHidden = destinationHidden;
+        this.delay = delay;
+        this.cancelOnMove = cancelOnMove;
+        this.uses = uses;
+        this.effectSpecs = effectSpecs;
+        this.effects = effects;
+
+        DestinationSpec spec = null;
+        String error = null;
+        try {
+            spec = DestinationSpec.parse(destination);
+        } catch (DestinationInvalidException e) {
+            error = e.getMessage();
+        }
+        this.destinationSpec = spec;
+        this.destinationError = error;
+    }
+
+    /**
+     * Compiles the settings of a scroll from its configuration section.
+     *
+     * @param internalName The internal name of the scroll
+     * @param section The scroll's configuration section, may be null
+     * @param logger The logger to report invalid values to
+     * @return The compiled settings
+     */
+    public static ScrollSettings compile(String internalName, ConfigurationSection section, Logger logger) {
+        if (section == null) {
+            return new ScrollSettings(internalName, internalName, List.of(), "random", false, 5, true, 1,
+                    List.of(), List.of());
+        }
+
+        String displayName = section.getString("name", internalName).replace('&', '§');
+
+        List<String> lore = new ArrayList<>();
+        for (String line : section.getStringList("lores")) {
+            lore.add(line.replace('&', '§'));
+        }
+
+        int uses = section.getInt("uses", 1);
+        List<String> effectSpecs = List.copyOf(section.getStringList("effects"));
+
+        return new ScrollSettings(
+                internalName,
+                displayName,
+                Collections.unmodifiableList(lore),
+                section.getString("destination", "random"),
+                section.getBoolean("destination_hidden", section.getBoolean("destination-hidden", false)),
+                section.getInt("delay", 5),
+                section.getBoolean("cancel_on_move", section.getBoolean("cancel-on-move", true)),
+                uses < 0 ? Scroll.SCROLL_USES_INFINITE : uses,
+                effectSpecs,
+                parseEffects(internalName, effectSpecs, logger));
+    }
+
+    /**
+     * Writes these settings to the compiled config cache.
+     *
+     * @param out The output to write to
+     * @throws IOException if writing fails
+     */
+    void write(DataOutputStream out) throws IOException {
+        ConfigCache.writeString(out, internalName);
+        ConfigCache.writeString(out, displayName);
+        ConfigCache.writeStringList(out, lore);
+        ConfigCache.writeString(out, destination);
+        out.writeBoolean(destinationHidden);
+        out.writeInt(delay);
+        out.writeBoolean(cancelOnMove);
+        out.writeInt(uses);
+        ConfigCache.writeStringList(out, effectSpecs);
+    }
+
+    /**
+     * Reads settings written by {@link #write(DataOutputStream)}.
+     *
+     * @param in The buffer to read from
+     * @param logger The logger to report invalid effects to
+     * @return The restored settings
+     */
+    static ScrollSettings read(ByteBuffer in, Logger logger) {
+        String internalName = ConfigCache.readString(in);
+        String displayName = ConfigCache.readString(in);
+        List<String> lore = ConfigCache.readStringList(in);
+        String destination = ConfigCache.readString(in);
+        boolean destinationHidden = in.get() != 0;
+        int delay = in.getInt();
+        boolean cancelOnMove = in.get() != 0;
+        int uses = in.getInt();
+        List<String> effectSpecs = ConfigCache.readStringList(in);
+        return new ScrollSettings(internalName, displayName, lore, destination, destinationHidden, delay,
+                cancelOnMove, uses, effectSpecs, parseEffects(internalName, effectSpecs, logger));
+    }
+
+    /**
+     * Parses effect strings in the format {@code EFFECT_NAME DURATION}.
+     *
+     * @param scroll The internal name of the scroll, for log messages
+     * @param effectSpecs The effect strings
+     * @param logger The logger to report invalid effects to
+     * @return The parsed potion effects
+     */
+    private static List<PotionEffect> parseEffects(String scroll, List<String> effectSpecs, Logger logger) {
+        List<PotionEffect> effects = new ArrayList<>(effectSpecs.size());
+
+        for (String effectString : effectSpecs) {
+            String[] args = effectString.split(" ");
+
+            if (args.length != 2) {
+                logger.warning("Invalid effect format for scroll " + scroll + ": " + effectString);
+                continue;
+            }
+
+            String effectName = args[0].trim();
+            int duration;
+
+            try {
+                duration = Integer.parseInt(args[1].trim());
+            } catch (NumberFormatException e) {
+                logger.warning("Invalid duration for effect " + effectName + " in scroll " + scroll);
+                continue;
+            }
+
+            PotionEffectType effectType = null;
+            try {
+                effectType = Registry.POTION_EFFECT_TYPE.get(NamespacedKey.minecraft(effectName.toLowerCase(Locale.ROOT)));
+            } catch (Exception e) {
+                // Reported below
+            }
+            if (effectType == null) {
+                logger.warning("Invalid effect type " + effectName + " in scroll " + scroll);
+                continue;
+            }
+
+            effects.add(new PotionEffect(effectType, duration * 20, 1));
+        }
+
+        return Collections.unmodifiableList(effects);
+    }
+
+    /**
+     * Gets the internal name of the scroll.
+     *
+     * @return The internal name
+     */
+    public String getInternalName() {
+        return internalName;
+    }
+
+    /**
+     * Gets the display name with colour codes translated.
+     *
+     * @return The display name
+     */
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * Gets the lore lines with colour codes translated.
+     *
+     * @return An unmodifiable list of lore lines
+     */
+    public List<String> getLore() {
+        return lore;
+    }
+
+    /**
+     * Gets the raw destination string.
+     *
+     * @return The destination string
+     */
+    public String getDestination() {
+        return destination;
+    }
+
+    /**
+     * Gets the parsed destination, not yet bound to a world.
+     *
+     * @return The destination spec
+     * @throws DestinationInvalidException if the destination string is invalid
+     */
+    public DestinationSpec getDestinationSpec() throws DestinationInvalidException {
+        if (destinationSpec == null) {
+            throw new DestinationInvalidException(destinationError);
+        }
+        return destinationSpec;
+    }
+
+    /**
+     * Checks if the destination is hidden.
+     *
+     * @return True if the destination is hidden
+     */
+    public boolean isDestinationHidden() {
+        return destinationHidden;
+    }
+
+    /**
+     * Gets the teleport delay in seconds.
+     *
+     * @return The delay
+     */
+    public int getDelay() {
+        return delay;
+    }
+
+    /**
+     * Checks if teleportation is cancelled on move.
+     *
+     * @return True if teleportation is cancelled on move
+     */
+    public boolean isCancelOnMove() {
+        return cancelOnMove;
+    }
+
+    /**
+     * Gets the total number of uses.
+     *
+     * @return The number of uses, or -1 if infinite
+     */
+    public int getUses() {
+        return uses;
+    }
+
+    /**
+     * Gets the raw effect strings.
+     *
+     * @return An unmodifiable list of effect strings
+     */
+    public List<String> getEffectSpecs() {
+        return effectSpecs;
+    }
+
+    /**
+     * Gets the parsed potion effects.
+     *
+     * @return An unmodifiable list of potion effects
+     */
+    public List<PotionEffect> getEffects() {
+        return effects;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ScrollSettings that = (ScrollSettings) o;
+        return destinationHidden == that.destinationHidden
+                && delay == that.delay
+                && cancelOnMove == that.cancelOnMove
+                && uses == that.uses
+                && internalName.equals(that.internalName)
+                && displayName.equals(that.displayName)
+                && lore.equals(that.lore)
+                && destination.equals(that.destination)
+                && effectSpecs.equals(that.effectSpecs);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(internalName, displayName, lore, destination, destinationHidden, delay, cancelOnMove,
+                uses, effectSpecs);
+    }
+}
@@ -1,9 +1,5 @@
 package org.clockworx.scrollteleportation.listeners;
 
-import net.kyori.adventure.text.Component;
-import net.kyori.adventure.text.format.NamedTextColor;
-import org.bukkit.Location;
-import org.bukkit.Material;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
@@ -12,16 +8,15 @@ import org.bukkit.event.block.Action;
 import org.bukkit.event.player.PlayerInteractEvent;
 import org.bukkit.inventory.EquipmentSlot;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.scheduler.BukkitTask;
 import org.clockworx.scrollteleportation.ScrollTeleportation;
+import org.clockworx.scrollteleportation.exceptions.DestinationInvalidException;
 import org.clockworx.scrollteleportation.files.LanguageString;
+import org.clockworx.scrollteleportation.files.Placeholder;
+import org.clockworx.scrollteleportation.storage.ResolvedScroll;
 import org.clockworx.scrollteleportation.storage.Scroll;
-import org.clockworx.scrollteleportation.tasks.TeleportRunnable;
+import org.clockworx.scrollteleportation.storage.ScrollItemResolver;
 import org.clockworx.scrollteleportation.teleporthandler.TeleportHandler;
 
-import java.util.Arrays;
-import java.util.List;
-import java.util.Optional;
 import java.util.logging.Level;
 
 /**
@@ -32,27 +27,8 @@ public class ActivateScrollListener implements Listener {
 
     private final ScrollTeleportation plugin;
     private final TeleportHandler teleportHandler;
-    private final List<Material> ignoredBlocks = Arrays.asList(
-            Material.CHEST,
-            Material.TRAPPED_CHEST,
-            Material.BARREL,
-            Material.FURNACE,
-            Material.BLAST_FURNACE,
-            Material.SMOKER,
-            Material.HOPPER,
-            Material.DROPPER,
-            Material.DISPENSER,
-            Material.BREWING_STAND,
-            Material.ANVIL,
-            Material.GRINDSTONE,
-            Material.STONECUTTER,
-            Material.CRAFTING_TABLE,
-            Material.ENCHANTING_TABLE,
-            Material.LECTERN,
-            Material.CARTOGRAPHY_TABLE,
-            Material.LOOM,
-            Material.SMITHING_TABLE
-    );
+    private final ScrollItemResolver resolver;
+    private final ActivationGuards guards;
 
     /**
      * Creates a new ActivateScrollListener instance.
@@ -62,119 +38,83 @@ public class ActivateScrollListener implements Listener {
     public ActivateScrollListener(ScrollTeleportation plugin) {
         this.plugin = plugin;
         this.teleportHandler = plugin.getTeleportHandler();
+        this.resolver = plugin.getScrollStorage().getItemResolver();
+        this.guards = teleportHandler.getActivationGuards();
     }
 
     /**
      * Handles player interaction events to activate scrolls.
+     * Clicks with anything but the scroll material are dropped before any other work,
+     * the remaining checks run through {@link ActivationGuards}.
      * 
      * @param event The interaction event
      */
     @EventHandler(priority = EventPriority.MONITOR)
     public void onInteract(PlayerInteractEvent event) {
-        // Only handle right-click actions with the main hand
-        if (event.getHand() != EquipmentSlot.HAND || event.getAction() != Action.RIGHT_CLICK_AIR && event.getAction() != Action.RIGHT_CLICK_BLOCK) {
-            return;
-        }
-
-        // Check if the player clicked on an ignored block
-        if (event.getAction() == Action.RIGHT_CLICK_BLOCK && event.getClickedBlock() != null) {
-            if (ignoredBlocks.contains(event.getClickedBlock().getType())) {
-                return;
-            }
-        }
-
-        Player player = event.getPlayer();
-        ItemStack item = player.getInventory().getItemInMainHand();
-
-        // Check if the item is a scroll
-        if (item == null || item.getType() != plugin.getMainConfig().getScrollMaterial() || !item.hasItemMeta()) {
-            return;
-        }
-
-        // Get the scroll from the item
-        Optional<Scroll> scrollOpt = plugin.getScrollStorage().getScrollByItemStack(item);
-        if (scrollOpt.isEmpty()) {
+        // Most clicks are not made with a scroll
+        if (event.getMaterial() != resolver.getScrollMaterial()) {
             return;
         }
 
-        Scroll scroll = scrollOpt.get();
-
-        // Check if the player has permission to use the scroll
-        if (!player.hasPermission("scrollteleportation.use." + scroll.getInternalName().toLowerCase())) {
-            player.sendMessage(Component.text("You don't have permission to use this scroll!", NamedTextColor.RED));
+        // Only handle right-click actions with the main hand
+        Action action = event.getAction();
+        if (event.getHand() != EquipmentSlot.HAND || action != Action.RIGHT_CLICK_AIR && action != Action.RIGHT_CLICK_BLOCK) {
             return;
         }
 
-        // Check if the player is already teleporting
-        if (teleportHandler.isReady(player)) {
-            teleportHandler.cancelTask(player);
-            teleportHandler.setReady(player, false);
-            player.sendMessage(Component.text("Teleportation cancelled!", NamedTextColor.RED));
+        // Check if the player clicked on an ignored block
+        if (action == Action.RIGHT_CLICK_BLOCK && event.getClickedBlock() != null
+                && guards.isIgnoredClick(event.getClickedBlock().getType())) {
             return;
         }
 
-        // Check if the player is in a blocked world
-        if (plugin.getMainConfig().isWorldBlocked(player.getWorld().getName())) {
-            player.sendMessage(Component.text("You cannot use scrolls in this world!", NamedTextColor.RED));
-            return;
-        }
+        Player player = event.getPlayer();
+        ItemStack item = player.getInventory().getItemInMainHand();
 
-        // Check if the player is in a blocked region
-        if (plugin.getMainConfig().isRegionBlocked(player.getLocation())) {
-            player.sendMessage(Component.text("You cannot use scrolls in this region!", NamedTextColor.RED));
+        // Resolve the scroll from the item, rejecting non-scroll items before reading their meta
+        ResolvedScroll resolved = resolver.resolve(item);
+        if (resolved == null) {
             return;
         }
 
-        // Check if the player is in combat
-        if (plugin.getMainConfig().isCombatBlocked() && player.hasMetadata("inCombat")) {
-            player.sendMessage(Component.text("You cannot use scrolls while in combat!", NamedTextColor.RED));
-            return;
-        }
+        Scroll scroll = resolved.getScroll();
 
-        // Check if the player is in a vehicle
-        if (player.isInsideVehicle()) {
-            player.sendMessage(Component.text("You cannot use scrolls while in a vehicle!", NamedTextColor.RED));
+        // Using a scroll again while teleporting cancels the teleport
+        if (teleportHandler.isTeleporting(player)) {
+            if (teleportHandler.cancel(player)) {
+                LanguageString.TELEPORT_CANCELLED.send(player);
+            }
             return;
         }
 
-        // Check if the player is on an ignored block
-        if (ignoredBlocks.contains(player.getLocation().getBlock().getType())) {
-            player.sendMessage(Component.text("You cannot use scrolls while standing on this block!", NamedTextColor.RED));
+        // Check permission, world, combat, vehicle, standing block and region
+        ActivationGuards.Guard rejected = guards.check(player, scroll);
+        if (rejected != null) {
+            rejected.getMessage().send(player, Placeholder.WORLD.with(player.getWorld().getName()));
             return;
         }
 
-        // Set the player as ready to be teleported
-        teleportHandler.setReady(player, true);
-
-        // Get the destination location
         try {
-            // Get the destination location
-            Location destination = scroll.getDestination().getLocation();
-            if (destination == null) {
-                player.sendMessage(Component.text("Invalid destination!", NamedTextColor.RED));
-                teleportHandler.setReady(player, false);
-                return;
-            }
+            // Resolve the destination, start loading it and schedule the teleport
+            teleportHandler.start(player, scroll, item);
 
             // Send a message to the player
             int delay = scroll.getTeleportDelay();
             if (delay > 0) {
-                player.sendMessage(Component.text("Teleporting in ", NamedTextColor.GREEN)
-                        .append(Component.text(delay, NamedTextColor.GOLD))
-                        .append(Component.text(" seconds...", NamedTextColor.GREEN)));
+                LanguageString.TELEPORTING_IN_TIME.send(player,
+                        Placeholder.TIME.with(delay), Placeholder.DELAY.with(delay));
             }
 
-            // Schedule the teleportation
-            BukkitTask task = new TeleportRunnable(plugin, destination, item, player)
-                    .runTaskLater(plugin, delay * 20L);
-            teleportHandler.setTaskID(player, task.getTaskId());
-
             // Cancel the event
             event.setCancelled(true);
+        } catch (DestinationInvalidException e) {
+            plugin.getLogger().warning("Invalid destination for scroll " + scroll.getInternalName() + ": " + e.getMessage());
+            LanguageString.INVALID_DESTINATION.send(player,
+                    Placeholder.DESTINATION.with(scroll.isDestinationHidden() ? "?" : scroll.getDestination().getLocationDescription()));
         } catch (Exception e) {
             plugin.getLogger().log(Level.SEVERE, "Failed to activate scroll for player " + player.getName(), e);
-            player.sendMessage(Component.text("An error occurred while activating the scroll!", NamedTextColor.RED));
-            teleportHandler.setReady(player, false);
+            LanguageString.ACTIVATION_ERROR.send(player);
+            teleportHandler.cancel(player);
         }
     }
 } 
\ No newline at end of file
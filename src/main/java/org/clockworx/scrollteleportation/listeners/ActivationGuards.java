@@ -0,0 +1,204 @@
+package org.clockworx.scrollteleportation.listeners;
+
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.clockworx.scrollteleportation.ScrollTeleportation;
+import org.clockworx.scrollteleportation.files.ConfigSnapshot;
+import org.clockworx.scrollteleportation.files.LanguageString;
+import org.clockworx.scrollteleportation.storage.Scroll;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The checks a player must pass before a scroll starts a teleport.
+ * The checks are compiled into an ordered chain whenever the configuration changes:
+ * checks that cannot reject anything with the loaded settings are left out, and the
+ * cheapest checks run first so most rejections never touch the world.
+ * Each check counts how many activations it rejected.
+ */
+public class ActivationGuards {
+
+    /**
+     * Blocks that open something when clicked, so clicking them with a scroll does not use it.
+     * Standing on them blocks scrolls as well.
+     */
+    public static final Set<Material> IGNORED_BLOCKS = Collections.unmodifiableSet(EnumSet.of(
+            Material.CHEST,
+            Material.TRAPPED_CHEST,
+            Material.BARREL,
+            Material.FURNACE,
+            Material.BLAST_FURNACE,
+            Material.SMOKER,
+            Material.HOPPER,
+            Material.DROPPER,
+            Material.DISPENSER,
+            Material.BREWING_STAND,
+            Material.ANVIL,
+            Material.GRINDSTONE,
+            Material.STONECUTTER,
+            Material.CRAFTING_TABLE,
+            Material.ENCHANTING_TABLE,
+            Material.LECTERN,
+            Material.CARTOGRAPHY_TABLE,
+            Material.LOOM,
+            Material.SMITHING_TABLE
+    ));
+
+    /**
+     * The checks, in the order they run.
+     */
+    public enum Guard {
+        CLICKED_BLOCK(null),
+        WORLD(LanguageString.WORLD_BLOCKED),
+        VEHICLE(LanguageString.VEHICLE_BLOCKED),
+        COMBAT(LanguageString.COMBAT_BLOCKED),
+        PERMISSION(LanguageString.NO_SCROLL_PERMISSION),
+        STANDING_BLOCK(LanguageString.STANDING_BLOCK_BLOCKED),
+        REGION(LanguageString.REGION_BLOCKED);
+
+        private final LanguageString message;
+
+        Guard(LanguageString message) {
+            this.message = message;
+        }
+
+        /**
+         * Gets the message sent to a player this check rejected.
+         *
+         * @return The message, or null if the rejection is silent
+         */
+        public LanguageString getMessage() {
+            return message;
+        }
+    }
+
+    private final ScrollTeleportation plugin;
+    private final LongAdder[] rejections = new LongAdder[Guard.values().length];
+    private volatile Chain chain;
+
+    /**
+     * Creates a new ActivationGuards instance.
+     *
+     * @param plugin The plugin instance
+     */
+    public ActivationGuards(ScrollTeleportation plugin) {
+        this.plugin = plugin;
+        for (int i = 0; i < rejections.length; i++) {
+            rejections[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Checks if a clicked block is one that scrolls leave alone.
+     *
+     * @param block The type of the clicked block
+     * @return True if the click should not use the scroll
+     */
+    public boolean isIgnoredClick(Material block) {
+        if (IGNORED_BLOCKS.contains(block)) {
+            rejections[Guard.CLICKED_BLOCK.ordinal()].increment();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Runs the checks for a player using a scroll.
+     *
+     * @param player The player
+     * @param scroll The scroll being used
+     * @return The first check that rejected the use, or null if all passed
+     */
+    public Guard check(Player player, Scroll scroll) {
+        Chain current = getChain();
+        for (Guard guard : current.guards) {
+            if (rejects(guard, current.snapshot, player, scroll)) {
+                rejections[guard.ordinal()].increment();
+                return guard;
+            }
+        }
+        return null;
+    }
+
+    private boolean rejects(Guard guard, ConfigSnapshot snapshot, Player player, Scroll scroll) {
+        return switch (guard) {
+            case CLICKED_BLOCK -> false;
+            case WORLD -> snapshot.isWorldBlocked(player.getWorld());
+            case VEHICLE -> player.isInsideVehicle();
+            case COMBAT -> player.hasMetadata("inCombat");
+            case PERMISSION -> !player.hasPermission(scroll.getUsePermission());
+            case STANDING_BLOCK -> IGNORED_BLOCKS.contains(player.getLocation().getBlock().getType());
+            case REGION -> snapshot.getBlockedRegions().contains(player.getLocation());
+        };
+    }
+
+    private Chain getChain() {
+        ConfigSnapshot snapshot = plugin.getMainConfig().getSnapshot();
+        Chain current = chain;
+        if (current == null || current.snapshot != snapshot) {
+            current = new Chain(snapshot);
+            chain = current;
+        }
+        return current;
+    }
+
+    /**
+     * Gets the checks that run with the loaded configuration, in order.
+     *
+     * @return The checks
+     */
+    public List<Guard> getActiveGuards() {
+        return List.of(getChain().guards);
+    }
+
+    /**
+     * Gets how many activations a check rejected.
+     *
+     * @param guard The check
+     * @return The rejection count
+     */
+    public long getRejections(Guard guard) {
+        return rejections[guard.ordinal()].sum();
+    }
+
+    /**
+     * Resets all counters.
+     */
+    public void resetCounters() {
+        for (LongAdder counter : rejections) {
+            counter.reset();
+        }
+    }
+
+    /**
+     * The checks compiled for one configuration snapshot.
+     */
+    private static final class Chain {
+        private final ConfigSnapshot snapshot;
+        private final Guard[] guards;
+
+        private Chain(ConfigSnapshot snapshot) {
+            this.snapshot = snapshot;
+
+            List<Guard> compiled = new ArrayList<>();
+            if (!snapshot.getBlockedWorldNames().isEmpty()) {
+                compiled.add(Guard.WORLD);
+            }
+            compiled.add(Guard.VEHICLE);
+            if (snapshot.isCombatBlocked()) {
+                compiled.add(Guard.COMBAT);
+            }
+            compiled.add(Guard.PERMISSION);
+            compiled.add(Guard.STANDING_BLOCK);
+            if (!snapshot.getBlockedRegions().isEmpty()) {
+                compiled.add(Guard.REGION);
+            }
+            this.guards = compiled.toArray(new Guard[0]);
+        }
+    }
+}
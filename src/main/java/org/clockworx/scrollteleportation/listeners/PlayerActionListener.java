@@ -0,0 +1,104 @@
+package org.clockworx.scrollteleportation.listeners;
+
+import com.destroystokyo.paper.event.player.PlayerJumpEvent;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntityToggleGlideEvent;
+import org.bukkit.event.entity.EntityToggleSwimEvent;
+import org.bukkit.event.player.PlayerToggleFlightEvent;
+import org.bukkit.event.player.PlayerToggleSneakEvent;
+import org.bukkit.event.player.PlayerToggleSprintEvent;
+import org.clockworx.scrollteleportation.ScrollTeleportation;
+import org.clockworx.scrollteleportation.files.CancelTrigger;
+import org.clockworx.scrollteleportation.teleporthandler.TeleportHandler;
+
+/**
+ * Listens for jumping, crouching, sprinting, flying and swimming to cancel teleportation.
+ * Only starting an action counts, stopping one does not cancel.
+ * It is only registered while a teleport is counting down, see {@link WarmupListeners}.
+ */
+public class PlayerActionListener implements Listener {
+
+    private final TeleportHandler teleportHandler;
+
+    /**
+     * Creates a new PlayerActionListener instance.
+     *
+     * @param plugin The plugin instance
+     */
+    public PlayerActionListener(ScrollTeleportation plugin) {
+        this.teleportHandler = plugin.getTeleportHandler();
+    }
+
+    /**
+     * Handles jumps.
+     *
+     * @param event The jump event
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onJump(PlayerJumpEvent event) {
+        teleportHandler.cancel(event.getPlayer(), CancelTrigger.JUMP);
+    }
+
+    /**
+     * Handles players starting to crouch.
+     *
+     * @param event The toggle sneak event
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onSneak(PlayerToggleSneakEvent event) {
+        if (event.isSneaking()) {
+            teleportHandler.cancel(event.getPlayer(), CancelTrigger.CROUCH);
+        }
+    }
+
+    /**
+     * Handles players starting to sprint.
+     *
+     * @param event The toggle sprint event
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onSprint(PlayerToggleSprintEvent event) {
+        if (event.isSprinting()) {
+            teleportHandler.cancel(event.getPlayer(), CancelTrigger.SPRINT);
+        }
+    }
+
+    /**
+     * Handles players starting to fly.
+     *
+     * @param event The toggle flight event
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onFly(PlayerToggleFlightEvent event) {
+        if (event.isFlying()) {
+            teleportHandler.cancel(event.getPlayer(), CancelTrigger.FLY);
+        }
+    }
+
+    /**
+     * Handles players starting to glide with elytra.
+     *
+     * @param event The toggle glide event
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onGlide(EntityToggleGlideEvent event) {
+        if (event.isGliding() && event.getEntity() instanceof Player player) {
+            teleportHandler.cancel(player, CancelTrigger.FLY);
+        }
+    }
+
+    /**
+     * Handles players starting to swim.
+     *
+     * @param event The toggle swim event
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onSwim(EntityToggleSwimEvent event) {
+        if (event.isSwimming() && event.getEntity() instanceof Player player) {
+            teleportHandler.cancel(player, CancelTrigger.SWIM);
+        }
+    }
+}
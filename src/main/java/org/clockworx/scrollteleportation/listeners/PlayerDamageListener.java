@@ -0,0 +1,54 @@
+package org.clockworx.scrollteleportation.listeners;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntityDamageByEntityEvent;
+import org.bukkit.event.entity.EntityDamageEvent;
+import org.clockworx.scrollteleportation.ScrollTeleportation;
+import org.clockworx.scrollteleportation.files.CancelTrigger;
+
+/**
+ * Listens for damage to cancel teleportation if the player is hurt or attacks.
+ * Which damage causes cancel is set by the "general.cancel-on-*-damage" settings.
+ * It is only registered while a teleport is counting down, see {@link WarmupListeners}.
+ */
+public class PlayerDamageListener implements Listener {
+
+    private final ScrollTeleportation plugin;
+
+    /**
+     * Creates a new PlayerDamageListener instance.
+     *
+     * @param plugin The plugin instance
+     */
+    public PlayerDamageListener(ScrollTeleportation plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Handles damage taken by players.
+     *
+     * @param event The damage event
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onDamage(EntityDamageEvent event) {
+        if (event.getEntity() instanceof Player player
+                && plugin.getMainConfig().getSnapshot().getCancelRules().cancelsOn(event.getCause())) {
+            plugin.getTeleportHandler().cancel(player, CancelTrigger.DAMAGE);
+        }
+    }
+
+    /**
+     * Handles damage dealt by players.
+     *
+     * @param event The damage event
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onAttack(EntityDamageByEntityEvent event) {
+        if (event.getDamager() instanceof Player player) {
+            plugin.getTeleportHandler().cancel(player, CancelTrigger.ATTACK);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package org.clockworx.scrollteleportation.listeners;
+
+import org.bukkit.event.Event;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.Action;
+import org.bukkit.event.player.PlayerInteractEntityEvent;
+import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.event.player.PlayerItemConsumeEvent;
+import org.clockworx.scrollteleportation.ScrollTeleportation;
+import org.clockworx.scrollteleportation.files.CancelTrigger;
+import org.clockworx.scrollteleportation.teleporthandler.TeleportHandler;
+
+/**
+ * Listens for interactions to cancel teleportation if the player uses a block, an entity or an item.
+ * The click that used the scroll is ignored, see {@link TeleportHandler#cancel(org.bukkit.entity.Player, CancelTrigger)}.
+ * It is only registered while a teleport is counting down, see {@link WarmupListeners}.
+ */
+public class PlayerInteractionListener implements Listener {
+
+    private final TeleportHandler teleportHandler;
+
+    /**
+     * Creates a new PlayerInteractionListener instance.
+     *
+     * @param plugin The plugin instance
+     */
+    public PlayerInteractionListener(ScrollTeleportation plugin) {
+        this.teleportHandler = plugin.getTeleportHandler();
+    }
+
+    /**
+     * Handles clicks on blocks, pressure plates and clicks into the air with an item.
+     * Cancelled events are not ignored, as clicks into the air are always called denying the block;
+     * the item and the block are checked separately instead.
+     *
+     * @param event The interact event
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onInteract(PlayerInteractEvent event) {
+        Action action = event.getAction();
+        if (action == Action.RIGHT_CLICK_AIR) {
+            if (event.hasItem() && event.useItemInHand() != Event.Result.DENY) {
+                teleportHandler.cancel(event.getPlayer(), CancelTrigger.ITEM_USE);
+            }
+        } else if (action != Action.LEFT_CLICK_AIR && event.useInteractedBlock() != Event.Result.DENY) {
+            teleportHandler.cancel(event.getPlayer(), CancelTrigger.INTERACT);
+        }
+    }
+
+    /**
+     * Handles clicks on entities.
+     *
+     * @param event The interact entity event
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInteractEntity(PlayerInteractEntityEvent event) {
+        teleportHandler.cancel(event.getPlayer(), CancelTrigger.INTERACT);
+    }
+
+    /**
+     * Handles eating and drinking.
+     *
+     * @param event The consume event
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onConsume(PlayerItemConsumeEvent event) {
+        teleportHandler.cancel(event.getPlayer(), CancelTrigger.ITEM_USE);
+    }
+}
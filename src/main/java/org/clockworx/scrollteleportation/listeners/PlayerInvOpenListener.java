@@ -1,10 +1,10 @@
 package org.clockworx.scrollteleportation.listeners;
 
 import org.clockworx.scrollteleportation.ScrollTeleportation;
-import net.kyori.adventure.text.Component;
-import net.kyori.adventure.text.format.NamedTextColor;
+import org.clockworx.scrollteleportation.files.CancelTrigger;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.inventory.InventoryOpenEvent;
 import org.bukkit.event.inventory.InventoryType;
@@ -12,6 +12,7 @@ import org.clockworx.scrollteleportation.teleporthandler.TeleportHandler;
 
 /**
  * Listens for inventory open events to handle teleportation readiness.
+ * It is only registered while a teleport is counting down, see {@link WarmupListeners}.
  */
 public class PlayerInvOpenListener implements Listener {
 
@@ -33,7 +34,7 @@ public class PlayerInvOpenListener implements Listener {
      * 
      * @param event The inventory open event
      */
-    @EventHandler
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onInventoryOpen(InventoryOpenEvent event) {
         if (!(event.getPlayer() instanceof Player)) {
             return;
@@ -45,19 +46,7 @@ public class PlayerInvOpenListener implements Listener {
             return;
         }
 
-        if (!teleportHandler.isReady(player)) {
-            return;
-        }
-
-        if (player.hasPermission("scrollteleportation.invbypass")) {
-            return;
-        }
-
         // Player has opened inventory so teleportation is cancelled
-        teleportHandler.cancelTask(player);
-        teleportHandler.setReady(player, false);
-
-        // Inform player
-        player.sendMessage(Component.text("Teleportation is cancelled because you opened an inventory.", NamedTextColor.RED));
+        teleportHandler.cancel(player, CancelTrigger.INVENTORY);
     }
 } 
\ No newline at end of file
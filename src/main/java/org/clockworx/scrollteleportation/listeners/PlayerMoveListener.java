@@ -1,25 +1,35 @@
 package org.clockworx.scrollteleportation.listeners;
 
 import org.clockworx.scrollteleportation.ScrollTeleportation;
+import org.bukkit.Location;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerMoveEvent;
+import org.clockworx.scrollteleportation.files.CancelTrigger;
 import org.clockworx.scrollteleportation.teleporthandler.TeleportHandler;
-import org.clockworx.scrollteleportation.files.LanguageString;
+import org.clockworx.scrollteleportation.teleporthandler.TeleportSession;
 
 /**
  * Listens for player movement events to cancel teleportation if the player moves.
- * This class is responsible for ensuring players stay still during the teleportation delay.
+ * This class is responsible for ensuring players stay still during the teleportation delay,
+ * and also cancels teleports of players who climb or fall if their scroll cancels on that.
+ * It is only registered while a teleport is counting down, see {@link WarmupListeners}.
  */
 public class PlayerMoveListener implements Listener {
 
+    /**
+     * How far a player must fall before it counts as falling.
+     * A jump falls about 1.25 blocks, so jumping in place does not count.
+     */
+    private static final float FALL_DISTANCE = 1.5f;
+
     private final ScrollTeleportation plugin;
 
     /**
      * Creates a new PlayerMoveListener instance.
-     * 
+     *
      * @param plugin The plugin instance
      */
     public PlayerMoveListener(ScrollTeleportation plugin) {
@@ -28,27 +38,43 @@ public class PlayerMoveListener implements Listener {
 
     /**
      * Handles player movement events.
-     * Cancels teleportation if the player moves during the teleportation delay.
-     * 
+     * Cancels teleportation if the player moves further than the configured number of blocks
+     * from where they used the scroll. Turning the head or moving within a block is ignored.
+     *
      * @param event The player move event
      */
-    @EventHandler(priority = EventPriority.MONITOR)
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onPlayerMove(PlayerMoveEvent event) {
+        if (!event.hasChangedPosition()) {
+            return;
+        }
         Player player = event.getPlayer();
 
-        // Check if player is ready to be teleported
-        if (!plugin.getTeleportHandler().isReady(player)) {
+        // Only teleports that are still counting down can be cancelled
+        TeleportHandler handler = plugin.getTeleportHandler();
+        TeleportSession session = handler.getSession(player);
+        if (session == null || !session.isWarmingUp()) {
             return;
         }
 
-        // Check if player has moved from their initial position
-        if (event.getFrom().getX() != event.getTo().getX() || 
-            event.getFrom().getY() != event.getTo().getY() || 
-            event.getFrom().getZ() != event.getTo().getZ()) {
-            
-            // Cancel teleportation
-            plugin.getTeleportHandler().setReady(player, false);
-            player.sendMessage(plugin.getMainConfig().getTranslatableMessage(LanguageString.TELEPORT_CANCELLED_MOVEMENT));
+        // Check if player has moved too far from their initial block
+        Location to = event.getTo();
+        if (event.hasChangedBlock() && session.cancelsOn(CancelTrigger.MOVE)) {
+            int tolerance = plugin.getMainConfig().getSnapshot().getMoveTolerance();
+            if (!to.getWorld().getUID().equals(session.getOriginWorld())
+                    || Math.abs(to.getBlockX() - session.getOriginX()) > tolerance
+                    || Math.abs(to.getBlockY() - session.getOriginY()) > tolerance
+                    || Math.abs(to.getBlockZ() - session.getOriginZ()) > tolerance) {
+                handler.cancel(player, CancelTrigger.MOVE);
+                return;
+            }
+        }
+
+        double rise = to.getY() - event.getFrom().getY();
+        if (rise > 0 && session.cancelsOn(CancelTrigger.CLIMB) && player.isClimbing()) {
+            handler.cancel(player, CancelTrigger.CLIMB);
+        } else if (rise < 0 && session.cancelsOn(CancelTrigger.FALL) && player.getFallDistance() > FALL_DISTANCE) {
+            handler.cancel(player, CancelTrigger.FALL);
         }
     }
-} 
\ No newline at end of file
+}
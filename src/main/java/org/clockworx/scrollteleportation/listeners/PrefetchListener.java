@@ -0,0 +1,86 @@
+package org.clockworx.scrollteleportation.listeners;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.event.player.PlayerDropItemEvent;
+import org.bukkit.event.player.PlayerItemHeldEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerSwapHandItemsEvent;
+import org.clockworx.scrollteleportation.ScrollTeleportation;
+import org.clockworx.scrollteleportation.teleporthandler.Prefetcher;
+
+/**
+ * Listens for players switching, dropping and moving items to prepare the destination of a scroll before it is used.
+ * See {@link Prefetcher} for what is prepared and when it is let go of.
+ */
+public class PrefetchListener implements Listener {
+
+    private final Prefetcher prefetcher;
+
+    /**
+     * Creates a new PrefetchListener instance.
+     *
+     * @param plugin The plugin instance
+     */
+    public PrefetchListener(ScrollTeleportation plugin) {
+        this.prefetcher = plugin.getTeleportHandler().getPrefetcher();
+    }
+
+    /**
+     * Handles players selecting another hotbar slot.
+     *
+     * @param event The item held event
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onItemHeld(PlayerItemHeldEvent event) {
+        Player player = event.getPlayer();
+        prefetcher.held(player, player.getInventory().getItem(event.getNewSlot()));
+    }
+
+    /**
+     * Handles players swapping the items in their hands.
+     *
+     * @param event The swap hand items event
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onSwapHands(PlayerSwapHandItemsEvent event) {
+        prefetcher.held(event.getPlayer(), event.getMainHandItem());
+    }
+
+    /**
+     * Handles players dropping an item, which may be the scroll they held.
+     * The dropped item has already left the inventory when the event is called.
+     *
+     * @param event The drop item event
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onDrop(PlayerDropItemEvent event) {
+        Player player = event.getPlayer();
+        prefetcher.held(player, player.getInventory().getItemInMainHand());
+    }
+
+    /**
+     * Handles players closing an inventory, in which they may have moved the scroll they held.
+     *
+     * @param event The inventory close event
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onInventoryClose(InventoryCloseEvent event) {
+        if (event.getPlayer() instanceof Player player) {
+            prefetcher.held(player, player.getInventory().getItemInMainHand());
+        }
+    }
+
+    /**
+     * Handles players leaving the server.
+     *
+     * @param event The quit event
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        prefetcher.forget(event.getPlayer());
+    }
+}
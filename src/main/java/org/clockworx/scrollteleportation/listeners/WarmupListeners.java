@@ -0,0 +1,160 @@
+package org.clockworx.scrollteleportation.listeners;
+
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.clockworx.scrollteleportation.ScrollTeleportation;
+import org.clockworx.scrollteleportation.files.CancelTrigger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Listeners that only matter while a teleport is counting down.
+ * Each listener serves some {@link CancelTrigger}s and is registered while at least one
+ * teleport that cancels on them is counting down, so events nobody is waiting for never
+ * reach the plugin. With nobody casting, none of them is registered.
+ */
+public class WarmupListeners {
+
+    private final ScrollTeleportation plugin;
+    private final List<Entry> entries = new ArrayList<>();
+    private final AtomicInteger warmups = new AtomicInteger();
+    private final AtomicIntegerArray triggerCounts = new AtomicIntegerArray(CancelTrigger.values().length);
+
+    /**
+     * Creates a new WarmupListeners instance.
+     *
+     * @param plugin The plugin instance
+     */
+    public WarmupListeners(ScrollTeleportation plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Adds a listener, registering it right away if a warmup needs it.
+     *
+     * @param listener The listener
+     * @param triggers The triggers the listener checks
+     */
+    public synchronized void add(Listener listener, CancelTrigger... triggers) {
+        Entry entry = new Entry(listener, CancelTrigger.mask(triggers));
+        entries.add(entry);
+        update(entry, getActiveMask());
+    }
+
+    /**
+     * Records that a teleport started counting down.
+     *
+     * @param mask The {@link CancelTrigger} bits the teleport cancels on
+     */
+    public void warmupStarted(int mask) {
+        warmups.incrementAndGet();
+        boolean changed = false;
+        for (CancelTrigger trigger : CancelTrigger.values()) {
+            if ((mask & trigger.bit()) != 0 && triggerCounts.incrementAndGet(trigger.ordinal()) == 1) {
+                changed = true;
+            }
+        }
+        if (changed) {
+            update();
+        }
+    }
+
+    /**
+     * Records that a teleport stopped counting down, because its delay passed or it was cancelled.
+     *
+     * @param mask The {@link CancelTrigger} bits the teleport cancels on
+     */
+    public void warmupEnded(int mask) {
+        warmups.decrementAndGet();
+        boolean changed = false;
+        for (CancelTrigger trigger : CancelTrigger.values()) {
+            if ((mask & trigger.bit()) != 0 && triggerCounts.decrementAndGet(trigger.ordinal()) == 0) {
+                changed = true;
+            }
+        }
+        if (changed) {
+            update();
+        }
+    }
+
+    private synchronized void update() {
+        // Read the counts again, another thread may have started or ended a warmup meanwhile
+        int active = getActiveMask();
+        for (Entry entry : entries) {
+            update(entry, active);
+        }
+    }
+
+    private void update(Entry entry, int active) {
+        boolean wanted = (entry.triggers & active) != 0 && plugin.isEnabled();
+        if (wanted == entry.registered) {
+            return;
+        }
+        if (wanted) {
+            plugin.getServer().getPluginManager().registerEvents(entry.listener, plugin);
+        } else {
+            HandlerList.unregisterAll(entry.listener);
+        }
+        entry.registered = wanted;
+    }
+
+    private int getActiveMask() {
+        int active = 0;
+        for (CancelTrigger trigger : CancelTrigger.values()) {
+            if (triggerCounts.get(trigger.ordinal()) > 0) {
+                active |= trigger.bit();
+            }
+        }
+        return active;
+    }
+
+    /**
+     * Gets the number of teleports counting down.
+     *
+     * @return The number of warmups
+     */
+    public int getWarmupCount() {
+        return warmups.get();
+    }
+
+    /**
+     * Gets the number of listeners that are registered.
+     *
+     * @return The number of registered listeners
+     */
+    public synchronized int getRegisteredCount() {
+        int registered = 0;
+        for (Entry entry : entries) {
+            if (entry.registered) {
+                registered++;
+            }
+        }
+        return registered;
+    }
+
+    /**
+     * Gets the number of listeners that can be registered.
+     *
+     * @return The number of listeners
+     */
+    public synchronized int getListenerCount() {
+        return entries.size();
+    }
+
+    /**
+     * A listener and the triggers it serves.
+     */
+    private static final class Entry {
+        private final Listener listener;
+        private final int triggers;
+        private boolean registered;
+
+        private Entry(Listener listener, int triggers) {
+            this.listener = listener;
+            this.triggers = triggers;
+        }
+    }
+}
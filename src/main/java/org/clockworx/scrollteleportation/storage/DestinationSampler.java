@@ -0,0 +1,129 @@
+package org.clockworx.scrollteleportation.storage;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.WorldBorder;
+import org.clockworx.scrollteleportation.exceptions.DestinationInvalidException;
+import org.clockworx.scrollteleportation.files.BlockedRegions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Picks random points for random destinations.
+ * Points are uniform over the part of the destination's disk that lies inside the world border.
+ * Chunks that are already loaded are preferred, so many teleports land where no chunk has to be
+ * loaded or generated; the number of points tried is bounded. Points in blocked regions are never picked.
+ * Only loaded chunks are looked for, as asking whether an unloaded chunk was generated reads it from disk.
+ */
+public final class DestinationSampler {
+
+    /**
+     * How far from the center random points in The End may lead when no radius is given.
+     * Past the main island the dimension is mostly void.
+     */
+    private static final int END_ISLAND_RADIUS = 100;
+
+    private DestinationSampler() {
+    }
+
+    /**
+     * Picks a world for random destinations that may lead to any world.
+     * Overworlds are preferred, since players can land almost anywhere in them.
+     *
+     * @param worlds The loaded worlds
+     * @return A random world
+     * @throws DestinationInvalidException if no world is loaded
+     */
+    public static World pickWorld(List<World> worlds) throws DestinationInvalidException {
+        List<World> candidates = new ArrayList<>(worlds.size());
+        for (World world : worlds) {
+            if (world.getEnvironment() == World.Environment.NORMAL) {
+                candidates.add(world);
+            }
+        }
+        if (candidates.isEmpty()) {
+            candidates = worlds;
+        }
+        if (candidates.isEmpty()) {
+            throw new DestinationInvalidException("No worlds available for random location");
+        }
+        return candidates.get(ThreadLocalRandom.current().nextInt(candidates.size()));
+    }
+
+    /**
+     * Picks a random point in a world, around the center of its border.
+     *
+     * @param world The world
+     * @param radius The largest distance from the center
+     * @param attempts How many points to try before settling for one whose chunk is not loaded
+     * @param blocked The regions no point may lie in
+     * @return The point, at the center of its block at sea level
+     * @throws DestinationInvalidException if no point inside the border was found
+     */
+    public static Location sampleWorld(World world, int radius, int attempts, BlockedRegions blocked)
+            throws DestinationInvalidException {
+        if (world.getEnvironment() == World.Environment.THE_END) {
+            return sample(world, 0, 0, Math.min(radius, END_ISLAND_RADIUS), attempts, blocked);
+        }
+        Location center = world.getWorldBorder().getCenter();
+        return sample(world, center.getX(), center.getZ(), radius, attempts, blocked);
+    }
+
+    /**
+     * Picks a random point within a distance of a center.
+     *
+     * @param world The world
+     * @param centerX The X coordinate of the center
+     * @param centerZ The Z coordinate of the center
+     * @param radius The largest distance from the center
+     * @param attempts How many points to try before settling for one whose chunk is not loaded
+     * @param blocked The regions no point may lie in
+     * @return The point, at the center of its block at sea level
+     * @throws DestinationInvalidException if no point inside the border was found
+     */
+    public static Location sample(World world, double centerX, double centerZ, double radius, int attempts,
+                                  BlockedRegions blocked) throws DestinationInvalidException {
+        WorldBorder border = world.getWorldBorder();
+        Location borderCenter = border.getCenter();
+        double half = border.getSize() / 2;
+
+        // Sample the box around the disk that lies inside the border, so the border never wastes attempts
+        double minX = Math.max(centerX - radius, borderCenter.getX() - half);
+        double maxX = Math.min(centerX + radius, borderCenter.getX() + half);
+        double minZ = Math.max(centerZ - radius, borderCenter.getZ() - half);
+        double maxZ = Math.min(centerZ + radius, borderCenter.getZ() + half);
+        if (minX >= maxX || minZ >= maxZ) {
+            throw new DestinationInvalidException("Random destination lies outside the world border of "
+                    + world.getName());
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double radiusSquared = radius * radius;
+        Location fallback = null;
+        for (int i = 0; i < attempts; i++) {
+            double x = random.nextDouble(minX, maxX);
+            double z = random.nextDouble(minZ, maxZ);
+            double dx = x - centerX;
+            double dz = z - centerZ;
+            if (dx * dx + dz * dz > radiusSquared || blocked.containsColumn(world, x, z)) {
+                continue;
+            }
+
+            Location point = new Location(world, Math.floor(x) + 0.5, world.getSeaLevel(), Math.floor(z) + 0.5);
+            if (world.isChunkLoaded(point.getBlockX() >> 4, point.getBlockZ() >> 4)) {
+                return point;
+            }
+            if (fallback == null) {
+                fallback = point;
+            }
+        }
+
+        if (fallback == null) {
+            throw new DestinationInvalidException("No random point found within " + (int) radius
+                    + " blocks in " + world.getName());
+        }
+        return fallback;
+    }
+}
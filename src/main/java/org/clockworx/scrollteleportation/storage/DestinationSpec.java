@@ -0,0 +1,211 @@
+package org.clockworx.scrollteleportation.storage;
+
+import org.clockworx.scrollteleportation.exceptions.DestinationInvalidException;
+
+/**
+ * A parsed destination string that is not yet bound to a world.
+ * Parsing only looks at the string, so specs can be built on any thread;
+ * {@link ScrollDestination#fromSpec(DestinationSpec)} resolves the world on the main thread.
+ */
+public final class DestinationSpec {
+
+    private final String source;
+    private final ScrollDestination.DestinationType type;
+    private final String worldName;
+    private final int x;
+    private final int y;
+    private final int z;
+    private final int range;
+
+    private DestinationSpec(String source, ScrollDestination.DestinationType type, String worldName,
+                            int x, int y, int z, int range) {
+        this.source = source;
+        this.type = type;
+        this.worldName = worldName;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.range = range;
+    }
+
+    /**
+     * Parses a location string.
+     *
+     * @param locationString The location string
+     * @return The parsed spec
+     * @throws DestinationInvalidException if the location string is invalid
+     */
+    public static DestinationSpec parse(String locationString) throws DestinationInvalidException {
+        if (locationString == null || locationString.trim().isEmpty()) {
+            throw new DestinationInvalidException("Location string cannot be null or empty");
+        }
+
+        String source = locationString.trim().toLowerCase();
+
+        // Check for spawn location format
+        if (source.contains("spawn")) {
+            return parseSpawn(source);
+        }
+
+        // Check for random location format
+        if (source.startsWith("random")) {
+            return source.contains("radius") ? parseRandomRadius(source) : parseRandom(source);
+        }
+
+        // Check if it's a fixed location format (world, x, y, z)
+        if (source.contains(",")) {
+            return parseFixed(source);
+        }
+
+        // Named locations other than spawn are not supported
+        if (source.contains(" ")) {
+            throw new DestinationInvalidException("Unknown fixed name location: " + source);
+        }
+
+        // If we get here, assume it's a fixed location format
+        return parseFixed(source);
+    }
+
+    private static DestinationSpec parseSpawn(String source) throws DestinationInvalidException {
+        String[] params = source.split(" ");
+        if (params.length < 2) {
+            throw new DestinationInvalidException("Spawn location must specify a world");
+        }
+
+        // Handle both "spawn world" and "world spawn" formats
+        String worldName = params[0].equals("spawn") ? params[1] : params[0];
+        return new DestinationSpec(source, ScrollDestination.DestinationType.SPAWN, worldName, 0, 0, 0, 0);
+    }
+
+    private static DestinationSpec parseRandom(String source) throws DestinationInvalidException {
+        // For "random" without a world specified, use any world
+        if (source.equals("random")) {
+            return new DestinationSpec(source, ScrollDestination.DestinationType.RANDOM, null, 0, 0, 0, 0);
+        }
+
+        // For "random world" format
+        String[] params = source.split(" ");
+        if (params.length < 2) {
+            throw new DestinationInvalidException("Random location must specify a world");
+        }
+        return new DestinationSpec(source, ScrollDestination.DestinationType.RANDOM, params[1], 0, 0, 0, 0);
+    }
+
+    private static DestinationSpec parseRandomRadius(String source) throws DestinationInvalidException {
+        if (!source.contains("point")) {
+            throw new DestinationInvalidException("No point specified in random radius location");
+        }
+
+        // Extract point and radius from format: random_radius(point=world,x,y,z radius=1000)
+        String info = source.replaceAll(".*\\(|\\).*", "");
+        String[] args = info.split(" ");
+
+        if (args.length != 2) {
+            throw new DestinationInvalidException("Invalid random radius format: " + source);
+        }
+
+        String point = args[0].contains("point=") ? args[0].replace("point=", "") : args[1].replace("point=", "");
+        String radiusStr = args[0].contains("radius=") ? args[0].replace("radius=", "") : args[1].replace("radius=", "");
+
+        int range;
+        try {
+            range = Integer.parseInt(radiusStr);
+        } catch (NumberFormatException e) {
+            throw new DestinationInvalidException("Invalid radius: " + radiusStr);
+        }
+        if (range <= 0) {
+            throw new DestinationInvalidException("Radius must be greater than 0: " + radiusStr);
+        }
+
+        String[] pointInfo = point.split(",");
+        if (pointInfo.length != 4) {
+            throw new DestinationInvalidException("Invalid point format: " + point);
+        }
+
+        try {
+            return new DestinationSpec(source, ScrollDestination.DestinationType.RANDOM_IN_RANGE, pointInfo[0],
+                    Integer.parseInt(pointInfo[1]), Integer.parseInt(pointInfo[2]), Integer.parseInt(pointInfo[3]),
+                    range);
+        } catch (NumberFormatException e) {
+            throw new DestinationInvalidException("Invalid coordinates in point: " + point);
+        }
+    }
+
+    private static DestinationSpec parseFixed(String source) throws DestinationInvalidException {
+        String[] args = source.split(",");
+        if (args.length != 4) {
+            throw new DestinationInvalidException("Fixed location must be in format: world,x,y,z");
+        }
+
+        try {
+            return new DestinationSpec(source, ScrollDestination.DestinationType.FIXED_LOCATION, args[0].trim(),
+                    Integer.parseInt(args[1].trim()), Integer.parseInt(args[2].trim()),
+                    Integer.parseInt(args[3].trim()), 0);
+        } catch (NumberFormatException e) {
+            throw new DestinationInvalidException("Invalid coordinates in fixed location: " + source);
+        }
+    }
+
+    /**
+     * Gets the normalized location string this spec was parsed from.
+     *
+     * @return The location string
+     */
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * Gets the destination type.
+     *
+     * @return The destination type
+     */
+    public ScrollDestination.DestinationType getType() {
+        return type;
+    }
+
+    /**
+     * Gets the name of the destination world.
+     *
+     * @return The world name, or null if any world may be used
+     */
+    public String getWorldName() {
+        return worldName;
+    }
+
+    /**
+     * Gets the X coordinate of fixed and random radius destinations.
+     *
+     * @return The X coordinate
+     */
+    public int getX() {
+        return x;
+    }
+
+    /**
+     * Gets the Y coordinate of fixed and random radius destinations.
+     *
+     * @return The Y coordinate
+     */
+    public int getY() {
+        return y;
+    }
+
+    /**
+     * Gets the Z coordinate of fixed and random radius destinations.
+     *
+     * @return The Z coordinate
+     */
+    public int getZ() {
+        return z;
+    }
+
+    /**
+     * Gets the radius of random radius destinations.
+     *
+     * @return The range
+     */
+    public int getRange() {
+        return range;
+    }
+}
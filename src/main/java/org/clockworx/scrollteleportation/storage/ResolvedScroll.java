@@ -0,0 +1,62 @@
+package org.clockworx.scrollteleportation.storage;
+
+/**
+ * The result of recognising a scroll item.
+ * Carries the loaded scroll together with the use counters read from the item,
+ * so callers do not need to read the item meta again.
+ */
+public final class ResolvedScroll {
+
+    private final Scroll scroll;
+    private final int currentUses;
+    private final int totalUses;
+
+    /**
+     * Creates a new ResolvedScroll instance.
+     *
+     * @param scroll The loaded scroll the item belongs to
+     * @param currentUses The uses left on the item
+     * @param totalUses The total uses stored on the item
+     */
+    public ResolvedScroll(Scroll scroll, int currentUses, int totalUses) {
+        this.scroll = scroll;
+        this.currentUses = currentUses;
+        this.totalUses = totalUses;
+    }
+
+    /**
+     * Gets the loaded scroll the item belongs to.
+     *
+     * @return The scroll
+     */
+    public Scroll getScroll() {
+        return scroll;
+    }
+
+    /**
+     * Gets the uses left on the item.
+     *
+     * @return The current uses, or -1 if infinite
+     */
+    public int getCurrentUses() {
+        return currentUses;
+    }
+
+    /**
+     * Gets the total uses stored on the item.
+     *
+     * @return The total uses, or -1 if infinite
+     */
+    public int getTotalUses() {
+        return totalUses;
+    }
+
+    /**
+     * Checks if the item has infinite uses.
+     *
+     * @return True if the item has infinite uses
+     */
+    public boolean isInfinite() {
+        return currentUses == Scroll.SCROLL_USES_INFINITE;
+    }
+}
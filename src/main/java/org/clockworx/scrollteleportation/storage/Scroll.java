@@ -10,12 +10,15 @@ import org.bukkit.NamespacedKey;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.permissions.Permission;
+import org.bukkit.permissions.PermissionDefault;
 import org.bukkit.persistence.PersistentDataType;
 import org.bukkit.potion.PotionEffect;
 import org.clockworx.scrollteleportation.exceptions.ScrollInvalidException;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.logging.Level;
@@ -33,6 +36,7 @@ public class Scroll {
     private static final MiniMessage miniMessage = MiniMessage.miniMessage();
 
     private String internalName;
+    private Permission usePermission;
     private String displayName;
     private List<String> descriptionLore = new ArrayList<>();
     private boolean destinationHidden = false;
@@ -42,6 +46,7 @@ public class Scroll {
     private List<PotionEffect> effects = new ArrayList<>();
     private ScrollDestination destination;
     private Material material = Material.PAPER;
+    private volatile ItemStack template;
 
     /**
      * Creates a new scroll with the given internal name.
@@ -73,6 +78,18 @@ public class Scroll {
             throw new ScrollInvalidException("Internal name cannot be null or empty");
         }
         this.internalName = internalName;
+        this.usePermission = new Permission("scrollteleportation.use." + internalName.toLowerCase(Locale.ROOT), PermissionDefault.OP);
+        invalidateTemplate();
+    }
+
+    /**
+     * Gets the permission needed to use the scroll.
+     * It is built once per name so using a scroll does not build the permission string each time.
+     * 
+     * @return The use permission
+     */
+    public Permission getUsePermission() {
+        return usePermission;
     }
 
     /**
@@ -95,6 +112,7 @@ public class Scroll {
             throw new ScrollInvalidException("Display name cannot be null or empty");
         }
         this.displayName = displayName;
+        invalidateTemplate();
     }
 
     /**
@@ -117,6 +135,7 @@ public class Scroll {
             throw new ScrollInvalidException("Lore cannot be null");
         }
         this.descriptionLore = new ArrayList<>(lore);
+        invalidateTemplate();
     }
 
     /**
@@ -135,6 +154,7 @@ public class Scroll {
      */
     public void setDestinationHidden(boolean destinationHidden) {
         this.destinationHidden = destinationHidden;
+        invalidateTemplate();
     }
 
     /**
@@ -197,6 +217,7 @@ public class Scroll {
             throw new ScrollInvalidException("Uses cannot be less than " + SCROLL_USES_INFINITE);
         }
         this.uses = uses;
+        invalidateTemplate();
     }
 
     /**
@@ -254,6 +275,7 @@ public class Scroll {
             throw new ScrollInvalidException("Destination cannot be null");
         }
         this.destination = destination;
+        invalidateTemplate();
     }
 
     /**
@@ -276,6 +298,7 @@ public class Scroll {
             throw new ScrollInvalidException("Material cannot be null");
         }
         this.material = material;
+        invalidateTemplate();
     }
 
     /**
@@ -284,6 +307,50 @@ public class Scroll {
      * @return The ItemStack
      */
     public ItemStack getItemStack() {
+        return getItemStack(1);
+    }
+
+    /**
+     * Creates a stack of items representing this scroll.
+     * The item is cloned from a template that is built once per scroll definition,
+     * so only the amount is set per call.
+     * 
+     * @param amount The number of scrolls in the stack
+     * @return The ItemStack
+     */
+    public ItemStack getItemStack(int amount) {
+        ItemStack cached = template;
+        if (cached == null) {
+            synchronized (this) {
+                cached = template;
+                if (cached == null) {
+                    cached = buildItemStack();
+                    template = cached;
+                }
+            }
+        }
+
+        ItemStack item = cached.clone();
+        if (amount != 1) {
+            item.setAmount(amount);
+        }
+        return item;
+    }
+
+    /**
+     * Discards the cached item template.
+     * The template is rebuilt on the next call to {@link #getItemStack()}.
+     */
+    public void invalidateTemplate() {
+        template = null;
+    }
+
+    /**
+     * Builds the template ItemStack for this scroll.
+     * 
+     * @return The template ItemStack
+     */
+    private ItemStack buildItemStack() {
         ItemStack item = new ItemStack(this.getMaterial(), 1);
         ItemMeta im = item.getItemMeta();
         
@@ -321,17 +388,15 @@ public class Scroll {
         // Set lore
         im.lore(loreComponents);
 
-        // Create namespaced keys
-        NamespacedKey internalNameKey = new NamespacedKey(ScrollTeleportation.getInstance(), KEY_INTERNAL_NAME);
-        NamespacedKey totalUsesKey = new NamespacedKey(ScrollTeleportation.getInstance(), KEY_TOTAL_USES);
-        NamespacedKey currentUsesKey = new NamespacedKey(ScrollTeleportation.getInstance(), KEY_CURRENT_USES);
+        // Use the pre-built namespaced keys
+        ScrollItemResolver resolver = ScrollTeleportation.getInstance().getScrollStorage().getItemResolver();
 
         // Store the internal name in the itemstack
-        im.getPersistentDataContainer().set(internalNameKey, PersistentDataType.STRING, this.getInternalName());
+        im.getPersistentDataContainer().set(resolver.getInternalNameKey(), PersistentDataType.STRING, this.getInternalName());
 
         // Store the uses of the scroll
-        im.getPersistentDataContainer().set(totalUsesKey, PersistentDataType.INTEGER, this.getUses());
-        im.getPersistentDataContainer().set(currentUsesKey, PersistentDataType.INTEGER, this.getUses());
+        im.getPersistentDataContainer().set(resolver.getTotalUsesKey(), PersistentDataType.INTEGER, this.getUses());
+        im.getPersistentDataContainer().set(resolver.getCurrentUsesKey(), PersistentDataType.INTEGER, this.getUses());
 
         // Set ItemMeta
         item.setItemMeta(im);
@@ -357,15 +422,12 @@ public class Scroll {
      * @return True if the ItemStack has the persistent data
      */
     public static boolean hasPersistentData(ItemStack stack, String keyString, PersistentDataType dataType) {
-        ScrollTeleportation plugin = ScrollTeleportation.getInstance();
+        ScrollItemResolver resolver = ScrollTeleportation.getInstance().getScrollStorage().getItemResolver();
 
-        if (stack == null) return false;
-        if (stack.getType() != plugin.getMainConfig().getScrollMaterial()) return false;
-        if (!stack.hasItemMeta()) return false;
-        if (stack.getItemMeta() == null) return false;
+        if (!resolver.isScrollMaterial(stack) || !stack.hasItemMeta()) return false;
 
-        NamespacedKey key = new NamespacedKey(plugin, keyString);
-        return stack.getItemMeta().getPersistentDataContainer().has(key, dataType);
+        ItemMeta meta = stack.getItemMeta();
+        return meta != null && meta.getPersistentDataContainer().has(resolver.getKey(keyString), dataType);
     }
     
     /**
@@ -375,14 +437,17 @@ public class Scroll {
      * @return The current number of uses, or -1 if infinite
      */
     public static int getCurrentUses(ItemStack stack) {
-        ScrollTeleportation plugin = ScrollTeleportation.getInstance();
-        
-        if (stack == null || !stack.hasItemMeta() || stack.getItemMeta() == null) {
+        if (stack == null || !stack.hasItemMeta()) {
+            return 0;
+        }
+
+        ItemMeta meta = stack.getItemMeta();
+        if (meta == null) {
             return 0;
         }
         
-        NamespacedKey key = new NamespacedKey(plugin, KEY_CURRENT_USES);
-        return stack.getItemMeta().getPersistentDataContainer().getOrDefault(key, PersistentDataType.INTEGER, 0);
+        NamespacedKey key = ScrollTeleportation.getInstance().getScrollStorage().getItemResolver().getCurrentUsesKey();
+        return meta.getPersistentDataContainer().getOrDefault(key, PersistentDataType.INTEGER, 0);
     }
     
     /**
@@ -393,14 +458,16 @@ public class Scroll {
      * @return The updated ItemStack
      */
     public static ItemStack setCurrentUses(ItemStack stack, int uses) {
-        ScrollTeleportation plugin = ScrollTeleportation.getInstance();
-        
-        if (stack == null || !stack.hasItemMeta() || stack.getItemMeta() == null) {
+        if (stack == null || !stack.hasItemMeta()) {
             return stack;
         }
         
         ItemMeta meta = stack.getItemMeta();
-        NamespacedKey key = new NamespacedKey(plugin, KEY_CURRENT_USES);
+        if (meta == null) {
+            return stack;
+        }
+
+        NamespacedKey key = ScrollTeleportation.getInstance().getScrollStorage().getItemResolver().getCurrentUsesKey();
         meta.getPersistentDataContainer().set(key, PersistentDataType.INTEGER, uses);
         stack.setItemMeta(meta);
         
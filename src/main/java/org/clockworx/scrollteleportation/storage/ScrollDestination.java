@@ -3,17 +3,14 @@ package org.clockworx.scrollteleportation.storage;
 
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
-import org.bukkit.Material;
 import org.bukkit.World;
-import org.bukkit.block.Block;
 import org.bukkit.configuration.ConfigurationSection;
 import org.clockworx.scrollteleportation.ScrollTeleportation;
+import org.clockworx.scrollteleportation.files.ConfigSnapshot;
+import org.clockworx.scrollteleportation.files.LandingRules;
 import org.clockworx.scrollteleportation.files.LanguageString;
 import org.clockworx.scrollteleportation.exceptions.DestinationInvalidException;
 
-import java.util.List;
-
-import java.util.Random;
 import java.util.logging.Level;
 
 /**
@@ -27,7 +24,6 @@ public class ScrollDestination {
     private DestinationType type;
     private Location location;
     private int range;
-    private final Random random;
     private String locationString;
 
     /**
@@ -45,7 +41,6 @@ public class ScrollDestination {
         this.type = type;
         this.location = location;
         this.range = range;
-        this.random = new Random();
     }
 
     private ScrollDestination() {
@@ -54,7 +49,6 @@ public class ScrollDestination {
         this.location = null;
         this.range = 0;
         this.name = "";
-        this.random = new Random();
     }
 
     /**
@@ -72,6 +66,9 @@ public class ScrollDestination {
 
         Location location = null;
         int range = section.getInt("range", 100);
+        if (type == DestinationType.RANDOM_IN_RANGE && range <= 0) {
+            throw new DestinationInvalidException("Radius must be greater than 0: " + range);
+        }
 
         if (type == DestinationType.FIXED_LOCATION) {
             String worldName = section.getString("world");
@@ -104,70 +101,55 @@ public class ScrollDestination {
      * @throws DestinationInvalidException if the destination is invalid
      */
     public static ScrollDestination createFromLocationString(String locationString) throws DestinationInvalidException {
-        if (locationString == null || locationString.trim().isEmpty()) {
-            throw new DestinationInvalidException("Location string cannot be null or empty");
-        }
-
-        locationString = locationString.trim().toLowerCase();
-        // Store the original location string in the destination object later
-
-        // Check for spawn location format
-        if (locationString.contains("spawn")) {
-            ScrollDestination destination = new ScrollDestination();
-            destination.type = DestinationType.SPAWN;
-            destination.locationString = locationString; // Store the original location string
-            destination.setupSpawnLocation(locationString);
-            return destination;
-        }
+        return fromSpec(DestinationSpec.parse(locationString));
+    }
 
-        // Check for random location format
-        if (locationString.startsWith("random")) {
-            ScrollDestination destination = new ScrollDestination();
-            destination.type = DestinationType.RANDOM;
-            destination.locationString = locationString; // Store the original location string
-            if (locationString.contains("radius")) {
-                destination.type = DestinationType.RANDOM_IN_RANGE;
-                destination.setupRandomRadiusLocation(locationString);
-            } else {
-                destination.type = DestinationType.RANDOM;
-                destination.setupRandomLocation(locationString);
+    /**
+     * Creates a ScrollDestination from a parsed location string.
+     * Looks up the destination world, so this must run on the main thread.
+     * 
+     * @param spec The parsed location string
+     * @return The created ScrollDestination
+     * @throws DestinationInvalidException if the destination world is not loaded
+     */
+    public static ScrollDestination fromSpec(DestinationSpec spec) throws DestinationInvalidException {
+        ScrollDestination destination = new ScrollDestination();
+        destination.type = spec.getType();
+        destination.locationString = spec.getSource();
+        destination.range = spec.getRange();
+
+        switch (spec.getType()) {
+            case SPAWN -> destination.location = requireWorld(spec.getWorldName()).getSpawnLocation();
+            case RANDOM -> {
+                // The actual random location, and the world if none is given, is picked each time a target is requested
+                if (spec.getWorldName() != null) {
+                    destination.location = requireWorld(spec.getWorldName()).getSpawnLocation();
+                }
             }
-            return destination;
-        }
-
-        // Check if it's a fixed location format (world, x, y, z)
-        if (locationString.contains(",")) {
-            ScrollDestination destination = new ScrollDestination();
-            destination.type = DestinationType.FIXED_LOCATION;
-            destination.locationString = locationString; // Store the original location string
-            destination.setupFixedLocation(locationString);
-            return destination;
+            case RANDOM_IN_RANGE, FIXED_LOCATION -> destination.location = new Location(
+                    requireWorld(spec.getWorldName()), spec.getX(), spec.getY(), spec.getZ());
+            case FIXED_NAME -> throw new DestinationInvalidException("Unknown fixed name location: " + spec.getSource());
         }
+        return destination;
+    }
 
-        // Check for fixed name location format
-        if (locationString.contains(" ")) {
-            ScrollDestination destination = new ScrollDestination();
-            destination.type = DestinationType.FIXED_NAME;
-            destination.locationString = locationString; // Store the original location string
-            destination.setupFixedNameLocation(locationString);
-            return destination;
+    private static World requireWorld(String worldName) throws DestinationInvalidException {
+        World world = Bukkit.getWorld(worldName);
+        if (world == null) {
+            throw new DestinationInvalidException("World not found: " + worldName);
         }
-
-        // If we get here, assume it's a fixed location format
-        ScrollDestination destination = new ScrollDestination();
-        destination.type = DestinationType.FIXED_LOCATION;
-        destination.locationString = locationString; // Store the original location string
-        destination.setupFixedLocation(locationString);
-        return destination;
+        return world;
     }
 
     /**
-     * Gets the location for this destination.
-     * For random destinations, this will generate a new random location.
+     * Picks the point this destination leads to without reading any blocks.
+     * For random destinations, this will generate a new random point. The player lands
+     * on a safe spot near it, picked once its chunk is loaded.
      * 
-     * @return The location for this destination
+     * @return The target point
+     * @throws DestinationInvalidException if no target can be picked
      */
-    public Location getLocation() throws DestinationInvalidException {
+    public Location getTargetLocation() throws DestinationInvalidException {
         Location result = switch (type) {
             case FIXED_LOCATION -> location;
             case RANDOM -> getRandomLocation();
@@ -180,39 +162,36 @@ public class ScrollDestination {
             throw new DestinationInvalidException("Failed to get location for destination type: " + type);
         }
 
-        return secureLocation(result);
+        return result;
     }
 
     /**
-     * Generates a random location within the configured range.
+     * Checks if players land on the top of the column at the target point.
+     * Random destinations land on the surface; other destinations keep their height.
+     * 
+     * @return True if the target's height is only a starting point
+     */
+    public boolean isSurfaceDestination() {
+        return type == DestinationType.RANDOM || type == DestinationType.RANDOM_IN_RANGE;
+    }
+
+    /**
+     * Generates a random location around the center of the world border.
+     * Destinations without a world pick a new one each time.
      * 
      * @return A random location
      */
     private Location getRandomLocation() throws DestinationInvalidException {
-        World world;
-        if (locationString.split(" ").length > 1) {
-            String worldName = locationString.split(" ")[1];
-            world = Bukkit.getWorld(worldName);
-            if (world == null) {
-                throw new DestinationInvalidException("World not found: " + worldName);
-            }
-        } else {
-            List<World> worlds = Bukkit.getWorlds();
-            if (worlds.isEmpty()) {
-                throw new DestinationInvalidException("No worlds available for random location");
-            }
-            world = worlds.get(new Random().nextInt(worlds.size()));
-        }
-
-        int x = getRandomCoordinate(10000);
-        int y = getRandomNumberRange(1, 250);
-        int z = getRandomCoordinate(10000);
-
-        return new Location(world, x, y, z);
+        World world = location != null ? location.getWorld() : DestinationSampler.pickWorld(Bukkit.getWorlds());
+        ConfigSnapshot snapshot = plugin.getMainConfig().getSnapshot();
+        LandingRules rules = snapshot.getLandingRules();
+        return DestinationSampler.sampleWorld(world, rules.getRandomRadius(), rules.getSampleAttempts(),
+                snapshot.getBlockedRegions());
     }
 
     /**
      * Generates a random location within the configured range of the fixed location.
+     * The height is that of the sea until a safe spot is picked.
      * 
      * @return A random location within range
      */
@@ -221,11 +200,9 @@ public class ScrollDestination {
             throw new DestinationInvalidException("Center location not set for random radius");
         }
 
-        int x = location.getBlockX() + getRandomCoordinate(range);
-        int z = location.getBlockZ() + getRandomCoordinate(range);
-        int y = location.getWorld().getHighestBlockYAt(x, z);
-
-        return new Location(location.getWorld(), x, y, z);
+        ConfigSnapshot snapshot = plugin.getMainConfig().getSnapshot();
+        return DestinationSampler.sample(location.getWorld(), location.getBlockX() + 0.5, location.getBlockZ() + 0.5,
+                range, snapshot.getLandingRules().getSampleAttempts(), snapshot.getBlockedRegions());
     }
 
     /**
@@ -240,38 +217,6 @@ public class ScrollDestination {
         return location;
     }
 
-    /**
-     * Secures a location to prevent suffocation or falling.
-     * 
-     * @param location The location to secure
-     * @return The secured location
-     */
-    public Location secureLocation(Location location) {
-        if (location == null) {
-            return null;
-        }
-
-        World world = location.getWorld();
-        int x = location.getBlockX();
-        int y = location.getBlockY();
-        int z = location.getBlockZ();
-
-        Block feetBlock = world.getBlockAt(x, y, z);
-        Block headBlock = world.getBlockAt(x, y + 1, z);
-        Block groundBlock = world.getBlockAt(x, y - 1, z);
-
-        // Check if the location is safe (air for feet and head, solid ground)
-        if (!feetBlock.getType().equals(Material.AIR) ||
-            !headBlock.getType().equals(Material.AIR) ||
-            groundBlock.getType().equals(Material.AIR)) {
-            // Find the highest safe Y coordinate
-            y = world.getHighestBlockYAt(x, z);
-            return new Location(world, x, y, z);
-        }
-
-        return location;
-    }
-
     /**
      * Gets a description of the location.
      * 
@@ -306,121 +251,34 @@ public class ScrollDestination {
     }
 
     /**
-     * Gets the range of this destination.
-     * 
-     * @return The destination range
+     * Checks if this destination still points at what its settings describe, so it can be kept on a reload.
+     * Spawn destinations copied the spawn point when they were built and are never current,
+     * others are current while the world they hold is the loaded world of that name.
+     * Must be called on the main thread.
+     *
+     * @return True if the destination can be reused
      */
-    public int getRange() {
-        return range;
-    }
-
-    private void setupRandomRadiusLocation(String locationString) throws DestinationInvalidException {
-        if (!locationString.contains("point")) {
-            throw new DestinationInvalidException("No point specified in random radius location");
-        }
-        if (!locationString.contains("radius")) {
-            throw new DestinationInvalidException("No radius specified in random radius location");
+    public boolean isCurrent() {
+        if (type == DestinationType.SPAWN) {
+            return false;
         }
-
-        // Extract point and radius from format: random_radius(point=world,x,y,z radius=1000)
-        String info = locationString.replaceAll(".*\\(|\\).*", "");
-        String[] args = info.split(" ");
-
-        if (args.length != 2) {
-            throw new DestinationInvalidException("Invalid random radius format: " + locationString);
-        }
-
-        String point = args[0].contains("point=") ? args[0].replace("point=", "") : args[1].replace("point=", "");
-        String radiusStr = args[0].contains("radius=") ? args[0].replace("radius=", "") : args[1].replace("radius=", "");
-
-        try {
-            this.range = Integer.parseInt(radiusStr);
-        } catch (NumberFormatException e) {
-            throw new DestinationInvalidException("Invalid radius: " + radiusStr);
-        }
-
-        String[] pointInfo = point.split(",");
-        if (pointInfo.length != 4) {
-            throw new DestinationInvalidException("Invalid point format: " + point);
-        }
-
-        World world = Bukkit.getWorld(pointInfo[0]);
-        if (world == null) {
-            throw new DestinationInvalidException("World not found: " + pointInfo[0]);
-        }
-
-        try {
-            int x = Integer.parseInt(pointInfo[1]);
-            int y = Integer.parseInt(pointInfo[2]);
-            int z = Integer.parseInt(pointInfo[3]);
-            this.location = new Location(world, x, y, z);
-        } catch (NumberFormatException e) {
-            throw new DestinationInvalidException("Invalid coordinates in point: " + point);
-        }
-    }
-
-    private void setupFixedLocation(String locationString) throws DestinationInvalidException {
-        String[] args = locationString.split(",");
-        if (args.length != 4) {
-            throw new DestinationInvalidException("Fixed location must be in format: world,x,y,z");
-        }
-
-        World world = Bukkit.getWorld(args[0].trim());
-        if (world == null) {
-            throw new DestinationInvalidException("World not found: " + args[0].trim());
-        }
-
-        try {
-            int x = Integer.parseInt(args[1].trim());
-            int y = Integer.parseInt(args[2].trim());
-            int z = Integer.parseInt(args[3].trim());
-            this.location = new Location(world, x, y, z);
-        } catch (NumberFormatException e) {
-            throw new DestinationInvalidException("Invalid coordinates in fixed location: " + locationString);
-        }
-    }
-
-    private void setupFixedNameLocation(String locationString) throws DestinationInvalidException {
-        if (locationString.contains("spawn")) {
-            String[] params = locationString.split(" ");
-            if (params.length < 2) {
-                throw new DestinationInvalidException("Spawn location must specify a world");
-            }
-
-            // Handle both "spawn world" and "world spawn" formats
-            String worldName;
-            if (params[0].equals("spawn")) {
-                worldName = params[1];
-            } else {
-                worldName = params[0];
-            }
-
-            World world = Bukkit.getWorld(worldName);
-            if (world == null) {
-                throw new DestinationInvalidException("World not found: " + worldName);
-            }
-
-            this.location = world.getSpawnLocation();
-            return;
+        if (location == null) {
+            return true;
         }
-
-        // Check if it's a fixed location format (world, x, y, z)
-        if (locationString.contains(",")) {
-            setupFixedLocation(locationString);
-            return;
+        if (!location.isWorldLoaded()) {
+            return false;
         }
-
-        throw new DestinationInvalidException("Unknown fixed name location: " + locationString);
-    }
-
-    private int getRandomCoordinate(int range) {
-        return new Random().nextBoolean() ? 
-            getRandomNumberRange(1, range) : 
-            -getRandomNumberRange(1, range);
+        World world = location.getWorld();
+        return world != null && Bukkit.getWorld(world.getName()) == world;
     }
 
-    private int getRandomNumberRange(int min, int max) {
-        return new Random().nextInt(max - min + 1) + min;
+    /**
+     * Gets the range of this destination.
+     * 
+     * @return The destination range
+     */
+    public int getRange() {
+        return range;
     }
 
     private String getFixedLocationString() {
@@ -503,57 +361,6 @@ public class ScrollDestination {
         return "spawn point in " + location.getWorld().getName();
     }
 
-    private void setupSpawnLocation(String locationString) throws DestinationInvalidException {
-        String[] params = locationString.split(" ");
-        if (params.length < 2) {
-            throw new DestinationInvalidException("Spawn location must specify a world");
-        }
-
-        // Handle both "spawn world" and "world spawn" formats
-        String worldName;
-        if (params[0].equals("spawn")) {
-            worldName = params[1];
-        } else {
-            worldName = params[0];
-        }
-
-        World world = Bukkit.getWorld(worldName);
-        if (world == null) {
-            throw new DestinationInvalidException("World not found: " + worldName);
-        }
-
-        this.location = world.getSpawnLocation();
-    }
-
-    private void setupRandomLocation(String locationString) throws DestinationInvalidException {
-        // For "random" without a world specified, use any world
-        if (locationString.equals("random")) {
-            List<World> worlds = Bukkit.getWorlds();
-            if (worlds.isEmpty()) {
-                throw new DestinationInvalidException("No worlds available for random location");
-            }
-            World world = worlds.get(random.nextInt(worlds.size()));
-            this.location = world.getSpawnLocation();
-            return;
-        }
-
-        // For "random world" format
-        String[] params = locationString.split(" ");
-        if (params.length < 2) {
-            throw new DestinationInvalidException("Random location must specify a world");
-        }
-
-        String worldName = params[1];
-        World world = Bukkit.getWorld(worldName);
-        if (world == null) {
-            throw new DestinationInvalidException("World not found: " + worldName);
-        }
-
-        // For random locations, we'll set a default location in the world
-        // The actual random location will be generated when getLocation() is called
-        this.location = world.getSpawnLocation();
-    }
-
     /**
      * Enum representing the different types of destinations.
      */
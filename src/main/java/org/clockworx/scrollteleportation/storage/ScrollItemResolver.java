@@ -0,0 +1,182 @@
+package org.clockworx.scrollteleportation.storage;
+
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.persistence.PersistentDataContainer;
+import org.bukkit.persistence.PersistentDataType;
+import org.clockworx.scrollteleportation.ScrollTeleportation;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Recognises scroll items.
+ * Keys are created once, the scroll material is cached at load time and each check
+ * reads the item meta at most once, so non-scroll items are rejected without allocating.
+ */
+public class ScrollItemResolver {
+
+    private final ScrollStorage scrollStorage;
+    private final NamespacedKey internalNameKey;
+    private final NamespacedKey totalUsesKey;
+    private final NamespacedKey currentUsesKey;
+    private volatile Material scrollMaterial = Material.PAPER;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder fastRejects = new LongAdder();
+
+    /**
+     * Creates a new ScrollItemResolver instance.
+     *
+     * @param plugin The plugin instance
+     * @param scrollStorage The storage to look scrolls up in
+     */
+    public ScrollItemResolver(ScrollTeleportation plugin, ScrollStorage scrollStorage) {
+        this.scrollStorage = scrollStorage;
+        this.internalNameKey = new NamespacedKey(plugin, Scroll.KEY_INTERNAL_NAME);
+        this.totalUsesKey = new NamespacedKey(plugin, Scroll.KEY_TOTAL_USES);
+        this.currentUsesKey = new NamespacedKey(plugin, Scroll.KEY_CURRENT_USES);
+    }
+
+    /**
+     * Resolves an ItemStack to a loaded scroll.
+     *
+     * @param stack The ItemStack to check
+     * @return The resolved scroll, or null if the item is not a loaded scroll
+     */
+    public ResolvedScroll resolve(ItemStack stack) {
+        if (!isScrollMaterial(stack) || !stack.hasItemMeta()) {
+            fastRejects.increment();
+            misses.increment();
+            return null;
+        }
+
+        ItemMeta meta = stack.getItemMeta();
+        if (meta == null) {
+            misses.increment();
+            return null;
+        }
+
+        PersistentDataContainer container = meta.getPersistentDataContainer();
+        String internalName = container.get(internalNameKey, PersistentDataType.STRING);
+        Scroll scroll = internalName == null ? null : scrollStorage.getRegistry().get(internalName);
+        if (scroll == null) {
+            misses.increment();
+            return null;
+        }
+
+        int totalUses = container.getOrDefault(totalUsesKey, PersistentDataType.INTEGER, scroll.getUses());
+        int currentUses = container.getOrDefault(currentUsesKey, PersistentDataType.INTEGER, 0);
+        hits.increment();
+        return new ResolvedScroll(scroll, currentUses, totalUses);
+    }
+
+    /**
+     * Checks if an ItemStack is made of the scroll material.
+     *
+     * @param stack The ItemStack to check
+     * @return True if the item could be a scroll
+     */
+    public boolean isScrollMaterial(ItemStack stack) {
+        return stack != null && stack.getType() == scrollMaterial;
+    }
+
+    /**
+     * Gets the material scrolls are made of.
+     *
+     * @return The scroll material
+     */
+    public Material getScrollMaterial() {
+        return scrollMaterial;
+    }
+
+    /**
+     * Sets the material scrolls are made of.
+     * Called whenever the configuration is loaded.
+     *
+     * @param material The scroll material, or null to use paper
+     */
+    public void setScrollMaterial(Material material) {
+        this.scrollMaterial = material != null ? material : Material.PAPER;
+    }
+
+    /**
+     * Gets the pre-built key for a persistent data key string.
+     *
+     * @param keyString One of the Scroll.KEY_* constants
+     * @return The matching key
+     */
+    public NamespacedKey getKey(String keyString) {
+        return switch (keyString) {
+            case Scroll.KEY_INTERNAL_NAME -> internalNameKey;
+            case Scroll.KEY_TOTAL_USES -> totalUsesKey;
+            case Scroll.KEY_CURRENT_USES -> currentUsesKey;
+            default -> new NamespacedKey(ScrollTeleportation.getInstance(), keyString);
+        };
+    }
+
+    /**
+     * Gets the key holding the scroll's internal name.
+     *
+     * @return The internal name key
+     */
+    public NamespacedKey getInternalNameKey() {
+        return internalNameKey;
+    }
+
+    /**
+     * Gets the key holding the scroll's total uses.
+     *
+     * @return The total uses key
+     */
+    public NamespacedKey getTotalUsesKey() {
+        return totalUsesKey;
+    }
+
+    /**
+     * Gets the key holding the scroll's current uses.
+     *
+     * @return The current uses key
+     */
+    public NamespacedKey getCurrentUsesKey() {
+        return currentUsesKey;
+    }
+
+    /**
+     * Gets the number of items resolved to a loaded scroll.
+     *
+     * @return The hit count
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of items that were not a loaded scroll.
+     *
+     * @return The miss count
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Gets the number of misses rejected before the item meta was read.
+     *
+     * @return The fast reject count
+     */
+    public long getFastRejects() {
+        return fastRejects.sum();
+    }
+
+    /**
+     * Resets all counters.
+     */
+    public void resetCounters() {
+        hits.reset();
+        misses.reset();
+        fastRejects.reset();
+    }
+}
@@ -0,0 +1,215 @@
+package org.clockworx.scrollteleportation.storage;
+
+import org.clockworx.scrollteleportation.exceptions.ScrollInvalidException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * An immutable, hash-indexed snapshot of the loaded scrolls.
+ * Readers may use a registry from any thread without locking; changes are made by
+ * building a new registry and publishing it in place of the old one.
+ */
+public final class ScrollRegistry {
+
+    /**
+     * A registry containing no scrolls.
+     */
+    public static final ScrollRegistry EMPTY = new ScrollRegistry(new ArrayList<>());
+
+    private final List<Scroll> scrolls;
+    private final List<String> names;
+    private final Map<String, Scroll> byInternalName;
+    private final Map<String, Scroll> byLowerCaseName;
+    private final Map<String, Scroll> byDisplayName;
+
+    private ScrollRegistry(List<Scroll> scrolls) {
+        int capacity = (int) (scrolls.size() / 0.75f) + 1;
+        Map<String, Scroll> internal = new HashMap<>(capacity);
+        Map<String, Scroll> lowerCase = new HashMap<>(capacity);
+        Map<String, Scroll> display = new HashMap<>(capacity);
+        List<String> scrollNames = new ArrayList<>(scrolls.size());
+
+        for (Scroll scroll : scrolls) {
+            internal.put(scroll.getInternalName(), scroll);
+            lowerCase.putIfAbsent(normalize(scroll.getInternalName()), scroll);
+            if (scroll.getDisplayName() != null) {
+                display.putIfAbsent(normalize(scroll.getDisplayName()), scroll);
+            }
+            scrollNames.add(scroll.getInternalName());
+        }
+
+        this.scrolls = Collections.unmodifiableList(scrolls);
+        this.names = Collections.unmodifiableList(scrollNames);
+        this.byInternalName = internal;
+        this.byLowerCaseName = lowerCase;
+        this.byDisplayName = display;
+    }
+
+    /**
+     * Creates a new builder for a registry.
+     *
+     * @return A new, empty builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Gets a scroll by its exact internal name.
+     *
+     * @param internalName The internal name of the scroll
+     * @return The scroll, or null if not found
+     */
+    public Scroll get(String internalName) {
+        return internalName == null ? null : byInternalName.get(internalName);
+    }
+
+    /**
+     * Gets a scroll by its internal name, ignoring case.
+     *
+     * @param name The internal name of the scroll in any case
+     * @return The scroll, or null if not found
+     */
+    public Scroll getIgnoreCase(String name) {
+        return name == null ? null : byLowerCaseName.get(normalize(name));
+    }
+
+    /**
+     * Gets a scroll by its display name, ignoring case.
+     *
+     * @param displayName The display name of the scroll
+     * @return The scroll, or null if not found
+     */
+    public Scroll getByDisplayName(String displayName) {
+        return displayName == null ? null : byDisplayName.get(normalize(displayName));
+    }
+
+    /**
+     * Checks if a scroll with the given internal name is registered.
+     *
+     * @param internalName The internal name of the scroll
+     * @return True if the scroll is registered
+     */
+    public boolean contains(String internalName) {
+        return internalName != null && byInternalName.containsKey(internalName);
+    }
+
+    /**
+     * Gets all scrolls in load order.
+     *
+     * @return An unmodifiable list of scrolls
+     */
+    public List<Scroll> getScrolls() {
+        return scrolls;
+    }
+
+    /**
+     * Gets the internal names of all scrolls in load order.
+     *
+     * @return An unmodifiable list of internal names
+     */
+    public List<String> getNames() {
+        return names;
+    }
+
+    /**
+     * Gets the number of registered scrolls.
+     *
+     * @return The number of scrolls
+     */
+    public int size() {
+        return scrolls.size();
+    }
+
+    /**
+     * Creates a copy of this registry with an additional scroll.
+     *
+     * @param scroll The scroll to add
+     * @return The new registry
+     * @throws ScrollInvalidException if the scroll is null or already exists
+     */
+    public ScrollRegistry with(Scroll scroll) throws ScrollInvalidException {
+        Builder builder = new Builder(scrolls);
+        builder.add(scroll);
+        return builder.build();
+    }
+
+    /**
+     * Creates a copy of this registry without the given scroll.
+     *
+     * @param internalName The internal name of the scroll to remove
+     * @return The new registry, or this registry if the scroll was not registered
+     */
+    public ScrollRegistry without(String internalName) {
+        if (!contains(internalName)) {
+            return this;
+        }
+        List<Scroll> remaining = new ArrayList<>(scrolls.size() - 1);
+        for (Scroll scroll : scrolls) {
+            if (!scroll.getInternalName().equals(internalName)) {
+                remaining.add(scroll);
+            }
+        }
+        return new ScrollRegistry(remaining);
+    }
+
+    private static String normalize(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Collects scrolls for a new registry.
+     * A builder is not thread-safe and is meant to be filled by a single loader.
+     */
+    public static final class Builder {
+
+        private final List<Scroll> scrolls;
+        private final Map<String, Scroll> seen;
+
+        private Builder() {
+            this.scrolls = new ArrayList<>();
+            this.seen = new HashMap<>();
+        }
+
+        private Builder(List<Scroll> initial) {
+            this.scrolls = new ArrayList<>(initial.size() + 1);
+            this.seen = new HashMap<>((int) ((initial.size() + 1) / 0.75f) + 1);
+            for (Scroll scroll : initial) {
+                scrolls.add(scroll);
+                seen.put(scroll.getInternalName(), scroll);
+            }
+        }
+
+        /**
+         * Adds a scroll to the registry being built.
+         *
+         * @param scroll The scroll to add
+         * @return This builder
+         * @throws ScrollInvalidException if the scroll is null or already exists
+         */
+        public Builder add(Scroll scroll) throws ScrollInvalidException {
+            if (scroll == null) {
+                throw new ScrollInvalidException("Cannot add null scroll");
+            }
+            if (seen.putIfAbsent(scroll.getInternalName(), scroll) != null) {
+                throw new ScrollInvalidException("Scroll already exists: " + scroll.getInternalName());
+            }
+            scrolls.add(scroll);
+            return this;
+        }
+
+        /**
+         * Builds the registry.
+         *
+         * @return The immutable registry
+         */
+        public ScrollRegistry build() {
+            return new ScrollRegistry(new ArrayList<>(scrolls));
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package org.clockworx.scrollteleportation.storage;
+
+import java.util.Locale;
+
+/**
+ * Summary of a scroll reload: how many scrolls were added, rebuilt, dropped or kept.
+ */
+public final class ScrollReloadReport {
+
+    private final int added;
+    private final int changed;
+    private final int removed;
+    private final int unchanged;
+    private final int failed;
+    private final long elapsedNanos;
+
+    ScrollReloadReport(int added, int changed, int removed, int unchanged, int failed, long elapsedNanos) {
+        this.added = added;
+        this.changed = changed;
+        this.removed = removed;
+        this.unchanged = unchanged;
+        this.failed = failed;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Gets the number of scrolls that were not loaded before.
+     *
+     * @return The added count
+     */
+    public int getAdded() {
+        return added;
+    }
+
+    /**
+     * Gets the number of scrolls that were rebuilt because their settings changed.
+     *
+     * @return The changed count
+     */
+    public int getChanged() {
+        return changed;
+    }
+
+    /**
+     * Gets the number of scrolls that are no longer configured.
+     *
+     * @return The removed count
+     */
+    public int getRemoved() {
+        return removed;
+    }
+
+    /**
+     * Gets the number of scrolls that were kept as they were.
+     *
+     * @return The unchanged count
+     */
+    public int getUnchanged() {
+        return unchanged;
+    }
+
+    /**
+     * Gets the number of scrolls that could not be built.
+     *
+     * @return The failed count
+     */
+    public int getFailed() {
+        return failed;
+    }
+
+    /**
+     * Gets how long the reload took.
+     *
+     * @return The elapsed time in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Checks if every configured scroll was loaded.
+     *
+     * @return True if no scroll failed to load
+     */
+    public boolean isSuccessful() {
+        return failed == 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%d added, %d changed, %d removed, %d unchanged, %d failed in %.2f ms",
+                added, changed, removed, unchanged, failed, elapsedNanos / 1_000_000.0);
+    }
+}
@@ -2,19 +2,20 @@ package org.clockworx.scrollteleportation.storage;
 
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
-import org.bukkit.NamespacedKey;
+import org.bukkit.Material;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.persistence.PersistentDataType;
 import org.clockworx.scrollteleportation.ScrollTeleportation;
 import org.clockworx.scrollteleportation.exceptions.ScrollInvalidException;
+import org.clockworx.scrollteleportation.files.ConfigSnapshot;
 import org.clockworx.scrollteleportation.files.MainConfig;
+import org.clockworx.scrollteleportation.files.ScrollSettings;
 
-import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.logging.Level;
-import java.util.Set;
 
 /**
  * Manages the storage and retrieval of scrolls in the plugin.
@@ -22,8 +23,18 @@ import java.util.Set;
  */
 public class ScrollStorage {
 
+    /**
+     * The most scrolls given with one command, a full inventory of 64-stacks.
+     */
+    public static final int MAX_GIVE_AMOUNT = 36 * 64;
+
     private final ScrollTeleportation plugin;
-    private final List<Scroll> loadedScrolls = new ArrayList<>();
+    private final Object writeLock = new Object();
+    private volatile ScrollRegistry registry = ScrollRegistry.EMPTY;
+    private Map<String, ScrollSettings> loadedSettings = Map.of();
+    private Material loadedMaterial;
+    private volatile ScrollReloadReport lastReloadReport;
+    private final ScrollItemResolver itemResolver;
     private MainConfig mainConfig;
 
     /**
@@ -33,6 +44,7 @@ public class ScrollStorage {
      */
     public ScrollStorage(ScrollTeleportation plugin) {
         this.plugin = plugin;
+        this.itemResolver = new ScrollItemResolver(plugin, this);
     }
 
     /**
@@ -51,13 +63,9 @@ public class ScrollStorage {
      * @throws ScrollInvalidException if the scroll is null or already exists
      */
     public void addLoadedScroll(Scroll scroll) throws ScrollInvalidException {
-        if (scroll == null) {
-            throw new ScrollInvalidException("Cannot add null scroll");
-        }
-        if (loadedScrolls.contains(scroll)) {
-            throw new ScrollInvalidException("Scroll already exists: " + scroll.getInternalName());
+        synchronized (writeLock) {
+            registry = registry.with(scroll);
         }
-        loadedScrolls.add(scroll);
     }
 
     /**
@@ -66,7 +74,9 @@ public class ScrollStorage {
      * @param scrollName The name of the scroll to remove
      */
     public void removeLoadedScroll(String scrollName) {
-        loadedScrolls.removeIf(scroll -> scroll.getInternalName().equals(scrollName));
+        synchronized (writeLock) {
+            registry = registry.without(scrollName);
+        }
     }
 
     /**
@@ -76,29 +86,64 @@ public class ScrollStorage {
      * @return An Optional containing the scroll if found
      */
     public Optional<Scroll> getLoadedScroll(String scrollName) {
-        return loadedScrolls.stream()
-                .filter(scroll -> scroll.getInternalName().equals(scrollName))
-                .findFirst();
+        return Optional.ofNullable(registry.get(scrollName));
+    }
+
+    /**
+     * Gets a loaded scroll by its name, ignoring case.
+     * 
+     * @param scrollName The name of the scroll to get in any case
+     * @return An Optional containing the scroll if found
+     */
+    public Optional<Scroll> getLoadedScrollIgnoreCase(String scrollName) {
+        return Optional.ofNullable(registry.getIgnoreCase(scrollName));
+    }
+
+    /**
+     * Gets a loaded scroll by its display name, ignoring case.
+     * 
+     * @param displayName The display name of the scroll to get
+     * @return An Optional containing the scroll if found
+     */
+    public Optional<Scroll> getLoadedScrollByDisplayName(String displayName) {
+        return Optional.ofNullable(registry.getByDisplayName(displayName));
+    }
+
+    /**
+     * Gets the current scroll registry snapshot.
+     * The snapshot is immutable and can be read without locking.
+     * 
+     * @return The current registry
+     */
+    public ScrollRegistry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * Gets the resolver used to recognise scroll items.
+     * 
+     * @return The item resolver
+     */
+    public ScrollItemResolver getItemResolver() {
+        return itemResolver;
     }
 
     /**
      * Gets all loaded scrolls.
      * 
-     * @return A list of all loaded scrolls
+     * @return An unmodifiable list of all loaded scrolls
      */
     public List<Scroll> getLoadedScrolls() {
-        return new ArrayList<>(loadedScrolls);
+        return registry.getScrolls();
     }
 
     /**
      * Gets a list of all scroll names.
      * 
-     * @return A list of scroll names
+     * @return An unmodifiable list of scroll names
      */
     public List<String> getScrollNames() {
-        return loadedScrolls.stream()
-                .map(Scroll::getInternalName)
-                .toList();
+        return registry.getNames();
     }
 
     /**
@@ -107,49 +152,112 @@ public class ScrollStorage {
      * @return true if loading was successful, false otherwise
      */
     public boolean loadScrollsFromConfig() {
+        ScrollReloadReport report = reloadScrolls();
+        return report != null && report.isSuccessful();
+    }
+
+    /**
+     * Brings the loaded scrolls in line with the configuration.
+     * Scrolls whose settings are unchanged are kept as they are, including their item
+     * template and destination, so only added and changed scrolls are built.
+     * 
+     * @return A report of what changed, or null if the scrolls could not be loaded
+     */
+    public ScrollReloadReport reloadScrolls() {
         if (mainConfig == null) {
             plugin.getLogger().severe("Cannot load scrolls: MainConfig is null");
-            return false;
+            return null;
         }
         
+        long start = System.nanoTime();
         try {
-            // Clear existing scrolls
-            loadedScrolls.clear();
-            
-            // Get all scrolls from config
-            Set<String> scrollNames = mainConfig.getScrollsInConfig();
-            
-            if (scrollNames.isEmpty()) {
+            ConfigSnapshot snapshot = mainConfig.getSnapshot();
+            Material material = snapshot.getScrollMaterial();
+
+            // Cache the scroll material so item checks don't hit the config
+            itemResolver.setScrollMaterial(material);
+
+            if (snapshot.getScrolls().isEmpty()) {
                 plugin.getLogger().warning("No scrolls found in configuration");
-                return true; // Return true as this is not a critical error
             }
-            
-            boolean allSuccessful = true;
-            
-            // Load each scroll
-            for (String scrollName : scrollNames) {
-                try {
-                    Scroll scroll = loadScroll(scrollName);
-                    if (scroll != null) {
-                        addLoadedScroll(scroll);
-                    } else {
-                        plugin.getLogger().warning("Failed to load scroll: " + scrollName);
-                        allSuccessful = false;
+
+            synchronized (writeLock) {
+                // Every item template depends on the material, so a new material rebuilds everything
+                boolean materialChanged = material != loadedMaterial;
+                ScrollRegistry current = registry;
+                ScrollRegistry.Builder builder = ScrollRegistry.builder();
+                Map<String, ScrollSettings> built = new HashMap<>();
+                int added = 0;
+                int changed = 0;
+                int unchanged = 0;
+                int failed = 0;
+
+                for (ScrollSettings settings : snapshot.getScrolls().values()) {
+                    String scrollName = settings.getInternalName();
+                    ScrollSettings previous = loadedSettings.get(scrollName);
+                    Scroll existing = current.get(scrollName);
+
+                    // Destinations hold their world and spawn point, which may have changed without the settings
+                    if (!materialChanged && existing != null && settings.equals(previous)
+                            && existing.getDestination().isCurrent()) {
+                        builder.add(existing);
+                        built.put(scrollName, settings);
+                        unchanged++;
+                        continue;
+                    }
+
+                    try {
+                        Scroll scroll = loadScroll(settings, material);
+                        if (scroll != null) {
+                            builder.add(scroll);
+                            built.put(scrollName, settings);
+                            if (existing != null) {
+                                changed++;
+                            } else {
+                                added++;
+                            }
+                        } else {
+                            plugin.getLogger().warning("Failed to load scroll: " + scrollName);
+                            failed++;
+                        }
+                    } catch (Exception e) {
+                        plugin.getLogger().warning("Error loading scroll " + scrollName + ": " + e.getMessage());
+                        failed++;
                     }
-                } catch (Exception e) {
-                    plugin.getLogger().warning("Error loading scroll " + scrollName + ": " + e.getMessage());
-                    allSuccessful = false;
                 }
+
+                int removed = 0;
+                for (String name : current.getNames()) {
+                    if (!snapshot.getScrolls().containsKey(name)) {
+                        removed++;
+                    }
+                }
+
+                // Swap in the new registry so readers never see a partial load
+                registry = builder.build();
+                loadedSettings = built;
+                loadedMaterial = material;
+
+                lastReloadReport = new ScrollReloadReport(added, changed, removed, unchanged, failed,
+                        System.nanoTime() - start);
+                return lastReloadReport;
             }
-            
-            return allSuccessful;
         } catch (Exception e) {
             plugin.getLogger().severe("Failed to load scrolls from config: " + e.getMessage());
             e.printStackTrace();
-            return false;
+            return null;
         }
     }
 
+    /**
+     * Gets the report of the most recent scroll reload.
+     * 
+     * @return The last report, or null if scrolls have not been loaded yet
+     */
+    public ScrollReloadReport getLastReloadReport() {
+        return lastReloadReport;
+    }
+
     /**
      * Gives a scroll to a player.
      * 
@@ -157,8 +265,38 @@ public class ScrollStorage {
      * @param scrollName The name of the scroll to give
      */
     public void giveScrollToPlayer(Player player, String scrollName) {
-        getLoadedScroll(scrollName).ifPresent(scroll -> 
-            player.getInventory().addItem(scroll.getItemStack()));
+        giveScrollToPlayer(player, scrollName, 1);
+    }
+
+    /**
+     * Gives a number of scrolls to a player.
+     * Scrolls that do not fit in the player's inventory are dropped at their feet.
+     * Must be called on the thread that owns the player.
+     * 
+     * @param player The player to give the scrolls to
+     * @param scrollName The name of the scroll to give
+     * @param amount The number of scrolls to give, at most {@link #MAX_GIVE_AMOUNT}
+     * @return The number of scrolls that were dropped, or -1 if the scroll does not exist
+     */
+    public int giveScrollToPlayer(Player player, String scrollName, int amount) {
+        Scroll scroll = registry.get(scrollName);
+        if (scroll == null) {
+            return -1;
+        }
+
+        // Hand out full stacks cloned from the scroll's template
+        int maxStackSize = Math.max(1, scroll.getMaterial().getMaxStackSize());
+        int remaining = Math.min(amount, MAX_GIVE_AMOUNT);
+        int dropped = 0;
+        while (remaining > 0) {
+            int stackSize = Math.min(remaining, maxStackSize);
+            for (ItemStack leftover : player.getInventory().addItem(scroll.getItemStack(stackSize)).values()) {
+                player.getWorld().dropItemNaturally(player.getLocation(), leftover);
+                dropped += leftover.getAmount();
+            }
+            remaining -= stackSize;
+        }
+        return dropped;
     }
 
     /**
@@ -168,40 +306,34 @@ public class ScrollStorage {
      * @return An Optional containing the scroll if found
      */
     public Optional<Scroll> getScrollByItemStack(ItemStack stack) {
-        if (!Scroll.hasPersistentData(stack, Scroll.KEY_INTERNAL_NAME, PersistentDataType.STRING)) {
-            return Optional.empty();
-        }
-
-        NamespacedKey key = new NamespacedKey(plugin, Scroll.KEY_INTERNAL_NAME);
-        String internalScrollName = stack.getItemMeta().getPersistentDataContainer()
-            .get(key, PersistentDataType.STRING);
-
-        return this.getLoadedScroll(internalScrollName);
+        ResolvedScroll resolved = itemResolver.resolve(stack);
+        return resolved != null ? Optional.of(resolved.getScroll()) : Optional.empty();
     }
 
     /**
-     * Loads a single scroll from the configuration.
+     * Creates a single scroll from its compiled settings.
      * 
-     * @param scrollName The name of the scroll to load
+     * @param settings The compiled settings of the scroll
+     * @param material The material scrolls are made of
      * @return The loaded scroll, or null if loading failed
      */
-    private Scroll loadScroll(String scrollName) {
+    private Scroll loadScroll(ScrollSettings settings, Material material) {
         try {
-            Scroll scroll = new Scroll(scrollName);
+            Scroll scroll = new Scroll(settings.getInternalName());
             
-            scroll.setDisplayName(mainConfig.getScrollDisplayName(scrollName));
-            scroll.setDescriptionLore(mainConfig.getLoreStrings(scrollName));
-            scroll.setCancelOnMove(mainConfig.doCancelOnMove(scrollName));
-            scroll.setDestinationHidden(mainConfig.isDestinationHidden(scrollName));
-            scroll.setEffects(mainConfig.getEffects(scrollName));
-            scroll.setTeleportDelay(mainConfig.getDelay(scrollName));
-            scroll.setUses(mainConfig.getTotalUses(scrollName));
-            scroll.setDestination(mainConfig.getScrollDestination(scrollName));
-            scroll.setMaterial(mainConfig.getScrollMaterial());
+            scroll.setDisplayName(settings.getDisplayName());
+            scroll.setDescriptionLore(settings.getLore());
+            scroll.setCancelOnMove(settings.isCancelOnMove());
+            scroll.setDestinationHidden(settings.isDestinationHidden());
+            scroll.setEffects(settings.getEffects());
+            scroll.setTeleportDelay(settings.getDelay());
+            scroll.setUses(settings.getUses());
+            scroll.setDestination(ScrollDestination.fromSpec(settings.getDestinationSpec()));
+            scroll.setMaterial(material);
             
             return scroll;
         } catch (Exception e) {
-            plugin.getLogger().warning("Error creating scroll " + scrollName + ": " + e.getMessage());
+            plugin.getLogger().warning("Error creating scroll " + settings.getInternalName() + ": " + e.getMessage());
             return null;
         }
     }
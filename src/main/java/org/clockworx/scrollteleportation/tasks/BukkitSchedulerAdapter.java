@@ -0,0 +1,59 @@
+package org.clockworx.scrollteleportation.tasks;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+/**
+ * Runs tasks with the Bukkit scheduler, where the world belongs to the main thread.
+ */
+final class BukkitSchedulerAdapter extends SchedulerAdapter {
+
+    BukkitSchedulerAdapter(Plugin plugin) {
+        super(plugin);
+    }
+
+    @Override
+    public boolean isRegionized() {
+        return false;
+    }
+
+    @Override
+    public void runGlobal(Runnable task) {
+        if (Bukkit.isPrimaryThread()) {
+            task.run();
+        } else if (plugin.isEnabled()) {
+            Bukkit.getScheduler().runTask(plugin, task);
+        }
+    }
+
+    @Override
+    public Task runGlobalTimer(Runnable task, long delayTicks, long periodTicks) {
+        BukkitTask timer = Bukkit.getScheduler().runTaskTimer(plugin, task, delayTicks, periodTicks);
+        return timer::cancel;
+    }
+
+    @Override
+    public void runAsync(Runnable task) {
+        if (plugin.isEnabled()) {
+            Bukkit.getScheduler().runTaskAsynchronously(plugin, task);
+        }
+    }
+
+    @Override
+    public void runAt(Location location, Runnable task) {
+        runGlobal(task);
+    }
+
+    @Override
+    public void runFor(Entity entity, Runnable task, Runnable retired) {
+        runGlobal(task);
+    }
+
+    @Override
+    public void cancelTasks() {
+        Bukkit.getScheduler().cancelTasks(plugin);
+    }
+}
@@ -0,0 +1,71 @@
+package org.clockworx.scrollteleportation.tasks;
+
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Runs tasks with Folia's region, entity, global and async schedulers.
+ */
+final class FoliaSchedulerAdapter extends SchedulerAdapter {
+
+    FoliaSchedulerAdapter(Plugin plugin) {
+        super(plugin);
+    }
+
+    @Override
+    public boolean isRegionized() {
+        return true;
+    }
+
+    @Override
+    public void runGlobal(Runnable task) {
+        if (plugin.isEnabled()) {
+            Bukkit.getGlobalRegionScheduler().execute(plugin, task);
+        }
+    }
+
+    @Override
+    public Task runGlobalTimer(Runnable task, long delayTicks, long periodTicks) {
+        // Folia rejects an initial delay below one tick
+        ScheduledTask timer = Bukkit.getGlobalRegionScheduler()
+                .runAtFixedRate(plugin, scheduled -> task.run(), Math.max(1L, delayTicks), periodTicks);
+        return timer::cancel;
+    }
+
+    @Override
+    public void runAsync(Runnable task) {
+        if (plugin.isEnabled()) {
+            Bukkit.getAsyncScheduler().runNow(plugin, scheduled -> task.run());
+        }
+    }
+
+    @Override
+    public void runAt(Location location, Runnable task) {
+        if (Bukkit.isOwnedByCurrentRegion(location)) {
+            task.run();
+        } else if (plugin.isEnabled()) {
+            Bukkit.getRegionScheduler().execute(plugin, location, task);
+        }
+    }
+
+    @Override
+    public void runFor(Entity entity, Runnable task, Runnable retired) {
+        if (Bukkit.isOwnedByCurrentRegion(entity)) {
+            task.run();
+        } else if (plugin.isEnabled()
+                && entity.getScheduler().run(plugin, scheduled -> task.run(), retired) == null
+                && retired != null) {
+            // The entity was already removed, so the scheduler will never call back
+            retired.run();
+        }
+    }
+
+    @Override
+    public void cancelTasks() {
+        Bukkit.getGlobalRegionScheduler().cancelTasks(plugin);
+        Bukkit.getAsyncScheduler().cancelTasks(plugin);
+    }
+}
@@ -0,0 +1,102 @@
+package org.clockworx.scrollteleportation.tasks;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Runs the plugin's tasks on the thread that owns what they touch.
+ * On Paper everything that touches the world runs on the main thread; on Folia
+ * entity work runs on the entity's scheduler, block and chunk work on the region
+ * that owns the location and timers on the global region.
+ * Tasks handed over after the plugin is disabled are dropped.
+ */
+public abstract class SchedulerAdapter {
+
+    private static final String FOLIA_CLASS = "io.papermc.paper.threadedregions.RegionizedServer";
+
+    protected final Plugin plugin;
+
+    protected SchedulerAdapter(Plugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Creates the adapter for the server the plugin is running on.
+     *
+     * @param plugin The plugin that owns the tasks
+     * @return A Folia adapter if the server ticks regions on their own threads, a Bukkit adapter otherwise
+     */
+    public static SchedulerAdapter create(Plugin plugin) {
+        try {
+            Class.forName(FOLIA_CLASS);
+            return new FoliaSchedulerAdapter(plugin);
+        } catch (ClassNotFoundException e) {
+            return new BukkitSchedulerAdapter(plugin);
+        }
+    }
+
+    /**
+     * Checks if the server ticks regions on their own threads.
+     *
+     * @return True on Folia
+     */
+    public abstract boolean isRegionized();
+
+    /**
+     * Runs a task that touches no entity or block, like publishing a reloaded configuration.
+     *
+     * @param task The task to run
+     */
+    public abstract void runGlobal(Runnable task);
+
+    /**
+     * Runs a task repeatedly on the global region, or the main thread on Paper.
+     *
+     * @param task The task to run
+     * @param delayTicks The ticks to wait before the first run
+     * @param periodTicks The ticks between runs
+     * @return A handle to cancel the timer with
+     */
+    public abstract Task runGlobalTimer(Runnable task, long delayTicks, long periodTicks);
+
+    /**
+     * Runs a task off the server's tick threads.
+     *
+     * @param task The task to run
+     */
+    public abstract void runAsync(Runnable task);
+
+    /**
+     * Runs a task on the thread that owns a location, right away if already on it.
+     *
+     * @param location The location the task touches
+     * @param task The task to run
+     */
+    public abstract void runAt(Location location, Runnable task);
+
+    /**
+     * Runs a task on the thread that owns an entity, right away if already on it.
+     *
+     * @param entity The entity the task touches
+     * @param task The task to run
+     * @param retired Run instead of the task if the entity was removed, like a player who left; may be null
+     */
+    public abstract void runFor(Entity entity, Runnable task, Runnable retired);
+
+    /**
+     * Cancels every timer and async task of the plugin.
+     */
+    public abstract void cancelTasks();
+
+    /**
+     * A repeating task that can be cancelled.
+     */
+    public interface Task {
+
+        /**
+         * Stops the task from running again.
+         */
+        void cancel();
+    }
+}
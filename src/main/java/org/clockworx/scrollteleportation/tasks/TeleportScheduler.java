@@ -0,0 +1,197 @@
+package org.clockworx.scrollteleportation.tasks;
+
+import org.bukkit.entity.Player;
+import org.clockworx.scrollteleportation.ScrollTeleportation;
+import org.clockworx.scrollteleportation.files.LanguageString;
+import org.clockworx.scrollteleportation.files.Placeholder;
+import org.clockworx.scrollteleportation.teleporthandler.TeleportSession;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+
+/**
+ * Owns every teleport that is waiting for its delay to pass.
+ * A single repeating task advances a hashed timing wheel once per tick, so scheduling and
+ * cancelling a teleport never touches the server scheduler. Cancelled teleports are dropped
+ * when their slot comes up, and waiting teleports wake up once per second to show a countdown.
+ * <p>
+ * The wheel runs on the global region on Folia, while teleports are scheduled from the
+ * players' own threads. New teleports are queued and added to the wheel on its next tick,
+ * and each finished delay is handed back to the player's thread.
+ */
+public class TeleportScheduler {
+
+    private static final int WHEEL_SIZE = 64;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final int TICKS_PER_SECOND = 20;
+
+    private final ScrollTeleportation plugin;
+    private final List<List<Entry>> wheel;
+    private final List<Entry> fired = new ArrayList<>();
+    private final Queue<Entry> incoming = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+
+    private SchedulerAdapter.Task task;
+    private long tick;
+
+    /**
+     * Creates a new TeleportScheduler instance.
+     *
+     * @param plugin The plugin instance
+     */
+    public TeleportScheduler(ScrollTeleportation plugin) {
+        this.plugin = plugin;
+        this.wheel = new ArrayList<>(WHEEL_SIZE);
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * Starts advancing the wheel.
+     */
+    public void start() {
+        stop();
+        task = plugin.getSchedulerAdapter().runGlobalTimer(this::tick, 1L, 1L);
+    }
+
+    /**
+     * Stops advancing the wheel and drops every waiting teleport.
+     */
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        for (List<Entry> slot : wheel) {
+            slot.clear();
+        }
+        incoming.clear();
+        pending.set(0);
+    }
+
+    /**
+     * Finishes a teleport once its delay has passed.
+     * May be called from any thread.
+     *
+     * @param session The teleport to finish
+     * @param delayTicks The delay in ticks
+     */
+    public void schedule(TeleportSession session, long delayTicks) {
+        incoming.add(new Entry(session, Math.max(1L, delayTicks)));
+        pending.incrementAndGet();
+    }
+
+    /**
+     * Gets the number of teleports waiting for their delay, including cancelled ones
+     * whose slot has not come up yet.
+     *
+     * @return The number of waiting teleports
+     */
+    public int getPendingCount() {
+        return pending.get();
+    }
+
+    private void insert(Entry entry) {
+        long remaining = entry.dueTick - tick;
+        long wake = remaining;
+        if (plugin.getMainConfig().getSnapshot().isCountdown()) {
+            // Wake up on every whole second left
+            long toSecond = remaining % TICKS_PER_SECOND;
+            wake = Math.min(remaining, toSecond == 0 ? TICKS_PER_SECOND : toSecond);
+        }
+        entry.rounds = (wake - 1) / WHEEL_SIZE;
+        wheel.get((int) ((tick + wake) & WHEEL_MASK)).add(entry);
+    }
+
+    private void tick() {
+        tick++;
+        for (Entry entry = incoming.poll(); entry != null; entry = incoming.poll()) {
+            // The delay counts from the tick the teleport joins the wheel on
+            entry.dueTick = tick - 1 + entry.dueTick;
+            insert(entry);
+        }
+
+        List<Entry> slot = wheel.get((int) (tick & WHEEL_MASK));
+        if (slot.isEmpty()) {
+            return;
+        }
+
+        // Compact the slot in place, keeping entries that are due in a later round
+        int kept = 0;
+        for (Entry entry : slot) {
+            if (entry.session.getStage() == TeleportSession.Stage.CANCELLED) {
+                pending.decrementAndGet();
+            } else if (entry.rounds > 0) {
+                entry.rounds--;
+                slot.set(kept++, entry);
+            } else {
+                fired.add(entry);
+            }
+        }
+        slot.subList(kept, slot.size()).clear();
+
+        for (Entry entry : fired) {
+            if (entry.dueTick <= tick) {
+                pending.decrementAndGet();
+                complete(entry.session);
+            } else {
+                countdown(entry);
+                insert(entry);
+            }
+        }
+        fired.clear();
+    }
+
+    private void countdown(Entry entry) {
+        Player player = entry.session.getPlayer();
+        if (player.isOnline()) {
+            long seconds = (entry.dueTick - tick + TICKS_PER_SECOND - 1) / TICKS_PER_SECOND;
+            LanguageString.TELEPORTING_IN_TIME.sendActionBar(player,
+                    Placeholder.TIME.with(seconds), Placeholder.DELAY.with(seconds));
+        }
+    }
+
+    private void complete(TeleportSession session) {
+        Player player = session.getPlayer();
+        Runnable offline = () -> {
+            plugin.getLogger().log(Level.WARNING, "Player " + player.getName() + " is no longer online, cancelling teleportation");
+            plugin.getTeleportHandler().cleanup(player);
+        };
+        if (!player.isOnline()) {
+            offline.run();
+            return;
+        }
+
+        plugin.getSchedulerAdapter().runFor(player, () -> {
+            try {
+                // Load the destination, find a safe spot and move the player
+                session.complete();
+            } catch (Exception e) {
+                plugin.getLogger().log(Level.SEVERE, "Failed to teleport player " + player.getName(), e);
+                if (plugin.getTeleportHandler().cancel(player)) {
+                    LanguageString.TELEPORT_ERROR.send(player);
+                }
+            }
+        }, offline);
+    }
+
+    /**
+     * A teleport waiting in the wheel.
+     */
+    private static final class Entry {
+        private final TeleportSession session;
+        private long dueTick;
+        private long rounds;
+
+        private Entry(TeleportSession session, long delayTicks) {
+            // Holds the delay until the entry joins the wheel
+            this.session = session;
+            this.dueTick = delayTicks;
+        }
+    }
+}
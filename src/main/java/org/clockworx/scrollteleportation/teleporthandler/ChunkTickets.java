@@ -0,0 +1,124 @@
+package org.clockworx.scrollteleportation.teleporthandler;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.clockworx.scrollteleportation.ScrollTeleportation;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shares the plugin's chunk tickets between everything that keeps chunks loaded.
+ * A chunk holds at most one plugin ticket, so removing it for one user would unload the
+ * chunk for all others; tickets are therefore counted here and only removed once the
+ * last user lets go. Chunks are loaded asynchronously before their ticket is added,
+ * and tickets are only changed on the thread that owns the chunk.
+ */
+public class ChunkTickets {
+
+    private final ScrollTeleportation plugin;
+    private final Map<ChunkKey, Integer> holders = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new ChunkTickets instance.
+     *
+     * @param plugin The plugin instance
+     */
+    ChunkTickets(ScrollTeleportation plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Keeps a chunk loaded until it is released as often as it was acquired.
+     * May be called from any thread.
+     *
+     * @param world The world of the chunk
+     * @param chunkX The chunk's X coordinate
+     * @param chunkZ The chunk's Z coordinate
+     */
+    public void acquire(World world, int chunkX, int chunkZ) {
+        ChunkKey key = new ChunkKey(world.getUID(), chunkX, chunkZ);
+        if (holders.merge(key, 1, Integer::sum) == 1) {
+            world.getChunkAtAsync(chunkX, chunkZ).thenRun(() -> update(world, key));
+        }
+    }
+
+    /**
+     * Lets go of a chunk acquired with {@link #acquire(World, int, int)}.
+     * May be called from any thread.
+     *
+     * @param world The world of the chunk
+     * @param chunkX The chunk's X coordinate
+     * @param chunkZ The chunk's Z coordinate
+     */
+    public void release(World world, int chunkX, int chunkZ) {
+        ChunkKey key = new ChunkKey(world.getUID(), chunkX, chunkZ);
+        if (holders.computeIfPresent(key, (k, count) -> count > 1 ? count - 1 : null) == null) {
+            update(world, key);
+        }
+    }
+
+    /**
+     * Adds or removes the ticket of a chunk to match whether it is held.
+     * Both are no-ops if the ticket is already in that state, so updates may arrive in any order.
+     */
+    private void update(World world, ChunkKey key) {
+        plugin.getSchedulerAdapter().runAt(new Location(world, (key.x << 4) + 8, 0, (key.z << 4) + 8), () -> {
+            if (holders.containsKey(key)) {
+                world.addPluginChunkTicket(key.x, key.z, plugin);
+            } else {
+                world.removePluginChunkTicket(key.x, key.z, plugin);
+            }
+        });
+    }
+
+    /**
+     * Removes every ticket at once.
+     * Called when the plugin is disabled, after which no task may be scheduled.
+     */
+    public void releaseAll() {
+        for (ChunkKey key : holders.keySet()) {
+            World world = Bukkit.getWorld(key.world);
+            if (world != null) {
+                world.removePluginChunkTicket(key.x, key.z, plugin);
+            }
+        }
+        holders.clear();
+    }
+
+    /**
+     * Gets the number of chunks that are kept loaded.
+     *
+     * @return The number of held chunks
+     */
+    public int getHeldCount() {
+        return holders.size();
+    }
+
+    /**
+     * A chunk in a world.
+     */
+    static final class ChunkKey {
+        final UUID world;
+        final int x;
+        final int z;
+
+        ChunkKey(UUID world, int x, int z) {
+            this.world = world;
+            this.x = x;
+            this.z = z;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof ChunkKey other && x == other.x && z == other.z && world.equals(other.world);
+        }
+
+        @Override
+        public int hashCode() {
+            return (31 * world.hashCode() + x) * 31 + z;
+        }
+    }
+}
@@ -0,0 +1,293 @@
+package org.clockworx.scrollteleportation.teleporthandler;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.clockworx.scrollteleportation.ScrollTeleportation;
+import org.clockworx.scrollteleportation.files.ConfigSnapshot;
+import org.clockworx.scrollteleportation.tasks.SchedulerAdapter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps the chunks of the busiest fixed destinations loaded with plugin chunk tickets,
+ * so players arriving at spawn, hubs and other popular places never wait for a chunk load.
+ * Every teleport to a fixed destination counts as an arrival at its chunk. Arrivals lose
+ * half their weight every half-life, and a repeating task keeps tickets on the chunks with
+ * the highest weight, up to the configured number of tickets. Chunks that cool down or are
+ * pushed out by busier ones are released, the least recently used first on equal weight.
+ */
+public class HotChunks {
+
+    /**
+     * How many chunks are tracked per ticket at most, so quiet chunks cannot pile up.
+     */
+    private static final int TRACKED_PER_TICKET = 8;
+
+    /**
+     * Weight under which a chunk that holds no ticket is forgotten.
+     */
+    private static final double FORGET_WEIGHT = 0.1;
+
+    private final ScrollTeleportation plugin;
+    private final ChunkTickets tickets;
+    private final Map<ChunkTickets.ChunkKey, Entry> entries = new ConcurrentHashMap<>();
+
+    private final LongAdder warmArrivals = new LongAdder();
+    private final LongAdder coldArrivals = new LongAdder();
+    private final LongAdder ticketsAdded = new LongAdder();
+    private final LongAdder ticketsReleased = new LongAdder();
+
+    private SchedulerAdapter.Task checkTask;
+    private long checkInterval;
+
+    /**
+     * Creates a new HotChunks instance.
+     *
+     * @param plugin The plugin instance
+     * @param tickets The tickets shared with other users of kept chunks
+     */
+    HotChunks(ScrollTeleportation plugin, ChunkTickets tickets) {
+        this.plugin = plugin;
+        this.tickets = tickets;
+    }
+
+    /**
+     * Starts choosing the kept chunks.
+     */
+    public void start() {
+        if (checkTask != null) {
+            checkTask.cancel();
+        }
+        checkInterval = plugin.getMainConfig().getSnapshot().getHotChunkInterval();
+        checkTask = plugin.getSchedulerAdapter().runGlobalTimer(this::check, checkInterval, checkInterval);
+    }
+
+    /**
+     * Stops choosing the kept chunks and forgets every arrival.
+     * Called when the plugin is disabled, the tickets themselves are removed by {@link ChunkTickets#releaseAll()}.
+     */
+    public void stop() {
+        if (checkTask != null) {
+            checkTask.cancel();
+            checkTask = null;
+        }
+        entries.clear();
+    }
+
+    /**
+     * Counts an arrival at a fixed destination.
+     * May be called from any thread.
+     *
+     * @param target Where the player landed
+     */
+    public void recordArrival(Location target) {
+        ConfigSnapshot config = plugin.getMainConfig().getSnapshot();
+        World world = target.getWorld();
+        if (config.getHotChunkTickets() <= 0 || world == null) {
+            return;
+        }
+
+        ChunkTickets.ChunkKey key = new ChunkTickets.ChunkKey(world.getUID(), target.getBlockX() >> 4,
+                target.getBlockZ() >> 4);
+        Entry entry = entries.computeIfAbsent(key, Entry::new);
+        entry.arrive(System.nanoTime(), halfLifeNanos(config));
+        if (entry.held) {
+            warmArrivals.increment();
+        } else {
+            coldArrivals.increment();
+        }
+    }
+
+    private void check() {
+        ConfigSnapshot config = plugin.getMainConfig().getSnapshot();
+        if (config.getHotChunkInterval() != checkInterval) {
+            // The interval was changed by a reload
+            start();
+            return;
+        }
+
+        long now = System.nanoTime();
+        long halfLife = halfLifeNanos(config);
+        List<Entry> ranked = new ArrayList<>(entries.values());
+        for (Entry entry : ranked) {
+            entry.decay(now, halfLife);
+        }
+        // Highest weight first, most recent arrival first on equal weight
+        ranked.sort(Comparator.comparingDouble((Entry entry) -> entry.rankWeight)
+                .thenComparingLong(entry -> entry.lastArrival)
+                .reversed());
+
+        Set<Entry> wanted = new HashSet<>();
+        for (Entry entry : ranked) {
+            if (wanted.size() >= config.getHotChunkTickets() || entry.rankWeight < config.getHotChunkMinArrivals()) {
+                break;
+            }
+            wanted.add(entry);
+        }
+
+        int tracked = 0;
+        int trackLimit = Math.max(64, config.getHotChunkTickets() * TRACKED_PER_TICKET);
+        for (Entry entry : ranked) {
+            boolean keep = wanted.contains(entry);
+            if (entry.held && !keep) {
+                release(entry);
+            } else if (!entry.held && keep) {
+                hold(entry);
+            }
+            if (!keep && (entry.rankWeight < FORGET_WEIGHT || ++tracked > trackLimit)) {
+                entries.remove(entry.key, entry);
+            }
+        }
+    }
+
+    private void hold(Entry entry) {
+        World world = Bukkit.getWorld(entry.key.world);
+        if (world == null) {
+            entries.remove(entry.key, entry);
+            return;
+        }
+        entry.held = true;
+        tickets.acquire(world, entry.key.x, entry.key.z);
+        ticketsAdded.increment();
+    }
+
+    private void release(Entry entry) {
+        entry.held = false;
+        World world = Bukkit.getWorld(entry.key.world);
+        if (world != null) {
+            tickets.release(world, entry.key.x, entry.key.z);
+            ticketsReleased.increment();
+        }
+    }
+
+    private static long halfLifeNanos(ConfigSnapshot config) {
+        return config.getHotChunkHalfLife() * 1_000_000_000L;
+    }
+
+    /**
+     * Gets the number of chunks that hold a ticket.
+     *
+     * @return The number of kept chunks
+     */
+    public int getHeldCount() {
+        int held = 0;
+        for (Entry entry : entries.values()) {
+            if (entry.held) {
+                held++;
+            }
+        }
+        return held;
+    }
+
+    /**
+     * Gets the number of destination chunks whose arrivals are counted.
+     *
+     * @return The number of tracked chunks
+     */
+    public int getTrackedCount() {
+        return entries.size();
+    }
+
+    /**
+     * Gets the number of arrivals at chunks that were kept loaded.
+     *
+     * @return The warm arrival count
+     */
+    public long getWarmArrivals() {
+        return warmArrivals.sum();
+    }
+
+    /**
+     * Gets the number of arrivals at chunks that were not kept loaded.
+     *
+     * @return The cold arrival count
+     */
+    public long getColdArrivals() {
+        return coldArrivals.sum();
+    }
+
+    /**
+     * Gets the share of arrivals at chunks that were kept loaded.
+     *
+     * @return The warm rate between 0 and 1, or 0 if there were none
+     */
+    public double getWarmRate() {
+        long total = getWarmArrivals() + getColdArrivals();
+        return total == 0 ? 0 : (double) getWarmArrivals() / total;
+    }
+
+    /**
+     * Gets the number of chunk tickets added.
+     *
+     * @return The added ticket count
+     */
+    public long getTicketsAdded() {
+        return ticketsAdded.sum();
+    }
+
+    /**
+     * Gets the number of chunk tickets released.
+     *
+     * @return The released ticket count
+     */
+    public long getTicketsReleased() {
+        return ticketsReleased.sum();
+    }
+
+    /**
+     * Resets all counters.
+     */
+    public void resetCounters() {
+        warmArrivals.reset();
+        coldArrivals.reset();
+        ticketsAdded.reset();
+        ticketsReleased.reset();
+    }
+
+    /**
+     * The arrivals at one chunk, weighted by how recent they are.
+     */
+    private static final class Entry {
+        private final ChunkTickets.ChunkKey key;
+        private double weight;
+        private long weighedAt = System.nanoTime();
+        private volatile long lastArrival;
+        private volatile boolean held;
+
+        /**
+         * The weight as of the last check, so sorting sees values that do not change.
+         */
+        private double rankWeight;
+
+        private Entry(ChunkTickets.ChunkKey key) {
+            this.key = key;
+        }
+
+        private synchronized void arrive(long now, long halfLife) {
+            decayTo(now, halfLife);
+            weight += 1;
+            lastArrival = now;
+        }
+
+        private synchronized void decay(long now, long halfLife) {
+            decayTo(now, halfLife);
+            rankWeight = weight;
+        }
+
+        private void decayTo(long now, long halfLife) {
+            long elapsed = now - weighedAt;
+            if (elapsed > 0) {
+                weight *= Math.pow(0.5, (double) elapsed / halfLife);
+                weighedAt = now;
+            }
+        }
+    }
+}
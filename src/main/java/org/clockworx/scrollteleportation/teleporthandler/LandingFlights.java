@@ -0,0 +1,249 @@
+package org.clockworx.scrollteleportation.teleporthandler;
+
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.clockworx.scrollteleportation.ScrollTeleportation;
+import org.clockworx.scrollteleportation.storage.ScrollDestination;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Shares the chunk load and safe spot search of teleports to the same destination chunk.
+ * When many players use the same scroll at once, the first one starts a flight and every
+ * teleport that starts while it is in the air joins it, so the chunk is loaded and searched
+ * once for all of them. Players who joined another teleport's flight are spread out within
+ * the block of the spot so they do not all stand on the exact same point.
+ */
+public class LandingFlights {
+
+    /**
+     * How far players sharing a spot are moved from the center of its block, in blocks.
+     * A player is 0.6 blocks wide, so this keeps them inside the block that was checked.
+     */
+    private static final double JITTER = 0.2;
+
+    /**
+     * Number of flights above which finished and abandoned flights are swept.
+     */
+    private static final int SWEEP_THRESHOLD = 256;
+
+    /**
+     * How long a flight whose spot was never searched for is kept, in nanoseconds.
+     */
+    private static final long ABANDONED_AFTER = TimeUnit.MINUTES.toNanos(1);
+
+    private final ScrollTeleportation plugin;
+    private final TeleportHandler handler;
+    private final Map<Key, Flight> flights = new ConcurrentHashMap<>();
+
+    private final LongAdder started = new LongAdder();
+    private final LongAdder joined = new LongAdder();
+
+    /**
+     * Creates a new LandingFlights instance.
+     *
+     * @param plugin The plugin instance
+     * @param handler The handler whose landing engine searches the spots
+     */
+    LandingFlights(ScrollTeleportation plugin, TeleportHandler handler) {
+        this.plugin = plugin;
+        this.handler = handler;
+    }
+
+    /**
+     * Joins the flight to a destination's chunk, starting one if none is in the air.
+     * May be called from any thread.
+     *
+     * @param destination The destination
+     * @param target The resolved target of the teleport
+     * @param session The teleport joining the flight
+     * @return The flight
+     */
+    Flight join(ScrollDestination destination, Location target, TeleportSession session) {
+        long now = System.nanoTime();
+        if (flights.size() > SWEEP_THRESHOLD) {
+            flights.values().removeIf(flight -> flight.isStale(now));
+        }
+
+        Key key = new Key(destination, target.getWorld(), target.getBlockX() >> 4, target.getBlockZ() >> 4);
+        return flights.compute(key, (k, current) -> {
+            if (current != null && !current.isStale(now)) {
+                joined.increment();
+                return current;
+            }
+            started.increment();
+            return new Flight(key, target, now, session);
+        });
+    }
+
+    /**
+     * Moves a shared spot a little, so players sharing it do not stand on the same point.
+     * Spots are not always block centers, so the spot is centered in its block first.
+     *
+     * @param spot The spot found by the flight
+     * @return A copy of the spot within the same block
+     */
+    static Location jitter(Location spot) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Location centered = spot.clone();
+        centered.setX(spot.getBlockX() + 0.5 + random.nextDouble(-JITTER, JITTER));
+        centered.setZ(spot.getBlockZ() + 0.5 + random.nextDouble(-JITTER, JITTER));
+        return centered;
+    }
+
+    /**
+     * Gets the number of flights in the air or recently landed.
+     *
+     * @return The number of flights
+     */
+    public int getFlightCount() {
+        return flights.size();
+    }
+
+    /**
+     * Gets the number of teleports that started a flight.
+     *
+     * @return The started count
+     */
+    public long getStarted() {
+        return started.sum();
+    }
+
+    /**
+     * Gets the number of teleports that joined a flight already in the air.
+     *
+     * @return The joined count
+     */
+    public long getJoined() {
+        return joined.sum();
+    }
+
+    /**
+     * Resets all counters.
+     */
+    public void resetCounters() {
+        started.reset();
+        joined.reset();
+    }
+
+    /**
+     * A destination's chunk.
+     */
+    private static final class Key {
+        private final ScrollDestination destination;
+        private final World world;
+        private final int x;
+        private final int z;
+
+        private Key(ScrollDestination destination, World world, int x, int z) {
+            this.destination = destination;
+            this.world = world;
+            this.x = x;
+            this.z = z;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key other && destination == other.destination && world == other.world
+                    && x == other.x && z == other.z;
+        }
+
+        @Override
+        public int hashCode() {
+            return ((31 * System.identityHashCode(destination) + world.hashCode()) * 31 + x) * 31 + z;
+        }
+    }
+
+    /**
+     * One chunk load and spot search, shared by every teleport that joined it.
+     * The flight leaves the table once its spot is known, teleports that joined it keep the result.
+     */
+    final class Flight {
+        private final Key key;
+        private final Location target;
+        private final long startedAt;
+        private final TeleportSession starter;
+        private volatile CompletableFuture<Chunk> chunk;
+        private volatile CompletableFuture<Location> landing;
+
+        private Flight(Key key, Location target, long startedAt, TeleportSession starter) {
+            this.key = key;
+            this.target = target;
+            this.startedAt = startedAt;
+            this.starter = starter;
+        }
+
+        /**
+         * Checks if a teleport started this flight rather than joining it.
+         *
+         * @param session The teleport
+         * @return True if the teleport started the flight
+         */
+        boolean isStartedBy(TeleportSession session) {
+            return starter == session;
+        }
+
+        /**
+         * Loads the destination chunk, once for the whole flight.
+         *
+         * @return A future completed with the chunk
+         */
+        CompletableFuture<Chunk> loadChunk() {
+            CompletableFuture<Chunk> load;
+            synchronized (this) {
+                if (chunk != null) {
+                    return chunk;
+                }
+                load = target.getWorld()
+                        .getChunkAtAsync(key.x, key.z)
+                        .orTimeout(plugin.getMainConfig().getChunkLoadTimeout(), TimeUnit.MILLISECONDS);
+                chunk = load;
+            }
+            // Registered outside the lock, the callback may run right away and touches the table
+            load.whenComplete((loaded, error) -> {
+                if (error != null) {
+                    flights.remove(key, this);
+                }
+            });
+            return load;
+        }
+
+        /**
+         * Searches the loaded chunk for a safe spot, once for the whole flight.
+         *
+         * @param loaded The chunk returned by {@link #loadChunk()}
+         * @param surface True if the target's height is only a starting point
+         * @return A future completed with the spot, or null if the chunk has none
+         */
+        CompletableFuture<Location> findLanding(Chunk loaded, boolean surface) {
+            CompletableFuture<Location> search;
+            synchronized (this) {
+                if (landing != null) {
+                    return landing;
+                }
+                search = handler.getLandingEngine().findAsync(loaded, target, surface);
+                landing = search;
+            }
+            search.whenComplete((spot, error) -> flights.remove(key, this));
+            return search;
+        }
+
+        private boolean isStale(long now) {
+            CompletableFuture<Chunk> loading = chunk;
+            if (loading != null && loading.isCompletedExceptionally()) {
+                return true;
+            }
+            CompletableFuture<Location> searching = landing;
+            if (searching != null) {
+                return searching.isDone();
+            }
+            return now - startedAt > ABANDONED_AFTER;
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package org.clockworx.scrollteleportation.teleporthandler;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.clockworx.scrollteleportation.ScrollTeleportation;
+import org.clockworx.scrollteleportation.exceptions.DestinationInvalidException;
+import org.clockworx.scrollteleportation.files.BlockedRegions;
+import org.clockworx.scrollteleportation.files.ConfigSnapshot;
+import org.clockworx.scrollteleportation.files.LandingRules;
+import org.clockworx.scrollteleportation.storage.Scroll;
+import org.clockworx.scrollteleportation.storage.ScrollDestination;
+import org.clockworx.scrollteleportation.tasks.SchedulerAdapter;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps safe spots ready for random destinations, so activating a random scroll
+ * does not have to load or search a chunk before the teleport can go ahead.
+ * A repeating task tops up each pool while the server has spare tick time;
+ * teleports fall back to a live search when a pool is empty.
+ * Pools are refilled from the global timer and taken from on the player's thread,
+ * so they are safe to use from several region threads on Folia.
+ */
+public class LandingPool {
+
+    private final ScrollTeleportation plugin;
+    private final TeleportHandler handler;
+    private final Map<ScrollDestination, Spots> pools = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder refilled = new LongAdder();
+    private final LongAdder refillFailures = new LongAdder();
+    private long countingSince = System.nanoTime();
+
+    private SchedulerAdapter.Task refillTask;
+    private long refillInterval;
+    private LandingRules poolRules;
+    private BlockedRegions poolRegions;
+
+    /**
+     * Creates a new LandingPool instance.
+     *
+     * @param plugin The plugin instance
+     * @param handler The handler whose landing engine checks the spots
+     */
+    LandingPool(ScrollTeleportation plugin, TeleportHandler handler) {
+        this.plugin = plugin;
+        this.handler = handler;
+    }
+
+    /**
+     * Starts refilling the pools.
+     */
+    public void start() {
+        stop();
+        refillInterval = plugin.getMainConfig().getSnapshot().getLandingPoolInterval();
+        refillTask = plugin.getSchedulerAdapter().runGlobalTimer(this::refill, refillInterval, refillInterval);
+    }
+
+    /**
+     * Stops refilling the pools and drops every pooled spot.
+     */
+    public void stop() {
+        if (refillTask != null) {
+            refillTask.cancel();
+            refillTask = null;
+        }
+        pools.clear();
+    }
+
+    /**
+     * Takes a ready spot for a random destination.
+     *
+     * @param destination The destination
+     * @return A safe spot, or null if none is ready
+     */
+    public Location poll(ScrollDestination destination) {
+        Spots spots = pools.get(destination);
+        Location spot = spots != null ? spots.ready.poll() : null;
+        if (spot == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return spot;
+    }
+
+    /**
+     * Sets a ready spot aside for a player who is about to use a scroll.
+     * Unlike {@link #poll(ScrollDestination)} this does not count as a hit or miss.
+     *
+     * @param destination The destination
+     * @return A safe spot, or null if none is ready
+     */
+    Location reserve(ScrollDestination destination) {
+        Spots spots = pools.get(destination);
+        return spots != null ? spots.ready.poll() : null;
+    }
+
+    /**
+     * Returns a reserved spot that was not used.
+     * The spot is dropped if the pool is full or the destination was reloaded.
+     *
+     * @param destination The destination
+     * @param spot The spot taken by {@link #reserve(ScrollDestination)}
+     */
+    void restore(ScrollDestination destination, Location spot) {
+        Spots spots = pools.get(destination);
+        if (spots != null && spots.ready.size() < plugin.getMainConfig().getSnapshot().getLandingPoolSize()) {
+            spots.ready.add(spot);
+        }
+    }
+
+    private void refill() {
+        ConfigSnapshot config = plugin.getMainConfig().getSnapshot();
+        if (config.getLandingPoolInterval() != refillInterval) {
+            // The interval was changed by a reload
+            start();
+            return;
+        }
+        if (config.getLandingPoolSize() <= 0) {
+            pools.clear();
+            return;
+        }
+        if (config.getLandingRules() != poolRules || config.getBlockedRegions() != poolRegions) {
+            // Spots were checked against the rules and regions of an older configuration
+            pools.clear();
+            poolRules = config.getLandingRules();
+            poolRegions = config.getBlockedRegions();
+        }
+        // Folia has no server-wide tick time, each region ticks on its own
+        if (!plugin.getSchedulerAdapter().isRegionized()
+                && Bukkit.getAverageTickTime() > config.getLandingPoolTickBudget()) {
+            return;
+        }
+
+        Set<ScrollDestination> loaded = new HashSet<>();
+        int started = 0;
+        for (Scroll scroll : plugin.getScrollStorage().getLoadedScrolls()) {
+            ScrollDestination destination = scroll.getDestination();
+            if (destination == null || !destination.isSurfaceDestination()) {
+                continue;
+            }
+            loaded.add(destination);
+
+            Spots spots = pools.computeIfAbsent(destination, key -> new Spots());
+            if (started < config.getLandingPoolRefills() && !spots.refilling
+                    && spots.ready.size() < config.getLandingPoolSize()) {
+                refill(destination, spots, config);
+                started++;
+            }
+        }
+
+        // Drop the pools of destinations that were reloaded or removed
+        pools.keySet().retainAll(loaded);
+    }
+
+    private void refill(ScrollDestination destination, Spots spots, ConfigSnapshot config) {
+        Location target;
+        try {
+            target = destination.getTargetLocation();
+        } catch (DestinationInvalidException e) {
+            refillFailures.increment();
+            return;
+        }
+
+        spots.refilling = true;
+        target.getWorld()
+                .getChunkAtAsync(target.getBlockX() >> 4, target.getBlockZ() >> 4)
+                .orTimeout(config.getChunkLoadTimeout(), TimeUnit.MILLISECONDS)
+                .thenCompose(chunk -> handler.getLandingEngine().findAsync(chunk, target, true))
+                .whenComplete((spot, error) -> {
+                    if (spot == null) {
+                        refillFailures.increment();
+                    } else if (pools.get(destination) == spots
+                            && spots.ready.size() < plugin.getMainConfig().getSnapshot().getLandingPoolSize()) {
+                        spots.ready.add(spot);
+                        refilled.increment();
+                    }
+                    spots.refilling = false;
+                });
+    }
+
+    /**
+     * Gets the number of spots ready across all pools.
+     *
+     * @return The number of pooled spots
+     */
+    public int getPooledSpots() {
+        int total = 0;
+        for (Spots spots : pools.values()) {
+            total += spots.ready.size();
+        }
+        return total;
+    }
+
+    /**
+     * Gets the number of random teleports that took a pooled spot.
+     *
+     * @return The hit count
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of random teleports that had to search for a spot.
+     *
+     * @return The miss count
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Gets the share of random teleports that took a pooled spot.
+     *
+     * @return The hit rate between 0 and 1, or 0 if there were none
+     */
+    public double getHitRate() {
+        long total = getHits() + getMisses();
+        return total == 0 ? 0 : (double) getHits() / total;
+    }
+
+    /**
+     * Gets the number of spots added to the pools.
+     *
+     * @return The refill count
+     */
+    public long getRefilled() {
+        return refilled.sum();
+    }
+
+    /**
+     * Gets the number of refill searches that found no safe spot.
+     *
+     * @return The failed refill count
+     */
+    public long getRefillFailures() {
+        return refillFailures.sum();
+    }
+
+    /**
+     * Gets how many spots are added to the pools per minute.
+     *
+     * @return The refill rate since the counters were last reset
+     */
+    public double getRefillsPerMinute() {
+        double minutes = (System.nanoTime() - countingSince) / 60_000_000_000.0;
+        return minutes <= 0 ? 0 : getRefilled() / minutes;
+    }
+
+    /**
+     * Resets all counters.
+     */
+    public void resetCounters() {
+        hits.reset();
+        misses.reset();
+        refilled.reset();
+        refillFailures.reset();
+        countingSince = System.nanoTime();
+    }
+
+    /**
+     * The spots kept for one destination.
+     */
+    private static final class Spots {
+        private final Queue<Location> ready = new ConcurrentLinkedQueue<>();
+        private volatile boolean refilling;
+    }
+}
@@ -0,0 +1,263 @@
+package org.clockworx.scrollteleportation.teleporthandler;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.clockworx.scrollteleportation.ScrollTeleportation;
+import org.clockworx.scrollteleportation.exceptions.DestinationInvalidException;
+import org.clockworx.scrollteleportation.files.ConfigSnapshot;
+import org.clockworx.scrollteleportation.storage.ResolvedScroll;
+import org.clockworx.scrollteleportation.storage.ScrollDestination;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Prepares a scroll's destination while the player holds it, before it is used.
+ * Fixed destinations have their chunk loaded and kept loaded, random destinations get a
+ * safe spot set aside from the {@link LandingPool}. What was prepared is let go when the
+ * player switches to another item, drops the scroll or moves it away in their inventory,
+ * leaves or finishes a teleport.
+ * Prefetches are limited per player and per second across the server, so scrolling
+ * through the hotbar cannot flood the chunk system.
+ */
+public class Prefetcher {
+
+    private final ScrollTeleportation plugin;
+    private final TeleportHandler handler;
+    private final Map<UUID, Prefetch> prefetches = new ConcurrentHashMap<>();
+    private final Map<UUID, Long> lastPrefetch = new ConcurrentHashMap<>();
+
+    private final AtomicInteger windowCount = new AtomicInteger();
+    private volatile long windowStart = System.nanoTime();
+
+    private final LongAdder started = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+    private final LongAdder used = new LongAdder();
+    private final LongAdder released = new LongAdder();
+
+    /**
+     * Creates a new Prefetcher instance.
+     *
+     * @param plugin The plugin instance
+     * @param handler The handler whose landing pool and chunk tickets are used
+     */
+    Prefetcher(ScrollTeleportation plugin, TeleportHandler handler) {
+        this.plugin = plugin;
+        this.handler = handler;
+    }
+
+    /**
+     * Prepares the destination of the item a player now holds,
+     * and lets go of what was prepared for the previous one.
+     * Must be called on the thread that owns the player.
+     *
+     * @param player The player
+     * @param item The item now in the player's main hand
+     */
+    public void held(Player player, ItemStack item) {
+        ConfigSnapshot config = plugin.getMainConfig().getSnapshot();
+        if (!config.isPrefetch() && prefetches.isEmpty()) {
+            return;
+        }
+
+        ScrollDestination destination = null;
+        if (config.isPrefetch()) {
+            ResolvedScroll resolved = plugin.getScrollStorage().getItemResolver().resolve(item);
+            destination = resolved != null ? resolved.getScroll().getDestination() : null;
+        }
+
+        Prefetch current = prefetches.get(player.getUniqueId());
+        if (current != null && current.destination == destination) {
+            return;
+        }
+        release(player);
+        if (destination == null || handler.isTeleporting(player)) {
+            return;
+        }
+
+        Prefetch prefetch = new Prefetch(destination);
+        if (destination.isSurfaceDestination()) {
+            prefetch.spot = handler.getLandingPool().reserve(destination);
+            if (prefetch.spot == null) {
+                return;
+            }
+        } else {
+            Location target;
+            try {
+                target = destination.getTargetLocation();
+            } catch (DestinationInvalidException e) {
+                return;
+            }
+            prefetch.world = target.getWorld();
+            prefetch.chunkX = target.getBlockX() >> 4;
+            prefetch.chunkZ = target.getBlockZ() >> 4;
+        }
+        // Only prefetches that would start count against the limits
+        if (!tryAcquire(player.getUniqueId(), config)) {
+            throttled.increment();
+            if (prefetch.spot != null) {
+                handler.getLandingPool().restore(destination, prefetch.spot);
+            }
+            return;
+        }
+        if (prefetch.world != null) {
+            handler.getChunkTickets().acquire(prefetch.world, prefetch.chunkX, prefetch.chunkZ);
+        }
+        prefetches.put(player.getUniqueId(), prefetch);
+        started.increment();
+    }
+
+    /**
+     * Checks the per-player cooldown and the server-wide rate.
+     */
+    private boolean tryAcquire(UUID playerId, ConfigSnapshot config) {
+        long now = System.nanoTime();
+        Long last = lastPrefetch.get(playerId);
+        if (last != null && now - last < config.getPrefetchCooldown() * 1_000_000L) {
+            return false;
+        }
+
+        if (now - windowStart >= 1_000_000_000L) {
+            windowStart = now;
+            windowCount.set(0);
+        }
+        if (windowCount.incrementAndGet() > config.getPrefetchRate()) {
+            return false;
+        }
+        lastPrefetch.put(playerId, now);
+        return true;
+    }
+
+    /**
+     * Takes what was prepared for a player who uses a scroll.
+     * Must be called on the thread that owns the player.
+     *
+     * @param player The player
+     * @param destination The destination of the scroll being used
+     * @return The spot set aside for a random destination, or null if there is none
+     */
+    public Location claim(Player player, ScrollDestination destination) {
+        Prefetch prefetch = prefetches.get(player.getUniqueId());
+        if (prefetch == null || prefetch.destination != destination) {
+            return null;
+        }
+        used.increment();
+        Location spot = prefetch.spot;
+        prefetch.spot = null;
+        return spot;
+    }
+
+    /**
+     * Lets go of what was prepared for a player.
+     * Must be called on the thread that owns the player.
+     *
+     * @param player The player
+     */
+    public void release(Player player) {
+        Prefetch prefetch = prefetches.remove(player.getUniqueId());
+        if (prefetch == null) {
+            return;
+        }
+        if (prefetch.spot != null) {
+            handler.getLandingPool().restore(prefetch.destination, prefetch.spot);
+        }
+        if (prefetch.world != null) {
+            handler.getChunkTickets().release(prefetch.world, prefetch.chunkX, prefetch.chunkZ);
+        }
+        released.increment();
+    }
+
+    /**
+     * Forgets a player who left the server.
+     *
+     * @param player The player
+     */
+    public void forget(Player player) {
+        release(player);
+        lastPrefetch.remove(player.getUniqueId());
+    }
+
+    /**
+     * Forgets every prefetch.
+     * Called when the plugin is disabled, the tickets themselves are removed by {@link ChunkTickets#releaseAll()}.
+     */
+    public void stop() {
+        prefetches.clear();
+        lastPrefetch.clear();
+    }
+
+    /**
+     * Gets the number of players whose destination is prepared.
+     *
+     * @return The number of active prefetches
+     */
+    public int getActiveCount() {
+        return prefetches.size();
+    }
+
+    /**
+     * Gets the number of prefetches started.
+     *
+     * @return The started count
+     */
+    public long getStarted() {
+        return started.sum();
+    }
+
+    /**
+     * Gets the number of prefetches skipped by the per-player or server-wide limit.
+     *
+     * @return The throttled count
+     */
+    public long getThrottled() {
+        return throttled.sum();
+    }
+
+    /**
+     * Gets the number of teleports that found their destination prepared.
+     *
+     * @return The used count
+     */
+    public long getUsed() {
+        return used.sum();
+    }
+
+    /**
+     * Gets the number of prefetches let go of.
+     *
+     * @return The released count
+     */
+    public long getReleased() {
+        return released.sum();
+    }
+
+    /**
+     * Resets all counters.
+     */
+    public void resetCounters() {
+        started.reset();
+        throttled.reset();
+        used.reset();
+        released.reset();
+    }
+
+    /**
+     * What was prepared for one player.
+     */
+    private static final class Prefetch {
+        private final ScrollDestination destination;
+        private Location spot;
+        private World world;
+        private int chunkX;
+        private int chunkZ;
+
+        private Prefetch(ScrollDestination destination) {
+            this.destination = destination;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package org.clockworx.scrollteleportation.teleporthandler;
+
+import org.bukkit.Chunk;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.clockworx.scrollteleportation.ScrollTeleportation;
+import org.clockworx.scrollteleportation.files.LandingRules;
+import org.clockworx.scrollteleportation.tasks.SchedulerAdapter;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Finds safe spots for players to land on.
+ * The destination chunk is copied into a {@link ChunkSnapshot} on the thread that owns it and
+ * searched on a worker thread, so no block is read from the live world. The search starts
+ * at the target column and moves outwards within the same chunk, reusing the one snapshot
+ * for every candidate.
+ */
+public class SafeLandingEngine {
+
+    private final ScrollTeleportation plugin;
+
+    /**
+     * Creates a new SafeLandingEngine instance.
+     *
+     * @param plugin The plugin instance
+     */
+    public SafeLandingEngine(ScrollTeleportation plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Searches a loaded chunk for a safe spot near a target.
+     * May be called from any thread; the snapshot is taken on the thread that owns the chunk
+     * and the returned future completes on a worker thread.
+     *
+     * @param chunk The loaded chunk holding the target
+     * @param target The point to land near
+     * @param surface True to land on the top of the column, false to stay close to the target's height
+     * @return A future completed with the landing location, or null if the chunk has no safe spot
+     *         near the target; completed exceptionally if the search times out
+     */
+    public CompletableFuture<Location> findAsync(Chunk chunk, Location target, boolean surface) {
+        LandingRules rules = plugin.getMainConfig().getSnapshot().getLandingRules();
+        Area area = new Area(chunk.getWorld(), rules);
+        SchedulerAdapter scheduler = plugin.getSchedulerAdapter();
+
+        CompletableFuture<Location> result = new CompletableFuture<>();
+        scheduler.runAt(target, () -> {
+            ChunkSnapshot snapshot = chunk.getChunkSnapshot(true, false, false);
+            scheduler.runAsync(() -> {
+                try {
+                    result.complete(find(snapshot, area, rules, target, surface));
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        });
+        return result.orTimeout(rules.getSearchTimeout(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Searches a chunk snapshot for a safe spot near a target.
+     * Only reads the snapshot, so it may run on any thread.
+     *
+     * @param snapshot The snapshot of the chunk holding the target
+     * @param area The bounds of the snapshot's world
+     * @param rules The rules a spot must meet
+     * @param target The point to land near
+     * @param surface True to land on the top of the column, false to stay close to the target's height
+     * @return The landing location, or null if the chunk has no safe spot near the target
+     */
+    static Location find(ChunkSnapshot snapshot, Area area, LandingRules rules, Location target, boolean surface) {
+        int targetX = target.getBlockX() & 15;
+        int targetZ = target.getBlockZ() & 15;
+        int baseX = target.getBlockX() - targetX;
+        int baseZ = target.getBlockZ() - targetZ;
+
+        for (int radius = 0; radius <= rules.getSearchRadius(); radius++) {
+            for (int dx = -radius; dx <= radius; dx++) {
+                for (int dz = -radius; dz <= radius; dz++) {
+                    // Only visit the ring at this radius
+                    if (Math.max(Math.abs(dx), Math.abs(dz)) != radius) {
+                        continue;
+                    }
+                    int x = targetX + dx;
+                    int z = targetZ + dz;
+                    if (x < 0 || x > 15 || z < 0 || z > 15) {
+                        continue;
+                    }
+
+                    int y = surface
+                            ? findSurface(snapshot, area, rules, x, z)
+                            : findNearest(snapshot, area, rules, x, target.getBlockY(), z);
+                    if (y == Integer.MIN_VALUE) {
+                        continue;
+                    }
+
+                    if (radius == 0) {
+                        Location landing = target.clone();
+                        landing.setY(y);
+                        return landing;
+                    }
+                    return new Location(area.world, baseX + x + 0.5, y, baseZ + z + 0.5,
+                            target.getYaw(), target.getPitch());
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Finds the highest safe spot in a column, below the roof if it is avoided.
+     */
+    private static int findSurface(ChunkSnapshot snapshot, Area area, LandingRules rules, int x, int z) {
+        int top = Math.min(snapshot.getHighestBlockYAt(x, z) + 1, area.roofY - 1);
+        for (int y = top; y > area.minY; y--) {
+            if (isSafe(snapshot, area, rules, x, y, z)) {
+                return y;
+            }
+        }
+        return Integer.MIN_VALUE;
+    }
+
+    /**
+     * Finds the safe spot in a column closest to a height, trying above before below.
+     */
+    private static int findNearest(ChunkSnapshot snapshot, Area area, LandingRules rules, int x, int targetY, int z) {
+        // Only search onto the roof if the target is already on it
+        int maxY = targetY >= area.roofY ? area.maxY - 1 : area.roofY - 1;
+        for (int offset = 0; targetY + offset <= maxY || targetY - offset > area.minY; offset++) {
+            int above = targetY + offset;
+            if (above > area.minY && above <= maxY && isSafe(snapshot, area, rules, x, above, z)) {
+                return above;
+            }
+            int below = targetY - offset;
+            if (offset > 0 && below > area.minY && below <= maxY && isSafe(snapshot, area, rules, x, below, z)) {
+                return below;
+            }
+        }
+        return Integer.MIN_VALUE;
+    }
+
+    private static boolean isSafe(ChunkSnapshot snapshot, Area area, LandingRules rules, int x, int y, int z) {
+        if (!rules.canStandOn(snapshot.getBlockType(x, y - 1, z))) {
+            return false;
+        }
+        for (int i = 0; i < rules.getHeadroom() && y + i < area.maxY; i++) {
+            if (!rules.canStandIn(snapshot.getBlockData(x, y + i, z))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The height bounds of a world, read when a search starts.
+     */
+    static final class Area {
+
+        private final World world;
+        private final int minY;
+        private final int maxY;
+        private final int roofY;
+
+        /**
+         * Reads the bounds of a world.
+         *
+         * @param world The world
+         * @param rules The landing rules, deciding whether the roof is avoided
+         */
+        Area(World world, LandingRules rules) {
+            this.world = world;
+            this.minY = world.getMinHeight();
+            this.maxY = world.getMaxHeight();
+            this.roofY = rules.isAvoidRoof() && world.hasCeiling()
+                    ? Math.min(maxY, minY + world.getLogicalHeight())
+                    : maxY;
+        }
+    }
+}
@@ -1,20 +1,21 @@
 package org.clockworx.scrollteleportation.teleporthandler;
 
-import net.kyori.adventure.text.Component;
-import net.kyori.adventure.text.format.NamedTextColor;
 import org.bukkit.Bukkit;
-import org.bukkit.Location;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.scheduler.BukkitTask;
 import org.clockworx.scrollteleportation.ScrollTeleportation;
+import org.clockworx.scrollteleportation.exceptions.DestinationInvalidException;
+import org.clockworx.scrollteleportation.files.CancelTrigger;
+import org.clockworx.scrollteleportation.files.LanguageString;
+import org.clockworx.scrollteleportation.listeners.ActivationGuards;
+import org.clockworx.scrollteleportation.listeners.WarmupListeners;
+import org.clockworx.scrollteleportation.storage.ResolvedScroll;
 import org.clockworx.scrollteleportation.storage.Scroll;
-import org.clockworx.scrollteleportation.storage.ScrollStorage;
+import org.clockworx.scrollteleportation.tasks.TeleportScheduler;
 
-import java.util.HashMap;
 import java.util.Map;
-import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 
 /**
@@ -24,8 +25,16 @@ import java.util.logging.Level;
 public class TeleportHandler {
 
     private final ScrollTeleportation plugin;
-    private final Map<UUID, Integer> taskIDs;
-    private final Map<UUID, Boolean> readyPlayers;
+    private final Map<UUID, TeleportSession> sessions;
+    private final SafeLandingEngine landingEngine;
+    private final LandingPool landingPool;
+    private final ChunkTickets chunkTickets;
+    private final HotChunks hotChunks;
+    private final Prefetcher prefetcher;
+    private final LandingFlights landingFlights;
+    private final TeleportScheduler scheduler;
+    private final WarmupListeners warmupListeners;
+    private final ActivationGuards activationGuards;
 
     /**
      * Creates a new TeleportHandler instance.
@@ -34,54 +43,185 @@ public class TeleportHandler {
      */
     public TeleportHandler(ScrollTeleportation plugin) {
         this.plugin = plugin;
-        this.taskIDs = new HashMap<>();
-        this.readyPlayers = new HashMap<>();
+        this.sessions = new ConcurrentHashMap<>();
+        this.landingEngine = new SafeLandingEngine(plugin);
+        this.landingPool = new LandingPool(plugin, this);
+        this.chunkTickets = new ChunkTickets(plugin);
+        this.hotChunks = new HotChunks(plugin, chunkTickets);
+        this.prefetcher = new Prefetcher(plugin, this);
+        this.landingFlights = new LandingFlights(plugin, this);
+        this.scheduler = new TeleportScheduler(plugin);
+        this.warmupListeners = new WarmupListeners(plugin);
+        this.activationGuards = new ActivationGuards(plugin);
     }
 
     /**
-     * Checks if a player is ready to be teleported.
+     * Checks if a player has a teleport that has not ended yet.
      * 
      * @param player The player to check
-     * @return True if the player is ready
+     * @return True if the player is teleporting
      */
-    public boolean isReady(Player player) {
-        return readyPlayers.getOrDefault(player.getUniqueId(), false);
+    public boolean isTeleporting(Player player) {
+        TeleportSession session = sessions.get(player.getUniqueId());
+        return session != null && session.isActive();
     }
 
     /**
-     * Sets whether a player is ready to be teleported.
+     * Starts a teleport for a player, replacing any teleport they already have.
+     * Resolves the destination right away; the scheduler finishes the teleport
+     * once the scroll's delay is over.
      * 
-     * @param player The player to set
-     * @param ready Whether the player is ready
+     * @param player The player to teleport
+     * @param scroll The scroll being used
+     * @param scrollItem The scroll item being used
+     * @return The started session
+     * @throws DestinationInvalidException if the destination cannot be resolved
      */
-    public void setReady(Player player, boolean ready) {
-        readyPlayers.put(player.getUniqueId(), ready);
+    public TeleportSession start(Player player, Scroll scroll, ItemStack scrollItem)
+            throws DestinationInvalidException {
+        TeleportSession session = new TeleportSession(plugin, this, player, scroll, scrollItem);
+        session.resolve();
+
+        TeleportSession previous = sessions.put(player.getUniqueId(), session);
+        if (previous != null) {
+            previous.cancel();
+        }
+        scheduler.schedule(session, scroll.getTeleportDelay() * 20L);
+        return session;
     }
 
     /**
-     * Teleports a player to a location.
+     * Gets the teleport session of a player.
      * 
-     * @param player The player to teleport
-     * @param location The location to teleport to
-     * @param scrollItem The scroll item being used
+     * @param player The player
+     * @return The session, or null if the player is not teleporting
      */
-    public void teleport(Player player, Location location, ItemStack scrollItem) {
-        if (location == null) {
-            player.sendMessage(Component.text("Invalid destination!", NamedTextColor.RED));
-            return;
+    public TeleportSession getSession(Player player) {
+        return sessions.get(player.getUniqueId());
+    }
+
+    /**
+     * Gets the number of teleports that have not ended yet.
+     * 
+     * @return The number of sessions
+     */
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    /**
+     * Gets the engine that picks safe spots at destinations.
+     * 
+     * @return The landing engine
+     */
+    public SafeLandingEngine getLandingEngine() {
+        return landingEngine;
+    }
+
+    /**
+     * Gets the scheduler that finishes teleports once their delay is over.
+     * 
+     * @return The teleport scheduler
+     */
+    public TeleportScheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Gets the listeners that are only registered while a teleport is counting down.
+     * 
+     * @return The warmup listeners
+     */
+    public WarmupListeners getWarmupListeners() {
+        return warmupListeners;
+    }
+
+    /**
+     * Gets the checks a player must pass before a scroll starts a teleport.
+     * 
+     * @return The activation guards
+     */
+    public ActivationGuards getActivationGuards() {
+        return activationGuards;
+    }
+
+    /**
+     * Gets the pools of safe spots kept ready for random destinations.
+     * 
+     * @return The landing pool
+     */
+    public LandingPool getLandingPool() {
+        return landingPool;
+    }
+
+    /**
+     * Gets the chunks of busy destinations that are kept loaded.
+     * 
+     * @return The hot chunks
+     */
+    public HotChunks getHotChunks() {
+        return hotChunks;
+    }
+
+    /**
+     * Gets the chunk tickets shared by everything that keeps chunks loaded.
+     * 
+     * @return The chunk tickets
+     */
+    public ChunkTickets getChunkTickets() {
+        return chunkTickets;
+    }
+
+    /**
+     * Gets the destinations prepared for players holding a scroll.
+     * 
+     * @return The prefetcher
+     */
+    public Prefetcher getPrefetcher() {
+        return prefetcher;
+    }
+
+    /**
+     * Gets the chunk loads and spot searches shared by teleports to the same chunk.
+     * 
+     * @return The landing flights
+     */
+    public LandingFlights getLandingFlights() {
+        return landingFlights;
+    }
+
+    /**
+     * Runs a task on the thread that owns a session's player, right away if already on it.
+     * The session is cleaned up instead if the player has left.
+     * Tasks are dropped once the plugin is disabled.
+     * 
+     * @param session The session the task belongs to
+     * @param task The task to run
+     */
+    void runFor(TeleportSession session, Runnable task) {
+        Player player = session.getPlayer();
+        plugin.getSchedulerAdapter().runFor(player, task, () -> cleanup(player));
+    }
+
+    /**
+     * Finishes a teleport after the player has been moved.
+     * 
+     * @param session The teleport that arrived
+     */
+    void arrive(TeleportSession session) {
+        Player player = session.getPlayer();
+        sessions.remove(player.getUniqueId(), session);
+        prefetcher.release(player);
+        if (!session.getScroll().getDestination().isSurfaceDestination()) {
+            hotChunks.recordArrival(player.getLocation());
         }
 
         try {
-            // Secure the location to prevent suffocation or falling
-            location = secureLocation(location);
-            
-            // Teleport the player
-            player.teleport(location);
-            
             // Apply effects from the scroll
-            Optional<Scroll> scrollOpt = plugin.getScrollStorage().getScrollByItemStack(scrollItem);
-            if (scrollOpt.isPresent()) {
-                Scroll scroll = scrollOpt.get();
+            ItemStack scrollItem = session.getScrollItem();
+            ResolvedScroll resolved = plugin.getScrollStorage().getItemResolver().resolve(scrollItem);
+            if (resolved != null) {
+                Scroll scroll = resolved.getScroll();
                 
                 // Apply effects if the player doesn't have the bypass permission
                 if (!player.hasPermission("scrollteleportation.bypass.effects")) {
@@ -89,58 +229,46 @@ public class TeleportHandler {
                 }
                 
                 // Decrease the number of uses
-                decreaseUse(scrollItem);
+                decreaseUse(scrollItem, resolved.getCurrentUses());
             }
             
             // Send a success message
-            player.sendMessage(Component.text("You have been teleported!", NamedTextColor.GREEN));
-            
-            // Set the player as not ready
-            setReady(player, false);
+            LanguageString.TELEPORT_SUCCESS.send(player);
         } catch (Exception e) {
-            plugin.getLogger().log(Level.SEVERE, "Failed to teleport player " + player.getName(), e);
-            player.sendMessage(Component.text("An error occurred during teleportation!", NamedTextColor.RED));
-            setReady(player, false);
+            plugin.getLogger().log(Level.SEVERE, "Failed to finish teleport of player " + player.getName(), e);
+            LanguageString.TELEPORT_ERROR.send(player);
         }
     }
 
     /**
-     * Secures a location to prevent suffocation or falling.
+     * Ends a teleport that could not be finished.
      * 
-     * @param location The location to secure
-     * @return The secured location
+     * @param session The teleport that failed
+     * @param message The message to send to the player
+     * @param reason The reason to log, or null if nothing went wrong on the server's side
      */
-    private Location secureLocation(Location location) {
-        if (location == null) {
-            return null;
-        }
+    void fail(TeleportSession session, LanguageString message, String reason) {
+        Player player = session.getPlayer();
+        sessions.remove(player.getUniqueId(), session);
 
-        // Find the highest block at the location
-        int highestY = location.getWorld().getHighestBlockYAt(location.getBlockX(), location.getBlockZ());
-        
-        // Create a new location at the highest block + 1
-        return new Location(
-            location.getWorld(),
-            location.getX(),
-            highestY + 1,
-            location.getZ(),
-            location.getYaw(),
-            location.getPitch()
-        );
+        if (reason != null) {
+            plugin.getLogger().warning(reason);
+        }
+        if (player.isOnline()) {
+            message.send(player);
+        }
     }
 
     /**
      * Decreases the number of uses for a scroll item.
      * 
      * @param item The scroll item
+     * @param currentUses The uses left on the item, as read when it was resolved
      */
-    private void decreaseUse(ItemStack item) {
-        if (item == null || !item.hasItemMeta()) {
+    private void decreaseUse(ItemStack item, int currentUses) {
+        if (item == null) {
             return;
         }
-
-        // Get the current number of uses
-        int currentUses = Scroll.getCurrentUses(item);
         
         // If the scroll has infinite uses, don't decrease
         if (currentUses < 0) {
@@ -157,36 +285,45 @@ public class TeleportHandler {
     }
 
     /**
-     * Sets the task ID for a player.
-     * 
-     * @param player The player to set the task ID for
-     * @param taskId The task ID
-     */
-    public void setTaskID(Player player, Integer taskId) {
-        taskIDs.put(player.getUniqueId(), taskId);
-    }
-
-    /**
-     * Gets the task ID for a player.
+     * Cancels a player's teleport.
      * 
      * @param player The player
-     * @return The task ID
+     * @return True if a teleport was cancelled, false if there was none or the player is already being moved
      */
-    public Integer getTaskID(Player player) {
-        return taskIDs.get(player.getUniqueId());
+    public boolean cancel(Player player) {
+        TeleportSession session = sessions.get(player.getUniqueId());
+        if (session == null || !session.cancel()) {
+            return false;
+        }
+        sessions.remove(player.getUniqueId(), session);
+        return true;
     }
 
     /**
-     * Cancels a teleportation task.
+     * Cancels a player's teleport because of something they did, and tells them why.
+     * Only teleports that are counting down and whose scroll cancels on the trigger are cancelled.
+     * Events from the tick the scroll was used on are ignored, since they belong to the use itself.
      * 
      * @param player The player
+     * @param trigger The thing the player did
+     * @return True if a teleport was cancelled
      */
-    public void cancelTask(Player player) {
-        Integer taskId = getTaskID(player);
-        if (taskId != null) {
-            Bukkit.getScheduler().cancelTask(taskId);
-            taskIDs.remove(player.getUniqueId());
+    public boolean cancel(Player player, CancelTrigger trigger) {
+        TeleportSession session = sessions.get(player.getUniqueId());
+        if (session == null || !session.isWarmingUp() || !session.cancelsOn(trigger)
+                || session.getStartTick() == Bukkit.getCurrentTick()) {
+            return false;
+        }
+        String bypass = trigger.getBypassPermission();
+        if (bypass != null && player.hasPermission(bypass)) {
+            return false;
         }
+        if (!session.cancel()) {
+            return false;
+        }
+        sessions.remove(player.getUniqueId(), session);
+        trigger.getMessage().send(player);
+        return true;
     }
 
     /**
@@ -195,7 +332,9 @@ public class TeleportHandler {
      * @param player The player to clean up
      */
     public void cleanup(Player player) {
-        readyPlayers.remove(player.getUniqueId());
-        taskIDs.remove(player.getUniqueId());
+        TeleportSession session = sessions.remove(player.getUniqueId());
+        if (session != null) {
+            session.cancel();
+        }
     }
-} 
\ No newline at end of file
+}
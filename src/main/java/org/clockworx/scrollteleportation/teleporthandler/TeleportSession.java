@@ -0,0 +1,403 @@
+package org.clockworx.scrollteleportation.teleporthandler;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.clockworx.scrollteleportation.ScrollTeleportation;
+import org.clockworx.scrollteleportation.exceptions.DestinationInvalidException;
+import org.clockworx.scrollteleportation.files.CancelTrigger;
+import org.clockworx.scrollteleportation.files.LanguageString;
+import org.clockworx.scrollteleportation.storage.Scroll;
+import org.clockworx.scrollteleportation.storage.ScrollDestination;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * One player's scroll teleport, split into stages that never block the main thread.
+ * The destination is resolved when the scroll is activated and its chunk is loaded
+ * asynchronously while the delay counts down. Once the delay is over a safe spot is
+ * picked in the loaded chunk and the player is moved with an asynchronous teleport.
+ * Random destinations take a spot from the {@link LandingPool} when one is ready, which
+ * only needs its own column checked again. A random point whose chunk has no safe spot,
+ * like open ocean, is replaced by another one, up to the configured sample attempts.
+ * Teleports to the same chunk share the load and the search through {@link LandingFlights}.
+ * Each asynchronous stage has its own timeout, and every stage hands its result back to
+ * the thread that owns the player, which on Folia is the player's region.
+ * <p>
+ * Every stage change is a compare-and-set, so listeners and async callbacks can check
+ * and cancel a session from any thread; a stage that lost the race simply stops.
+ */
+public class TeleportSession {
+
+    /**
+     * The stages a teleport goes through.
+     * Sessions move forward and end as {@link #DONE} or {@link #CANCELLED}. The only step back
+     * is from {@link #SECURING} to {@link #LOADING}, when a random point had no safe spot and
+     * another one is tried.
+     */
+    public enum Stage {
+        IDLE,
+        WARMUP,
+        LOADING,
+        SECURING,
+        TELEPORTING,
+        DONE,
+        CANCELLED
+    }
+
+    private final ScrollTeleportation plugin;
+    private final TeleportHandler handler;
+    private final Player player;
+    private final Scroll scroll;
+    private final ItemStack scrollItem;
+    private final int itemSlot;
+    private final int startTick;
+    private final int cancelMask;
+    private final UUID originWorld;
+    private final int originX;
+    private final int originY;
+    private final int originZ;
+
+    private final AtomicReference<Stage> stage = new AtomicReference<>(Stage.IDLE);
+    private volatile Location target;
+    private volatile boolean pooled;
+    private CompletableFuture<Chunk> chunkLoad;
+    private LandingFlights.Flight flight;
+    private int resamples;
+
+    /**
+     * Creates a new TeleportSession instance.
+     *
+     * @param plugin The plugin instance
+     * @param handler The handler tracking the session
+     * @param player The player to teleport
+     * @param scroll The scroll being used
+     * @param scrollItem The scroll item being used
+     */
+    TeleportSession(ScrollTeleportation plugin, TeleportHandler handler, Player player, Scroll scroll,
+                    ItemStack scrollItem) {
+        this.plugin = plugin;
+        this.handler = handler;
+        this.player = player;
+        this.scroll = scroll;
+        this.scrollItem = scrollItem;
+        this.itemSlot = player.getInventory().getHeldItemSlot();
+        this.startTick = Bukkit.getCurrentTick();
+        this.cancelMask = plugin.getMainConfig().getSnapshot().getCancelRules().maskFor(scroll);
+
+        Location origin = player.getLocation();
+        this.originWorld = origin.getWorld().getUID();
+        this.originX = origin.getBlockX();
+        this.originY = origin.getBlockY();
+        this.originZ = origin.getBlockZ();
+    }
+
+    /**
+     * Resolves the destination and, if enabled, starts loading its chunk.
+     * Must be called on the thread that owns the player.
+     *
+     * @throws DestinationInvalidException if the destination cannot be resolved
+     */
+    void resolve() throws DestinationInvalidException {
+        ScrollDestination destination = scroll.getDestination();
+        Location resolved = handler.getPrefetcher().claim(player, destination);
+        if (resolved == null && destination.isSurfaceDestination()) {
+            resolved = handler.getLandingPool().poll(destination);
+        }
+        if (resolved != null && plugin.getMainConfig().isRegionBlocked(resolved)) {
+            // Blocked after the spot was pooled
+            resolved = null;
+        }
+        pooled = resolved != null;
+        if (resolved == null) {
+            resolved = destination.getTargetLocation();
+        }
+        target = resolved;
+
+        if (!transition(Stage.IDLE, Stage.WARMUP)) {
+            return;
+        }
+        handler.getWarmupListeners().warmupStarted(cancelMask);
+        if (plugin.getMainConfig().doLoadChunk()) {
+            loadChunk();
+        }
+    }
+
+    /**
+     * Finishes the teleport once the delay is over.
+     * Must be called on the thread that owns the player.
+     */
+    public void complete() {
+        if (!transition(Stage.WARMUP, Stage.LOADING)) {
+            return;
+        }
+        handler.getWarmupListeners().warmupEnded(cancelMask);
+        load();
+    }
+
+    private void load() {
+        loadChunk().whenComplete((chunk, error) -> handler.runFor(this, () -> {
+            if (error != null) {
+                fail(Stage.LOADING, "load the destination chunk", error);
+            } else {
+                secure(chunk);
+            }
+        }));
+    }
+
+    private CompletableFuture<Chunk> loadChunk() {
+        if (chunkLoad == null) {
+            if (pooled) {
+                chunkLoad = target.getWorld()
+                        .getChunkAtAsync(target.getBlockX() >> 4, target.getBlockZ() >> 4)
+                        .orTimeout(plugin.getMainConfig().getChunkLoadTimeout(), TimeUnit.MILLISECONDS);
+            } else {
+                // Teleports to the same chunk share one load and one search
+                flight = handler.getLandingFlights().join(scroll.getDestination(), target, this);
+                chunkLoad = flight.loadChunk();
+            }
+        }
+        return chunkLoad;
+    }
+
+    private void secure(Chunk chunk) {
+        if (!transition(Stage.LOADING, Stage.SECURING)) {
+            return;
+        }
+
+        // Pooled spots were safe when they were added, but the blocks may have changed since;
+        // checking the spot's own column again is cheap and falls back to the nearest safe spot
+        CompletableFuture<Location> search = pooled
+                ? handler.getLandingEngine().findAsync(chunk, target, false)
+                : flight.findLanding(chunk, scroll.getDestination().isSurfaceDestination());
+        search.whenComplete((landing, error) -> handler.runFor(this, () -> {
+            if (error != null) {
+                fail(Stage.SECURING, "find a safe spot", error);
+            } else if (landing == null) {
+                resample();
+            } else {
+                // Players who joined another teleport's search share its spot
+                boolean shared = !pooled && !flight.isStartedBy(this);
+                teleport(Stage.SECURING, shared ? LandingFlights.jitter(landing) : landing);
+            }
+        }));
+    }
+
+    /**
+     * Tries another random point after a chunk without a safe spot, which open ocean often is.
+     * Fixed destinations, and random ones that ran out of attempts, fail instead.
+     */
+    private void resample() {
+        ScrollDestination destination = scroll.getDestination();
+        int attempts = plugin.getMainConfig().getSnapshot().getLandingRules().getSampleAttempts();
+        if (!destination.isSurfaceDestination() || ++resamples >= attempts) {
+            if (transition(Stage.SECURING, Stage.CANCELLED)) {
+                handler.fail(this, LanguageString.NO_SAFE_DESTINATION, null);
+            }
+            return;
+        }
+
+        Location next;
+        try {
+            next = destination.getTargetLocation();
+        } catch (DestinationInvalidException e) {
+            fail(Stage.SECURING, "pick another random point", e);
+            return;
+        }
+        if (!transition(Stage.SECURING, Stage.LOADING)) {
+            return;
+        }
+        target = next;
+        pooled = false;
+        chunkLoad = null;
+        flight = null;
+        load();
+    }
+
+    private void teleport(Stage from, Location landing) {
+        if (!player.isOnline()) {
+            if (transition(from, Stage.CANCELLED)) {
+                handler.cleanup(player);
+            }
+            return;
+        }
+        if (!transition(from, Stage.TELEPORTING)) {
+            return;
+        }
+
+        player.teleportAsync(landing)
+                .orTimeout(plugin.getMainConfig().getTeleportTimeout(), TimeUnit.MILLISECONDS)
+                .whenComplete((teleported, error) -> handler.runFor(this, () -> {
+                    if (error != null) {
+                        fail(Stage.TELEPORTING, "teleport", error);
+                    } else if (!teleported) {
+                        fail(Stage.TELEPORTING, "teleport", new IllegalStateException("the teleport was refused"));
+                    } else if (transition(Stage.TELEPORTING, Stage.DONE)) {
+                        handler.arrive(this);
+                    }
+                }));
+    }
+
+    private void fail(Stage from, String action, Throwable error) {
+        if (!transition(from, Stage.CANCELLED)) {
+            return;
+        }
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        String reason = cause instanceof TimeoutException ? "timed out" : String.valueOf(cause.getMessage());
+        LanguageString message = from == Stage.LOADING ? LanguageString.LOAD_CHUNK_ERROR : LanguageString.TELEPORT_ERROR;
+        handler.fail(this, message,
+                "Failed to " + action + " for player " + player.getName() + ": " + reason);
+    }
+
+    private boolean transition(Stage from, Stage to) {
+        return stage.compareAndSet(from, to);
+    }
+
+    /**
+     * Cancels the teleport.
+     * A loading chunk keeps loading, but nothing happens once it is done.
+     *
+     * @return True if this call cancelled the teleport, false if it had already ended
+     *         or the player is already being moved
+     */
+    public boolean cancel() {
+        while (true) {
+            Stage current = stage.get();
+            if (current == Stage.TELEPORTING || current == Stage.DONE || current == Stage.CANCELLED) {
+                return false;
+            }
+            if (stage.compareAndSet(current, Stage.CANCELLED)) {
+                if (current == Stage.WARMUP) {
+                    handler.getWarmupListeners().warmupEnded(cancelMask);
+                }
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Gets the current stage of the teleport.
+     *
+     * @return The stage
+     */
+    public Stage getStage() {
+        return stage.get();
+    }
+
+    /**
+     * Checks if the teleport has not ended yet.
+     *
+     * @return True if the teleport is neither done nor cancelled
+     */
+    public boolean isActive() {
+        Stage current = stage.get();
+        return current != Stage.DONE && current != Stage.CANCELLED;
+    }
+
+    /**
+     * Checks if the teleport is waiting for its delay to pass.
+     *
+     * @return True if the session is in {@link Stage#WARMUP}
+     */
+    public boolean isWarmingUp() {
+        return stage.get() == Stage.WARMUP;
+    }
+
+    /**
+     * Checks if something the player does cancels the teleport while it counts down.
+     *
+     * @param trigger The thing the player did
+     * @return True if the scroll cancels on the trigger
+     */
+    public boolean cancelsOn(CancelTrigger trigger) {
+        return (cancelMask & trigger.bit()) != 0;
+    }
+
+    /**
+     * Gets the player being teleported.
+     *
+     * @return The player
+     */
+    public Player getPlayer() {
+        return player;
+    }
+
+    /**
+     * Gets the scroll being used.
+     *
+     * @return The scroll
+     */
+    public Scroll getScroll() {
+        return scroll;
+    }
+
+    /**
+     * Gets the scroll item being used.
+     *
+     * @return The scroll item
+     */
+    public ItemStack getScrollItem() {
+        return scrollItem;
+    }
+
+    /**
+     * Gets the hotbar slot the scroll was held in when it was activated.
+     *
+     * @return The slot index
+     */
+    public int getItemSlot() {
+        return itemSlot;
+    }
+
+    /**
+     * Gets the server tick the scroll was activated on.
+     *
+     * @return The tick
+     */
+    public int getStartTick() {
+        return startTick;
+    }
+
+    /**
+     * Gets the world the player was in when the scroll was activated.
+     *
+     * @return The world's UUID
+     */
+    public UUID getOriginWorld() {
+        return originWorld;
+    }
+
+    /**
+     * Gets the X coordinate of the block the player stood in when the scroll was activated.
+     *
+     * @return The block X coordinate
+     */
+    public int getOriginX() {
+        return originX;
+    }
+
+    /**
+     * Gets the Y coordinate of the block the player stood in when the scroll was activated.
+     *
+     * @return The block Y coordinate
+     */
+    public int getOriginY() {
+        return originY;
+    }
+
+    /**
+     * Gets the Z coordinate of the block the player stood in when the scroll was activated.
+     *
+     * @return The block Z coordinate
+     */
+    public int getOriginZ() {
+        return originZ;
+    }
+}